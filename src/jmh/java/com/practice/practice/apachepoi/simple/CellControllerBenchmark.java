@@ -0,0 +1,91 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * CellController의 addText(점점 커지는 Cell), addImage, addFile을 측정한다.
+ * Row Height 계산과 이미지/첨부 파일 배치는 write() 할 때 일어나므로(CellController.layout() 참고) write()까지 측정한다.
+ * write() 자체의 고정 비용은 writeEmpty로 따로 측정한다.
+ * Workbook은 매 호출마다 새로 만들며, 만드는 시간은 측정에서 제외된다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CellControllerBenchmark {
+    private static final String TEXT = "위원은 탄핵 또는 금고 이상의 형의 선고에 의하지 아니하고는 파면되지 아니한다.";
+
+    @Param({"10", "100"})
+    private int appendCount;
+
+    private ImageObject imageObject;
+    private EmbeddedFile embeddedFile;
+    private ExcelContoller excelContoller;
+
+    @Setup(Level.Trial)
+    public void setupTrial(){
+        PoiAssetCache poiAssetCache = PoiAssetCache.getInstance();
+        imageObject = new ImageObject(poiAssetCache.get("cat150x100.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "cat.jpg");
+        embeddedFile = new EmbeddedFile(poiAssetCache.get("test.pptx"), EmbeddedFileFormatEnum.POWER_POINT, "test.pptx");
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws IOException{
+        excelContoller = new ExcelContoller();
+        excelContoller.setColumnWidthInPixel(0, 200);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() throws IOException{
+        excelContoller.close();
+    }
+
+    @Benchmark
+    public ExcelContoller writeEmpty() throws IOException{
+        excelContoller.selectCell(0, 0);
+        excelContoller.write(OutputStream.nullOutputStream());
+        return excelContoller;
+    }
+
+    @Benchmark
+    public ExcelContoller addTextToGrowingCell() throws IOException{
+        CellController cellController = excelContoller.selectCell(0, 0);
+        for(int i = 0; i < appendCount; i++){
+            cellController.addText(TEXT);
+        }
+        excelContoller.write(OutputStream.nullOutputStream());
+        return excelContoller;
+    }
+
+    @Benchmark
+    public ExcelContoller addImage() throws IOException{
+        CellController cellController = excelContoller.selectCell(0, 0);
+        for(int i = 0; i < appendCount; i++){
+            cellController.addImage(imageObject);
+        }
+        excelContoller.write(OutputStream.nullOutputStream());
+        return excelContoller;
+    }
+
+    @Benchmark
+    public ExcelContoller addFile() throws IOException{
+        CellController cellController = excelContoller.selectCell(0, 0);
+        for(int i = 0; i < appendCount; i++){
+            cellController.addFile(embeddedFile);
+        }
+        excelContoller.write(OutputStream.nullOutputStream());
+        return excelContoller;
+    }
+}
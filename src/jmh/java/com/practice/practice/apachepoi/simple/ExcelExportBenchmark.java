@@ -0,0 +1,72 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * ExcelContoller로 Workbook을 만들고 쓰기까지의 전체 경로를 측정한다.
+ * 출력은 버리므로(Blackhole) 압축까지 포함한 CPU 시간과 할당만 측정된다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExcelExportBenchmark {
+    @Param({"1000"})
+    private int rowCount;
+
+    @Param({"0", "100"})
+    private int rowAccessWindowSize; // 0이면 XSSFWorkbook, 아니면 Streaming 모드
+
+    private ImageObject imageObject;
+    private EmbeddedFile embeddedFile;
+
+    @Setup
+    public void setup(){
+        PoiAssetCache poiAssetCache = PoiAssetCache.getInstance();
+        imageObject = new ImageObject(poiAssetCache.get("dog200x200.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "dog.jpg");
+        embeddedFile = new EmbeddedFile(poiAssetCache.get("test.xlsx"), EmbeddedFileFormatEnum.EXCEL, "test.xlsx");
+    }
+
+    @Benchmark
+    public void buildAndWrite(final Blackhole blackhole) throws IOException{
+        ExcelContoller excelContoller = new ExcelContoller("sheet1", (short) 10, rowAccessWindowSize);
+        try{
+            for(int col = 0; col < 10; col++){
+                excelContoller.setColumnWidthInPixel(col, 150);
+                excelContoller.selectCell(0, col).setText("Header" + col).setFontBold(true);
+            }
+            for(int row = 1; row <= rowCount; row++){
+                for(int col = 0; col < 10; col++){
+                    excelContoller.selectCell(row, col).setText("R" + row + "C" + col);
+                }
+                if(row % 100 == 0){
+                    excelContoller.selectCell(row, 0).addImage(imageObject).addFile(embeddedFile);
+                }
+            }
+            excelContoller.write(new OutputStream(){
+                @Override
+                public void write(int b){
+                    blackhole.consume(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len){
+                    blackhole.consume(len);
+                }
+            });
+        }finally{
+            excelContoller.close();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * N×M Grid의 Cell을 selectCell로 처음 만들 때와 다시 선택할 때를 측정한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SelectCellBenchmark {
+    @Param({"100"})
+    private int rowCount;
+
+    @Param({"10", "100"})
+    private int colCount;
+
+    private ExcelContoller excelContoller; // 매 호출마다 새로 만든다.(createGrid)
+    private ExcelContoller filledExcelContoller; // Grid가 채워져 있다.(reselectGrid)
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException{
+        filledExcelContoller = new ExcelContoller();
+        for(int row = 0; row < rowCount; row++){
+            for(int col = 0; col < colCount; col++){
+                filledExcelContoller.selectCell(row, col);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException{
+        filledExcelContoller.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws IOException{
+        excelContoller = new ExcelContoller();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() throws IOException{
+        excelContoller.close();
+    }
+
+    @Benchmark
+    public void createGrid(Blackhole blackhole){
+        for(int row = 0; row < rowCount; row++){
+            for(int col = 0; col < colCount; col++){
+                blackhole.consume(excelContoller.selectCell(row, col));
+            }
+        }
+    }
+
+    @Benchmark
+    public void reselectGrid(Blackhole blackhole){
+        for(int row = 0; row < rowCount; row++){
+            for(int col = 0; col < colCount; col++){
+                blackhole.consume(filledExcelContoller.selectCell(row, col));
+            }
+        }
+    }
+}
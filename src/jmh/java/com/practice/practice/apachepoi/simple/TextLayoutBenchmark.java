@@ -0,0 +1,63 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cell Text의 줄 수 계산(TextLayout.getLineCount, 이전의 CellController.getLineCountFromText)을 측정한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TextLayoutBenchmark {
+    private static final String SENTENCE = "대통령은 헌법과 법률이 정하는 바에 의하여 국군을 통수한다. The quick brown fox jumps over the lazy dog.\n";
+
+    @Param({"100", "10000"})
+    private int textLength;
+
+    private GlyphWidthTable glyphWidthTable;
+    private String text;
+
+    @Setup
+    public void setup(){
+        glyphWidthTable = GlyphWidthTable.of(UnitConverter.BASE_FONT_NAME, 10, false);
+        StringBuilder builder = new StringBuilder(textLength);
+        while(builder.length() < textLength){
+            builder.append(SENTENCE);
+        }
+        text = builder.substring(0, textLength);
+    }
+
+    /**
+     * 전체 Text의 줄 수를 처음부터 계산한다.(폰트나 Column 넓이가 바뀐 경우)
+     */
+    @Benchmark
+    public int fullMeasure(){
+        TextLayout textLayout = new TextLayout();
+        textLayout.setText(text);
+        return textLayout.getLineCount(glyphWidthTable, 200d);
+    }
+
+    /**
+     * Text를 10번에 나눠 이어 붙이면서 매번 줄 수를 계산한다.(addText 경로)
+     */
+    @Benchmark
+    public int incrementalMeasure(){
+        TextLayout textLayout = new TextLayout();
+        final int chunk = Math.max(1, text.length() / 10);
+        int lineCount = 0;
+        for(int start = 0; start < text.length(); start += chunk){
+            textLayout.append(text.subSequence(start, Math.min(text.length(), start + chunk)));
+            lineCount = textLayout.getLineCount(glyphWidthTable, 200d);
+        }
+        return lineCount;
+    }
+}
@@ -0,0 +1,48 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * UnitConverter의 단위 변환을 측정한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UnitConverterBenchmark {
+    private int pixel = 200;
+    private double point = 12.5d;
+    private int width = 7000;
+
+    @Benchmark
+    public void pointToPixel(Blackhole blackhole){
+        blackhole.consume(UnitConverter.pointToPixel(point));
+    }
+
+    @Benchmark
+    public void widthToWidthPixel(Blackhole blackhole){
+        blackhole.consume(UnitConverter.widthToWidthPixel(width, UnitConverter.BASE_FONT_POINT));
+    }
+
+    @Benchmark
+    public void widthPixelToWidth(Blackhole blackhole){
+        blackhole.consume(UnitConverter.widthPixelToWidth(pixel, UnitConverter.BASE_FONT_POINT));
+    }
+
+    @Benchmark
+    public void getHeightFromPixel(Blackhole blackhole){
+        blackhole.consume(UnitConverter.getHeightFromPixel(pixel));
+    }
+
+    @Benchmark
+    public void getHeightFromPoint(Blackhole blackhole){
+        blackhole.consume(UnitConverter.getHeightFromPoint(point));
+    }
+}
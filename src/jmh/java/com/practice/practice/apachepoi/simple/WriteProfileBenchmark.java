@@ -0,0 +1,82 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * WriteProfileEnum별 쓰기 시간을 측정한다.(DEFAULT는 setWriteProfile()을 설정하지 않은 POI 기본 압축)
+ * 같은 Workbook을 반복해서 쓰며, 쓴 크기는 OutputCounters(AuxCounters)로 결과에 함께 보고한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WriteProfileBenchmark {
+    @Param({"DEFAULT", "FAST", "BALANCED", "SMALLEST"})
+    private String writeProfile;
+
+    private ExcelContoller excelContoller;
+
+    /**
+     * 쓴 크기를 JMH 결과에 보고한다.(Iteration마다 합계, 파일 하나의 크기는 outputBytes / writeCount)
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class OutputCounters {
+        public long outputBytes;
+        public long writeCount;
+
+        @Setup(Level.Iteration)
+        public void reset(){
+            outputBytes = 0L;
+            writeCount = 0L;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup(){
+        PoiAssetCache poiAssetCache = PoiAssetCache.getInstance();
+        ImageObject dogImageObject = new ImageObject(poiAssetCache.get("dog200x200.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "dog.jpg");
+        ImageObject fubaoImageObject = new ImageObject(poiAssetCache.get("fubao560x410.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "fubao.jpg");
+        EmbeddedFile powerPointFile = new EmbeddedFile(poiAssetCache.get("test.pptx"), EmbeddedFileFormatEnum.POWER_POINT, "test.pptx");
+        EmbeddedFile excelFile = new EmbeddedFile(poiAssetCache.get("test.xlsx"), EmbeddedFileFormatEnum.EXCEL, "test.xlsx");
+
+        excelContoller = new ExcelContoller();
+        List<Object[]> rows = new ArrayList<>();
+        for(int i = 0; i < 5000; i++){
+            rows.add(new Object[]{"Row" + i, i, i * 1.5d, "Text " + (i % 100)});
+        }
+        excelContoller.writeRows(10, rows);
+        excelContoller.selectCell(0, 0).addImage(dogImageObject).addImage(fubaoImageObject);
+        excelContoller.selectCell(0, 1).addFile(powerPointFile).addFile(excelFile);
+        excelContoller.setWriteProfile("DEFAULT".equals(writeProfile) ? null : WriteProfileEnum.valueOf(writeProfile));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException{
+        excelContoller.close();
+    }
+
+    @Benchmark
+    public long write(OutputCounters outputCounters) throws IOException{
+        ExcelMetrics.CountingOutputStream outputStream = new ExcelMetrics.CountingOutputStream(OutputStream.nullOutputStream());
+        excelContoller.write(outputStream);
+        outputCounters.outputBytes += outputStream.getCount();
+        outputCounters.writeCount++;
+        return outputStream.getCount();
+    }
+}
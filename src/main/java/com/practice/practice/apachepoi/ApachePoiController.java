@@ -3,30 +3,154 @@ package com.practice.practice.apachepoi;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.practice.practice.apachepoi.export.ExportGate;
+import com.practice.practice.apachepoi.export.ExportJob;
+import com.practice.practice.apachepoi.export.ExportRejectedException;
+import com.practice.practice.apachepoi.export.ExportJobService;
 
 
 @RestController
 public class ApachePoiController {
     @Autowired
     private ApachePoiService apachePoiService;
+    @Autowired
+    private ExportJobService exportJobService;
+    @Autowired
+    private ExportGate exportGate;
 
+    /**
+     * ExportGate에서 메모리 예산을 빌린 뒤 엑셀을 만들고, 다운로드가 끝나면 예산을 돌려준다.
+     * 예산을 빌리지 못하면 503을 반환한다.
+     * 비동기 요청이 끝나면(완료, 타임아웃, 오류) StreamingResponseBody가 실행되지 않았더라도 예산을 돌려준다.
+     */
     @GetMapping("/apache-poi/test")
-    public ResponseEntity<Resource> apachePoiTest(HttpServletResponse response) throws IOException{
+    public ResponseEntity<StreamingResponseBody> apachePoiTest(HttpServletRequest request, HttpServletResponse response) throws IOException, InterruptedException{
         final String fileName = "TEST";
+        final ExportGate.Permit permit = exportGate.acquire(apachePoiService.estimateTest());
+        final StreamingResponseBody body;
+        try{
+            body = apachePoiService.test();
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(permit, new CallableProcessingInterceptor(){
+                @Override
+                public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task){
+                    permit.close();
+                }
+            });
+        }catch(IOException | RuntimeException e){
+            permit.close();
+            throw e;
+        }
         return ResponseEntity
               .ok()
               .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + fileName +".xlsx")
               .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
-              .body(apachePoiService.test());
+              .body(outputStream -> {
+                  try(permit){
+                      body.writeTo(outputStream);
+                  }
+              });
+    }
+
+    /**
+     * test()와 같은 엑셀을 비동기로 만든다.
+     * 작업 id와 상태 조회 URL을 바로 반환하며, 대기열이 가득 차면 503을 반환한다.
+     */
+    @PostMapping("/apache-poi/jobs")
+    public ResponseEntity<Map<String, Object>> submitExportJob(){
+        final ExportJob job;
+        try{
+            job = exportJobService.submit("TEST.xlsx", apachePoiService.estimateTest(), apachePoiService::buildTest);
+        }catch(RejectedExecutionException e){
+            return ResponseEntity
+                  .status(HttpStatus.SERVICE_UNAVAILABLE)
+                  .header(HttpHeaders.RETRY_AFTER, "10")
+                  .build();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("jobId", job.getJobId());
+        body.put("statusUrl", "/apache-poi/jobs/" + job.getJobId());
+        return ResponseEntity
+              .accepted()
+              .location(URI.create("/apache-poi/jobs/" + job.getJobId()))
+              .body(body);
+    }
+
+    /**
+     * ExportGate(메모리 예산, 대기열, 거절 횟수)와 내보내기 작업 대기열의 상태를 반환한다.
+     */
+    @GetMapping("/apache-poi/gate")
+    public Map<String, Object> getExportGateStats(){
+        Map<String, Object> stats = exportGate.getStats();
+        stats.put("jobQueueDepth", exportJobService.getQueuedCount());
+        return stats;
+    }
+
+    /**
+     * 작업의 진행 상황(단계, 작성한 Row의 수, 쓴 byte 수)을 반환한다.
+     */
+    @GetMapping("/apache-poi/jobs/{jobId}")
+    public ResponseEntity<ExportJob> getExportJob(@PathVariable String jobId){
+        ExportJob job = exportJobService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 완료된 작업의 엑셀 파일을 내려준다.
+     * 작업이 없으면 404, 아직 완료되지 않았거나 실패했으면 409를 반환한다.
+     */
+    @GetMapping("/apache-poi/jobs/{jobId}/file")
+    public ResponseEntity<Resource> downloadExportJob(@PathVariable String jobId) throws IOException{
+        ExportJob job = exportJobService.getJob(jobId);
+        if(job == null){
+            return ResponseEntity.notFound().build();
+        }
+        Path spoolFile = exportJobService.getSpoolFile(job);
+        if(spoolFile == null){
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity
+              .ok()
+              .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + job.getFileName())
+              .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
+              .contentLength(Files.size(spoolFile))
+              .body(new FileSystemResource(spoolFile));
+    }
+
+    /**
+     * ExportGate가 메모리 예산이 부족해서 거절한 요청에 503과 Retry-After로 응답한다.
+     */
+    @ExceptionHandler(ExportRejectedException.class)
+    public ResponseEntity<Void> handleExportRejected(ExportRejectedException e){
+        return ResponseEntity
+              .status(HttpStatus.SERVICE_UNAVAILABLE)
+              .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+              .build();
     }
-    
 }
@@ -1,28 +1,73 @@
 package com.practice.practice.apachepoi;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 
+import javax.annotation.PostConstruct;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.practice.practice.apachepoi.export.ExportCost;
+import com.practice.practice.apachepoi.export.ExportProgress;
 import com.practice.practice.apachepoi.simple.ExcelContoller;
+import com.practice.practice.apachepoi.simple.ExcelTemplate;
 import com.practice.practice.apachepoi.simple.EmbeddedFile;
 import com.practice.practice.apachepoi.simple.EmbeddedFileFormatEnum;
 import com.practice.practice.apachepoi.simple.ImageFormatEnum;
 import com.practice.practice.apachepoi.simple.ImageObject;
+import com.practice.practice.apachepoi.simple.PoiAssetCache;
 
 @Service
 public class ApachePoiService {
+    private static final String TEST_EXPORT_NAME = "test"; // poi.export.* Metric의 export Tag
+
+    private final MeterRegistry meterRegistry;
+    private ImageObject dogImageObject;
+    private ImageObject catImageObject;
+    private EmbeddedFile textFile;
+    private EmbeddedFile powerPointFile;
+    private EmbeddedFile excelFile;
+    private ExcelTemplate headerTemplate;
+
+    public ApachePoiService(MeterRegistry meterRegistry){
+        this.meterRegistry = meterRegistry;
+    }
 
-    public Resource test() throws IOException{
-        ExcelContoller excelContoller = new ExcelContoller();
+    /**
+     * 시작할 때 PoiAssetCache(/static/poi)를 읽고, 요청마다 사용할 이미지, 파일, 헤더 템플릿을 한 번만 만든다.
+     */
+    @PostConstruct
+    public void init(){
+        PoiAssetCache poiAssetCache = PoiAssetCache.getInstance();
 
-        // 헤더
+        // 이미지
+        dogImageObject = new ImageObject(poiAssetCache.get("dog200x200.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "dog.jpg");
+        catImageObject = new ImageObject(poiAssetCache.get("cat150x100.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "cat.jpg");
+        // ImageObject fubaoImageObject = new ImageObject(poiAssetCache.get("fubao560x410.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "fubao.jpg");
+
+        // 파일
+        textFile = new EmbeddedFile(poiAssetCache.get("test.txt"), EmbeddedFileFormatEnum.TEXT, "test.txt");
+        powerPointFile = new EmbeddedFile(poiAssetCache.get("test.pptx"), EmbeddedFileFormatEnum.POWER_POINT, "test.pptx");
+        excelFile = new EmbeddedFile(poiAssetCache.get("test.xlsx"), EmbeddedFileFormatEnum.EXCEL, "test.xlsx");
+
+        // 헤더 템플릿
+        try{
+            headerTemplate = ExcelTemplate.build(this::buildHeader);
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 요청마다 같은 헤더(스타일, Column Width, Row Height)를 작성한다.
+     * 시작할 때 한 번만 호출되어 템플릿으로 저장된다.
+     */
+    private void buildHeader(ExcelContoller excelContoller){
         for(int i = 0; i < 100; i++){
             if(i == 0){
                 for(int j = 0; j < 100; j++){
@@ -44,57 +89,77 @@ public class ApachePoiService {
             ;
         }
         excelContoller.setRowHeightInPixel(0, 30);
+    }
 
-        // 이미지
-        byte[] dogImageByteArray = Files.readAllBytes(new ClassPathResource("static/poi/dog200x200.jpg").getFile().toPath());
-        ImageObject dogImageObject = new ImageObject(dogImageByteArray, ImageFormatEnum.PICTURE_TYPE_JPEG, "dog.jpg");
-        byte[] catImageByteArray = Files.readAllBytes(new ClassPathResource("static/poi/cat150x100.jpg").getFile().toPath());
-        ImageObject catImageObject = new ImageObject(catImageByteArray, ImageFormatEnum.PICTURE_TYPE_JPEG, "cat.jpg");
-        // byte[] fubaoImageByteArray = Files.readAllBytes(new ClassPathResource("static/poi/fubao560x410.jpg").getFile().toPath());
-        // ImageObject fubaoImageObject = new ImageObject(fubaoImageByteArray, ImageFormatEnum.PICTURE_TYPE_JPEG, "fubao.jpg");
+    /**
+     * test()가 사용할 메모리를 추정한다.(헤더 100 Cell, 데이터 17 Cell, Cell마다 이미지 2개와 첨부 파일 3개)
+     * @return test()가 사용할 메모리의 추정치
+     */
+    public ExportCost estimateTest(){
+        return new ExportCost()
+            .addCells(100 + 17)
+            .addImage(catImageObject, 17)
+            .addImage(dogImageObject, 17)
+            .addEmbeddedFile(powerPointFile, 17)
+            .addEmbeddedFile(textFile, 17)
+            .addEmbeddedFile(excelFile, 17);
+    }
 
-        // 파일
-        byte[] textByteArray = Files.readAllBytes(new ClassPathResource("static/poi/test.txt").getFile().toPath());
-        byte[] powerPointByteArray = Files.readAllBytes(new ClassPathResource("static/poi/test.pptx").getFile().toPath());
-        byte[] excelByteArray = Files.readAllBytes(new ClassPathResource("static/poi/test.xlsx").getFile().toPath());
-        EmbeddedFile textFile = new EmbeddedFile(textByteArray, EmbeddedFileFormatEnum.TEXT, "test.txt");
-        EmbeddedFile powerPointFile = new EmbeddedFile(powerPointByteArray, EmbeddedFileFormatEnum.POWER_POINT, "test.pptx");
-        EmbeddedFile excelFile = new EmbeddedFile(excelByteArray, EmbeddedFileFormatEnum.EXCEL, "test.xlsx");
-
-        for(int i = 5; i <= 21; i++){
-            excelContoller
-                .selectCell(1, i - 5)
-                .setFontSize(i)
-                .addText("fontSize: " + i)
-                .addFile(powerPointFile)
-                .addText("위원은 탄핵 또는 금고 이상의 형의 선고에 의하지 아니하고는 파면되지 아니한다.")
-                .addFile(textFile)
-                .addImage(catImageObject)
-                .addText("대통령은 헌법과 법률이 정하는 바에 의하여 국군을 통수한다.")
-                .addFile(excelFile)
-                .addText("군사재판을 관할하기 위하여 특별법원으로서 군사법원을 둘 수 있다.")
-                .addImage(dogImageObject)
-            ;
-        }
+    public StreamingResponseBody test() throws IOException{
+        return buildTest(ExportProgress.NONE).getStreamingResponseBodyAndClose();
+    }
 
-        // 셀 머지
-        // excelContoller
-        //     .mergedRegion(3, 4, 0, 0)
-        //     .selectCell(3, 0)
-        // ;
-        // excelContoller
-        //     .mergedRegionAndSelect(4, 5, 0, 1)
-        //     .setCellColor(100, 100, 100)
-        //     .setDataFormat(0x31);
-        // ;
-        // excelContoller
-        //     .mergedRegion("C5", "D5")
-        //     .setCellColor(0, 0, 0)
-        //     .setDataFormat("#,##0")
-        // ;
-    ;
-
-
-        return excelContoller.getResourceAndClose();
+    /**
+     * test()의 Workbook을 채운다.
+     * ExportJobService로 비동기 내보내기를 할 때도 사용한다.
+     * @param progress 작성한 Row의 수를 보고받는 ExportProgress
+     * @return Workbook을 채운 ExcelContoller(close는 호출한 쪽에서 한다.)
+     * @throws IOException
+     */
+    public ExcelContoller buildTest(ExportProgress progress) throws IOException{
+        ExcelContoller excelContoller = headerTemplate.newExcelContoller(); // 헤더는 템플릿에 미리 만들어져 있다.
+        try{
+            excelContoller.setMetrics(meterRegistry, TEST_EXPORT_NAME);
+            progress.addRowCount(1);
+
+            for(int i = 5; i <= 21; i++){
+                excelContoller
+                    .selectCell(1, i - 5)
+                    .setFontSize(i)
+                    .addText("fontSize: " + i)
+                    .addFile(powerPointFile)
+                    .addText("위원은 탄핵 또는 금고 이상의 형의 선고에 의하지 아니하고는 파면되지 아니한다.")
+                    .addFile(textFile)
+                    .addImage(catImageObject)
+                    .addText("대통령은 헌법과 법률이 정하는 바에 의하여 국군을 통수한다.")
+                    .addFile(excelFile)
+                    .addText("군사재판을 관할하기 위하여 특별법원으로서 군사법원을 둘 수 있다.")
+                    .addImage(dogImageObject)
+                ;
+            }
+
+            // 셀 머지
+            // excelContoller
+            //     .mergedRegion(3, 4, 0, 0)
+            //     .selectCell(3, 0)
+            // ;
+            // excelContoller
+            //     .mergedRegionAndSelect(4, 5, 0, 1)
+            //     .setCellColor(100, 100, 100)
+            //     .setDataFormat(0x31);
+            // ;
+            // excelContoller
+            //     .mergedRegion("C5", "D5")
+            //     .setCellColor(0, 0, 0)
+            //     .setDataFormat("#,##0")
+            // ;
+
+            progress.addRowCount(1);
+
+            return excelContoller;
+        }catch(RuntimeException e){
+            excelContoller.close();
+            throw e;
+        }
     }
 }
\ No newline at end of file
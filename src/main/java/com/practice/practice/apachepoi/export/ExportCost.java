@@ -0,0 +1,102 @@
+package com.practice.practice.apachepoi.export;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.practice.practice.apachepoi.simple.EmbeddedFile;
+import com.practice.practice.apachepoi.simple.ImageObject;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * 엑셀 내보내기 한 번이 사용할 메모리의 추정치.
+ * Cell, 이미지, 첨부 파일의 수와 크기로 계산하며, ExportGate가 전체 메모리 예산에서 이 만큼을 빌려준다.
+ * 추정치는 보수적인 근사값이다.(XMLBeans 객체, 패키지 Part, 출력 버퍼 사본을 포함)
+ */
+@Getter
+public class ExportCost {
+    /** XSSFWorkbook Cell 하나의 대략적인 크기(XMLBeans CTCell, 값, 스타일 참조) */
+    static final long XSSF_CELL_BYTES = 1024L;
+    /** Streaming 모드 Cell 하나의 대략적인 크기(메모리에는 rowAccessWindowSize만큼만 유지된다.) */
+    static final long STREAMING_CELL_BYTES = 128L;
+    /** 이미지, 첨부 파일을 배치할 때마다 생기는 Drawing, Anchor, OLE 객체의 대략적인 크기 */
+    static final long PLACEMENT_BYTES = 8L * 1024L;
+    /** 이미지, 첨부 파일 내용의 사본 수(원본 byte[], 패키지 Part, 출력 버퍼) */
+    static final int CONTENT_COPIES = 3;
+    /** Workbook 하나의 기본 크기(스타일, 테마, 패키지 구조) */
+    static final long BASE_BYTES = 2L * 1024L * 1024L;
+
+    private long cellCount;
+    private long streamingCellCount;
+    private long imageCount; // 배치 횟수
+    private long embeddedFileCount; // 배치 횟수
+    private long contentBytes; // 이미지, 첨부 파일 내용의 크기(중복 제거 후)
+    private long decodedImageBytes; // 이미지를 디코딩한 경우의 픽셀 버퍼 크기
+    @Getter(AccessLevel.NONE)
+    private final Set<Long> contentHashSet = new HashSet<>(); // 이미 더한 내용의 ContentHash
+
+    /**
+     * XSSFWorkbook 모드에서 작성할 Cell의 수를 더한다.
+     * @param count Cell의 수
+     * @return 현재 인스턴스(ExportCost)
+     */
+    public ExportCost addCells(long count){
+        cellCount += count;
+        return this;
+    }
+
+    /**
+     * Streaming 모드에서 작성할 Cell의 수를 더한다.
+     * @param count Cell의 수
+     * @return 현재 인스턴스(ExportCost)
+     */
+    public ExportCost addStreamingCells(long count){
+        streamingCellCount += count;
+        return this;
+    }
+
+    /**
+     * 이미지를 더한다.
+     * 같은 내용의 이미지는 Workbook에 한 번만 저장되므로, 내용의 크기는 ContentHash 당 한 번만 더하고 배치 횟수만큼 Anchor 크기를 더한다.
+     * @param imageObject 이미지
+     * @param placementCount 배치할 횟수
+     * @return 현재 인스턴스(ExportCost)
+     */
+    public ExportCost addImage(ImageObject imageObject, long placementCount){
+        imageCount += placementCount;
+        if(contentHashSet.add(imageObject.getContentHash())){
+            contentBytes += Math.max(0L, imageObject.getContentLength());
+            decodedImageBytes += 4L * imageObject.getWidth() * imageObject.getHeight(); // ARGB
+        }
+        return this;
+    }
+
+    /**
+     * 첨부 파일을 더한다.
+     * 같은 내용의 파일은 Workbook에 한 번만 저장되므로, 내용의 크기는 ContentHash 당 한 번만 더하고 배치 횟수만큼 OLE 객체 크기를 더한다.
+     * @param embeddedFile 첨부 파일
+     * @param placementCount 배치할 횟수
+     * @return 현재 인스턴스(ExportCost)
+     */
+    public ExportCost addEmbeddedFile(EmbeddedFile embeddedFile, long placementCount){
+        embeddedFileCount += placementCount;
+        if(contentHashSet.add(embeddedFile.getContentHash())){
+            contentBytes += Math.max(0L, embeddedFile.getContentLength());
+        }
+        return this;
+    }
+
+    /**
+     * 추정한 메모리 사용량을 반환한다.
+     * @return 추정한 메모리 사용량(byte)
+     */
+    public long getEstimatedBytes(){
+        return BASE_BYTES
+            + cellCount * XSSF_CELL_BYTES
+            + streamingCellCount * STREAMING_CELL_BYTES
+            + (imageCount + embeddedFileCount) * PLACEMENT_BYTES
+            + contentBytes * CONTENT_COPIES
+            + decodedImageBytes;
+    }
+}
@@ -0,0 +1,170 @@
+package com.practice.practice.apachepoi.export;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 엑셀 내보내기의 동시 메모리 사용량을 전체 예산 안으로 제한한다.
+ * 요청마다 ExportCost로 추정한 메모리를 예산에서 빌리고(acquire), 작업이 끝나면 돌려준다(Permit.close()).
+ * 예산이 부족하면 도착한 순서대로 대기열에서 기다리며, 대기열이 가득 찼거나 maxWait가 지나면 ExportRejectedException을 던진다.
+ * 예산보다 큰 요청은 다른 요청이 없을 때 혼자 실행된다.(영원히 거절되지 않도록)
+ */
+@Component
+public class ExportGate {
+    private final long budgetBytes;
+    private final int maxQueueSize;
+    private final long maxWaitMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Deque<Object> waiters = new ArrayDeque<>(); // 도착 순서, 맨 앞의 요청만 입장할 수 있다.
+    private long usedBytes = 0;
+    private int activeCount = 0;
+
+    private final AtomicLong admittedCount = new AtomicLong();
+    private final AtomicLong queueFullRejectedCount = new AtomicLong();
+    private final AtomicLong timeoutRejectedCount = new AtomicLong();
+
+    /**
+     * @param budgetMegaBytes 내보내기에 사용할 전체 메모리 예산(MB), 0 이하이면 최대 Heap의 1/4
+     * @param maxQueueSize 예산을 기다릴 수 있는 요청의 수
+     * @param maxWaitMillis 예산을 기다리는 최대 시간(ms)
+     */
+    public ExportGate(
+        @Value("${apache-poi.export.memory-budget-mb:0}") long budgetMegaBytes,
+        @Value("${apache-poi.export.gate-queue-size:10}") int maxQueueSize,
+        @Value("${apache-poi.export.gate-max-wait-ms:30000}") long maxWaitMillis
+    ){
+        this.budgetBytes = budgetMegaBytes > 0 ? budgetMegaBytes * 1024L * 1024L : Runtime.getRuntime().maxMemory() / 4;
+        this.maxQueueSize = maxQueueSize;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * cost만큼의 메모리 예산을 빌린다. 예산이 부족하면 maxWait까지 기다린다.
+     * @param cost 추정한 메모리 사용량
+     * @return 작업이 끝나면 close()해야 하는 Permit
+     * @throws ExportRejectedException 대기열이 가득 찼거나 maxWait가 지난 경우
+     * @throws InterruptedException 기다리는 중 인터럽트된 경우
+     */
+    public Permit acquire(ExportCost cost) throws InterruptedException{
+        final long bytes = cost.getEstimatedBytes();
+        lock.lock();
+        try{
+            if(waiters.isEmpty() && fits(bytes)){
+                return admit(bytes);
+            }
+            if(waiters.size() >= maxQueueSize){
+                queueFullRejectedCount.incrementAndGet();
+                throw new ExportRejectedException("Export queue is full (" + waiters.size() + " waiting).", getRetryAfterSeconds());
+            }
+            final Object ticket = new Object();
+            waiters.addLast(ticket);
+            try{
+                long remainingNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while(waiters.peekFirst() != ticket || !fits(bytes)){
+                    if(remainingNanos <= 0L){
+                        timeoutRejectedCount.incrementAndGet();
+                        throw new ExportRejectedException("Export memory budget is exhausted.", getRetryAfterSeconds());
+                    }
+                    remainingNanos = changed.awaitNanos(remainingNanos);
+                }
+                return admit(bytes);
+            }finally{
+                waiters.remove(ticket);
+                changed.signalAll(); // 다음 요청이 맨 앞이 되었다.
+            }
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    private boolean fits(long bytes){
+        return activeCount == 0 || usedBytes + bytes <= budgetBytes;
+    }
+
+    private Permit admit(long bytes){
+        usedBytes += bytes;
+        activeCount++;
+        admittedCount.incrementAndGet();
+        return new Permit(bytes);
+    }
+
+    private void release(long bytes){
+        lock.lock();
+        try{
+            usedBytes -= bytes;
+            activeCount--;
+            changed.signalAll();
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    private long getRetryAfterSeconds(){
+        return Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(maxWaitMillis) / 2);
+    }
+
+    /**
+     * 예산을 기다리는 요청의 수를 반환한다.
+     * @return 예산을 기다리는 요청의 수
+     */
+    public int getQueueDepth(){
+        lock.lock();
+        try{
+            return waiters.size();
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 현재 상태(예산, 사용량, 대기열, 거절 횟수)를 반환한다.
+     * @return 현재 상태
+     */
+    public Map<String, Object> getStats(){
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try{
+            stats.put("budgetBytes", budgetBytes);
+            stats.put("usedBytes", usedBytes);
+            stats.put("activeCount", activeCount);
+            stats.put("queueDepth", waiters.size());
+        }finally{
+            lock.unlock();
+        }
+        stats.put("admittedCount", admittedCount.get());
+        stats.put("queueFullRejectedCount", queueFullRejectedCount.get());
+        stats.put("timeoutRejectedCount", timeoutRejectedCount.get());
+        return stats;
+    }
+
+    /**
+     * 빌린 메모리 예산. close()하면 예산을 돌려준다.(여러 번 호출해도 한 번만 돌려준다.)
+     */
+    public class Permit implements AutoCloseable {
+        private final long bytes;
+        private boolean released = false;
+
+        private Permit(long bytes){
+            this.bytes = bytes;
+        }
+
+        @Override
+        public synchronized void close(){
+            if(!released){
+                released = true;
+                release(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.practice.practice.apachepoi.export;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * 엑셀 내보내기 작업 하나의 상태.
+ * 작업 스레드가 변경하고 요청 스레드가 읽으므로, 변경되는 필드는 volatile(또는 Atomic)이다.
+ */
+@Getter
+public class ExportJob implements ExportProgress {
+    /** 메모리 예산을 기다리다 거절된 경우 */
+    public static final String ERROR_REJECTED = "REJECTED";
+    /** 서버가 종료되는 등 작업이 중단된 경우 */
+    public static final String ERROR_INTERRUPTED = "INTERRUPTED";
+    /** 그 외의 오류 */
+    public static final String ERROR_FAILED = "FAILED";
+
+    private final String jobId;
+    private final String fileName; // 다운로드할 때의 파일 이름
+    private final Instant createdAt;
+    private volatile ExportJobPhase phase = ExportJobPhase.QUEUED;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong rowCount = new AtomicLong();
+    private volatile long writtenBytes; // 임시 파일에 쓴 byte 수
+    private volatile String errorCode; // 실패한 경우의 코드(ERROR_REJECTED, ERROR_INTERRUPTED, ERROR_FAILED), 예외의 내용은 서버 로그에만 남긴다.
+    private volatile Instant finishedAt; // 끝나지 않았으면 null
+    @Getter(AccessLevel.PACKAGE)
+    private volatile Path spoolFile; // 완료되기 전에는 null
+
+    ExportJob(String jobId, String fileName){
+        this.jobId = jobId;
+        this.fileName = fileName;
+        this.createdAt = Instant.now();
+    }
+
+    @Override
+    public void addRowCount(long rowCount){
+        this.rowCount.addAndGet(rowCount);
+    }
+
+    /**
+     * 작성한 Row의 수를 반환한다.
+     * @return 작성한 Row의 수
+     */
+    public long getRowCount(){
+        return rowCount.get();
+    }
+
+    void setPhase(ExportJobPhase phase){
+        this.phase = phase;
+    }
+
+    void setWrittenBytes(long writtenBytes){
+        this.writtenBytes = writtenBytes;
+    }
+
+    void done(Path spoolFile){
+        this.spoolFile = spoolFile;
+        this.finishedAt = Instant.now();
+        this.phase = ExportJobPhase.DONE; // spoolFile을 먼저 설정해야 DONE을 본 스레드가 파일을 읽을 수 있다.
+    }
+
+    void fail(String errorCode){
+        this.errorCode = errorCode;
+        this.finishedAt = Instant.now();
+        this.phase = ExportJobPhase.FAILED;
+    }
+}
@@ -0,0 +1,25 @@
+package com.practice.practice.apachepoi.export;
+
+/**
+ * 엑셀 내보내기 작업의 진행 단계.
+ */
+public enum ExportJobPhase {
+    /** 실행을 기다리는 중 */
+    QUEUED,
+    /** Workbook을 채우는 중 */
+    BUILDING,
+    /** 완성된 Workbook을 임시 파일로 쓰는 중 */
+    WRITING,
+    /** 완료, 다운로드 가능 */
+    DONE,
+    /** 실패 */
+    FAILED;
+
+    /**
+     * 작업이 끝났는지(DONE 또는 FAILED) 반환한다.
+     * @return 작업이 끝났으면 true
+     */
+    public boolean isFinished(){
+        return this == DONE || this == FAILED;
+    }
+}
@@ -0,0 +1,219 @@
+package com.practice.practice.apachepoi.export;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.practice.practice.apachepoi.simple.ExcelContoller;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 엑셀 내보내기를 요청 스레드와 분리해서 실행한다.
+ * 작업은 크기가 정해진 스레드 풀과 대기열에서 실행되고, 결과는 임시 파일로 내려간다.(Workbook을 메모리에 들고 있지 않는다.)
+ * 끝난 작업은 ttl이 지나면 임시 파일과 함께 삭제된다.
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+    private static final String SPOOL_FILE_PREFIX = "poi-export-";
+    private static final String SPOOL_FILE_SUFFIX = ".xlsx";
+
+    private final Map<String, ExportJob> jobMap = new ConcurrentHashMap<>(); // key: jobId
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService cleaner;
+    private final Duration ttl;
+    private final ExportGate exportGate;
+
+    /**
+     * @param poolSize 동시에 실행할 작업의 수
+     * @param queueCapacity 실행을 기다릴 수 있는 작업의 수, 넘으면 submit()이 RejectedExecutionException을 던진다.
+     * @param ttlSeconds 끝난 작업(과 임시 파일)을 유지하는 시간(초)
+     * @param exportGate 작업을 실행하기 전에 메모리 예산을 빌리는 ExportGate
+     */
+    public ExportJobService(
+        @Value("${apache-poi.export.pool-size:2}") int poolSize,
+        @Value("${apache-poi.export.queue-capacity:20}") int queueCapacity,
+        @Value("${apache-poi.export.ttl-seconds:600}") long ttlSeconds,
+        ExportGate exportGate
+    ){
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.exportGate = exportGate;
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "poi-export-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "poi-export-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long cleanIntervalSeconds = Math.max(1L, Math.min(60L, ttlSeconds));
+        cleaner.scheduleWithFixedDelay(this::removeExpiredJobs, cleanIntervalSeconds, cleanIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 내보내기 작업을 등록한다.
+     * 작업은 실행되기 전에 ExportGate에서 cost만큼의 메모리 예산을 빌리며, 거절되면 FAILED가 된다.
+     * @param fileName 다운로드할 때의 파일 이름
+     * @param cost 작업이 사용할 메모리의 추정치
+     * @param exportTask Workbook을 채우는 작업
+     * @return 등록된 작업
+     * @throws RejectedExecutionException 대기열이 가득 찬 경우
+     */
+    public ExportJob submit(String fileName, ExportCost cost, ExportTask exportTask){
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), fileName);
+        jobMap.put(job.getJobId(), job);
+        try{
+            executor.execute(() -> run(job, cost, exportTask));
+        }catch(RejectedExecutionException e){
+            jobMap.remove(job.getJobId());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * 작업을 반환한다.
+     * @param jobId
+     * @return 작업, 없거나 ttl이 지나 삭제되었으면 null
+     */
+    public ExportJob getJob(String jobId){
+        return jobMap.get(jobId);
+    }
+
+    /**
+     * 완료된 작업의 임시 파일을 반환한다.
+     * @param job
+     * @return 임시 파일, 완료되지 않았으면 null
+     */
+    public Path getSpoolFile(ExportJob job){
+        return job.getPhase() == ExportJobPhase.DONE ? job.getSpoolFile() : null;
+    }
+
+    /**
+     * 실행을 기다리는 작업의 수를 반환한다.
+     * @return 실행을 기다리는 작업의 수
+     */
+    public int getQueuedCount(){
+        return executor.getQueue().size();
+    }
+
+    private void run(ExportJob job, ExportCost cost, ExportTask exportTask){
+        Path spoolFile = null;
+        try(ExportGate.Permit permit = exportGate.acquire(cost)){
+            job.setPhase(ExportJobPhase.BUILDING);
+            ExcelContoller excelContoller = exportTask.export(job);
+            try{
+                job.setPhase(ExportJobPhase.WRITING);
+                spoolFile = Files.createTempFile(SPOOL_FILE_PREFIX, SPOOL_FILE_SUFFIX);
+                try(OutputStream outputStream = new ProgressOutputStream(new BufferedOutputStream(Files.newOutputStream(spoolFile)), job)){
+                    excelContoller.write(outputStream);
+                }
+            }finally{
+                excelContoller.close();
+            }
+            job.done(spoolFile);
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            log.info("Export job {} interrupted", job.getJobId());
+            job.fail(ExportJob.ERROR_INTERRUPTED);
+        }catch(ExportRejectedException e){
+            log.info("Export job {} rejected: {}", job.getJobId(), e.getMessage());
+            job.fail(ExportJob.ERROR_REJECTED);
+        }catch(Exception | OutOfMemoryError e){
+            log.warn("Export job {} failed", job.getJobId(), e);
+            deleteQuietly(spoolFile);
+            job.fail(ExportJob.ERROR_FAILED); // 예외의 클래스와 메시지(파일 경로 등)는 응답에 포함하지 않는다.
+        }
+    }
+
+    /**
+     * ttl이 지난 작업을 삭제한다.(끝나지 않은 작업은 삭제하지 않는다.)
+     */
+    void removeExpiredJobs(){
+        final Instant expiredBefore = Instant.now().minus(ttl);
+        for(Iterator<ExportJob> iterator = jobMap.values().iterator(); iterator.hasNext();){
+            ExportJob job = iterator.next();
+            Instant finishedAt = job.getFinishedAt();
+            if(finishedAt != null && finishedAt.isBefore(expiredBefore)){
+                iterator.remove();
+                deleteQuietly(job.getSpoolFile());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        cleaner.shutdownNow();
+        executor.shutdownNow();
+        for(ExportJob job : jobMap.values()){
+            deleteQuietly(job.getSpoolFile());
+        }
+        jobMap.clear();
+    }
+
+    private static void deleteQuietly(Path file){
+        if(file == null){
+            return;
+        }
+        try{
+            Files.deleteIfExists(file);
+        }catch(IOException e){
+            log.warn("Failed to delete export spool file {}", file, e);
+        }
+    }
+
+    /**
+     * 임시 파일에 쓴 byte 수를 작업에 기록한다.
+     */
+    private static class ProgressOutputStream extends FilterOutputStream {
+        private final ExportJob job;
+        private long writtenBytes;
+
+        private ProgressOutputStream(OutputStream outputStream, ExportJob job){
+            super(outputStream);
+            this.job = job;
+        }
+
+        @Override
+        public void write(int b) throws IOException{
+            out.write(b);
+            job.setWrittenBytes(++writtenBytes);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException{
+            out.write(b, off, len);
+            writtenBytes += len;
+            job.setWrittenBytes(writtenBytes);
+        }
+    }
+}
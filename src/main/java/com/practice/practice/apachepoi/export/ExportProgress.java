@@ -0,0 +1,18 @@
+package com.practice.practice.apachepoi.export;
+
+/**
+ * 엑셀 내보내기의 진행 상황을 보고받는다.
+ * 동기 다운로드처럼 진행 상황이 필요 없으면 NONE을 사용한다.
+ */
+public interface ExportProgress {
+    /**
+     * 진행 상황을 무시하는 ExportProgress
+     */
+    ExportProgress NONE = rowCount -> {};
+
+    /**
+     * 작성한 Row의 수를 더한다.
+     * @param rowCount 새로 작성한 Row의 수
+     */
+    void addRowCount(long rowCount);
+}
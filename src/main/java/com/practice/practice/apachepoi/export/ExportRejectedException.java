@@ -0,0 +1,17 @@
+package com.practice.practice.apachepoi.export;
+
+import lombok.Getter;
+
+/**
+ * ExportGate가 메모리 예산이 부족해서 내보내기를 거절할 때 던진다.
+ * 요청에는 503(Service Unavailable)과 Retry-After로 응답한다.
+ */
+@Getter
+public class ExportRejectedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ExportRejectedException(String message, long retryAfterSeconds){
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
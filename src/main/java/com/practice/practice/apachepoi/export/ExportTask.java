@@ -0,0 +1,20 @@
+package com.practice.practice.apachepoi.export;
+
+import java.io.IOException;
+
+import com.practice.practice.apachepoi.simple.ExcelContoller;
+
+/**
+ * ExportJobService에서 실행할 엑셀 내보내기 작업.
+ * Workbook을 채운 ExcelContoller를 반환하면, ExportJobService가 임시 파일로 쓰고 close한다.
+ */
+@FunctionalInterface
+public interface ExportTask {
+    /**
+     * Workbook을 채운다.
+     * @param progress 작성한 Row의 수를 보고받는 ExportProgress
+     * @return Workbook을 채운 ExcelContoller
+     * @throws IOException
+     */
+    ExcelContoller export(ExportProgress progress) throws IOException;
+}
@@ -0,0 +1,31 @@
+package com.practice.practice.apachepoi.read;
+
+/**
+ * ExcelStreamReader가 읽은 Cell 값의 타입.
+ */
+public enum CellTypeEnum {
+    /**
+     * 값이 없는 Cell(ExcelRow.getValue()는 null)
+     */
+    BLANK,
+    /**
+     * 문자열(공유 문자열, inline 문자열, 수식의 문자열 결과), 값은 String
+     */
+    STRING,
+    /**
+     * 숫자, 값은 Double
+     */
+    NUMBER,
+    /**
+     * 날짜 표현형식이 설정된 숫자, 값은 LocalDateTime
+     */
+    DATE,
+    /**
+     * 참/거짓, 값은 Boolean
+     */
+    BOOLEAN,
+    /**
+     * 오류(#DIV/0! 등), 값은 오류 문자열
+     */
+    ERROR
+}
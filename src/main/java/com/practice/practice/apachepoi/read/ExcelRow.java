@@ -0,0 +1,115 @@
+package com.practice.practice.apachepoi.read;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * ExcelStreamReader가 읽은 Row 하나.
+ * Column 순서의 값 배열과 타입 배열만 가지며, 비어 있는 Column은 BLANK(null)이다.
+ * Row마다 새로 만들어지므로, ExcelRowHandler가 보관해도 된다.
+ */
+public final class ExcelRow {
+    private final int rowIndex;
+    private final Object[] values;
+    private final CellTypeEnum[] types;
+
+    ExcelRow(int rowIndex, Object[] values, CellTypeEnum[] types){
+        this.rowIndex = rowIndex;
+        this.values = values;
+        this.types = types;
+    }
+
+    /**
+     * Row의 번호를 반환한다.
+     * @return Row의 번호(0부터 시작)
+     */
+    public int getRowIndex(){
+        return rowIndex;
+    }
+
+    /**
+     * 값이 있는 마지막 Column의 번호 + 1을 반환한다.
+     * @return Column의 수
+     */
+    public int getCellCount(){
+        return values.length;
+    }
+
+    /**
+     * 값이 있는 Cell이 없는지 확인한다.
+     * @return 값이 있는 Cell이 없으면 true
+     */
+    public boolean isEmpty(){
+        return values.length == 0;
+    }
+
+    /**
+     * Cell 값의 타입을 반환한다.
+     * @param colIndex Column의 번호(0부터 시작).
+     * @return Cell 값의 타입, 범위를 벗어나면 BLANK
+     */
+    public CellTypeEnum getCellType(int colIndex){
+        return colIndex < types.length && types[colIndex] != null ? types[colIndex] : CellTypeEnum.BLANK;
+    }
+
+    /**
+     * Cell의 값을 반환한다.(String, Double, LocalDateTime, Boolean 중 하나, CellTypeEnum 참고)
+     * @param colIndex Column의 번호(0부터 시작).
+     * @return Cell의 값, 비어 있으면 null
+     */
+    public Object getValue(int colIndex){
+        return colIndex < values.length ? values[colIndex] : null;
+    }
+
+    /**
+     * Cell의 값을 문자열로 반환한다.
+     * 숫자는 정수이면 소수점 없이(예: 3.0 → "3") 반환한다.
+     * @param colIndex Column의 번호(0부터 시작).
+     * @return Cell의 값, 비어 있으면 null
+     */
+    public String getString(int colIndex){
+        final Object value = getValue(colIndex);
+        if(value instanceof Double){
+            final double number = (Double) value;
+            if(number == Math.rint(number) && !Double.isInfinite(number) && Math.abs(number) < 1e15){
+                return Long.toString((long) number);
+            }
+        }
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Cell의 숫자 값을 반환한다.
+     * @param colIndex Column의 번호(0부터 시작).
+     * @return Cell의 숫자 값, 숫자가 아니면 null
+     */
+    public Double getNumber(int colIndex){
+        final Object value = getValue(colIndex);
+        return value instanceof Double ? (Double) value : null;
+    }
+
+    /**
+     * Cell의 날짜 값을 반환한다.
+     * @param colIndex Column의 번호(0부터 시작).
+     * @return Cell의 날짜 값, 날짜 표현형식이 아니면 null
+     */
+    public LocalDateTime getLocalDateTime(int colIndex){
+        final Object value = getValue(colIndex);
+        return value instanceof LocalDateTime ? (LocalDateTime) value : null;
+    }
+
+    /**
+     * Cell의 참/거짓 값을 반환한다.
+     * @param colIndex Column의 번호(0부터 시작).
+     * @return Cell의 참/거짓 값, 참/거짓이 아니면 null
+     */
+    public Boolean getBoolean(int colIndex){
+        final Object value = getValue(colIndex);
+        return value instanceof Boolean ? (Boolean) value : null;
+    }
+
+    @Override
+    public String toString(){
+        return "ExcelRow{rowIndex=" + rowIndex + ", values=" + Arrays.toString(values) + "}";
+    }
+}
@@ -0,0 +1,17 @@
+package com.practice.practice.apachepoi.read;
+
+import java.io.IOException;
+
+/**
+ * ExcelStreamReader가 읽은 Row를 순서대로 받는다.
+ */
+@FunctionalInterface
+public interface ExcelRowHandler {
+    /**
+     * Row 하나를 처리한다.
+     * 값이 하나도 없는 Row(파일에 없는 Row)는 전달되지 않으므로, Row 번호가 건너뛸 수 있다.
+     * @param row 읽은 Row
+     * @throws IOException 처리 중 오류, ExcelStreamReader.read()가 그대로 던진다.
+     */
+    void handleRow(ExcelRow row) throws IOException;
+}
@@ -0,0 +1,204 @@
+package com.practice.practice.apachepoi.read;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.ooxml.POIXMLTypeLoader;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.xmlbeans.XmlException;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.WorkbookDocument;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * 업로드된 xlsx 파일을 XSSF 이벤트 API(XSSFReader, SAX)로 Row 단위로 읽는다.
+ * XSSFWorkbook처럼 Sheet 전체를 객체로 만들지 않으므로, 파일 크기와 무관하게 Row 하나 크기의 메모리만 사용한다.
+ * (공유 문자열 표(ReadOnlySharedStringsTable)와 스타일 표는 시작할 때 한 번 읽어 둔다.)
+ * 작업을 종료하면 close() 메소드로 파일을 닫아야 한다.
+ * <pre>
+ * try(ExcelStreamReader reader = ExcelStreamReader.open(inputStream)){
+ *     reader.read(0, row -> { ... });
+ * }
+ * </pre>
+ */
+public class ExcelStreamReader implements Closeable {
+    private final OPCPackage opcPackage;
+    private final Path tempFile; // InputStream으로 열었으면 복사한 임시 파일, 아니면 null
+    private final XSSFReader xssfReader;
+    private final ReadOnlySharedStringsTable sharedStringsTable;
+    private final StylesTable stylesTable;
+    private final boolean date1904;
+    private final List<String> sheetNameList;
+
+    private ExcelStreamReader(OPCPackage opcPackage, Path tempFile) throws IOException{
+        this.opcPackage = opcPackage;
+        this.tempFile = tempFile;
+        try{
+            xssfReader = new XSSFReader(opcPackage);
+            sharedStringsTable = new ReadOnlySharedStringsTable(opcPackage, false);
+            stylesTable = xssfReader.getStylesTable();
+            final CTWorkbook ctWorkbook;
+            try(InputStream workbookData = xssfReader.getWorkbookData()){
+                ctWorkbook = WorkbookDocument.Factory.parse(workbookData, POIXMLTypeLoader.DEFAULT_XML_OPTIONS).getWorkbook();
+            }
+            date1904 = ctWorkbook.isSetWorkbookPr() && ctWorkbook.getWorkbookPr().getDate1904();
+        }catch(OpenXML4JException | SAXException | XmlException e){
+            throw new IOException("Invalid xlsx file", e);
+        }
+
+        List<String> sheetNames = new ArrayList<>();
+        XSSFReader.SheetIterator sheetIterator = getSheetIterator();
+        while(sheetIterator.hasNext()){
+            try(InputStream ignored = sheetIterator.next()){
+                sheetNames.add(sheetIterator.getSheetName());
+            }
+        }
+        sheetNameList = Collections.unmodifiableList(sheetNames);
+    }
+
+    /**
+     * xlsx 파일을 연다.
+     * 파일은 읽기 전용으로 열리며, 필요한 Part만 그때그때 압축을 풀어 읽는다.
+     * @param path xlsx 파일
+     * @return ExcelStreamReader 인스턴스
+     * @throws IOException 파일을 읽을 수 없거나 xlsx 형식이 아닌 경우
+     */
+    public static ExcelStreamReader open(Path path) throws IOException{
+        return open(path, null);
+    }
+
+    /**
+     * inputStream의 xlsx를 연다.
+     * zip은 끝에 목록이 있으므로 inputStream을 임시 파일로 복사한 뒤 열며, 임시 파일은 close()에서 삭제한다.
+     * inputStream은 닫지 않는다.
+     * @param inputStream xlsx 내용
+     * @return ExcelStreamReader 인스턴스
+     * @throws IOException 임시 파일을 만들 수 없거나 xlsx 형식이 아닌 경우
+     */
+    public static ExcelStreamReader open(InputStream inputStream) throws IOException{
+        Path tempFile = Files.createTempFile("poi-read-", ".xlsx");
+        try{
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            return open(tempFile, tempFile);
+        }catch(IOException | RuntimeException e){
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    private static ExcelStreamReader open(Path path, Path tempFile) throws IOException{
+        final OPCPackage opcPackage;
+        try{
+            opcPackage = OPCPackage.open(path.toFile(), PackageAccess.READ);
+        }catch(OpenXML4JException e){
+            throw new IOException("Invalid xlsx file: " + path, e);
+        }
+        try{
+            return new ExcelStreamReader(opcPackage, tempFile);
+        }catch(IOException | RuntimeException e){
+            opcPackage.revert();
+            throw e;
+        }
+    }
+
+    /**
+     * Sheet 이름들을 Workbook의 순서대로 반환한다.
+     * @return Sheet 이름들
+     */
+    public List<String> getSheetNames(){
+        return sheetNameList;
+    }
+
+    /**
+     * sheetIndex의 Sheet를 처음부터 읽어 Row마다 excelRowHandler를 호출한다.
+     * @param sheetIndex Sheet의 번호(0부터 시작)
+     * @param excelRowHandler Row를 받을 ExcelRowHandler
+     * @throws IOException 파일을 읽을 수 없거나, excelRowHandler가 IOException을 던진 경우
+     * @throws IllegalArgumentException sheetIndex의 Sheet가 없는 경우
+     */
+    public void read(int sheetIndex, ExcelRowHandler excelRowHandler) throws IOException{
+        if(sheetIndex < 0 || sheetIndex >= sheetNameList.size()){
+            throw new IllegalArgumentException("No sheet at index " + sheetIndex + " (sheet count: " + sheetNameList.size() + ")");
+        }
+        XSSFReader.SheetIterator sheetIterator = getSheetIterator();
+        for(int i = 0; sheetIterator.hasNext(); i++){
+            try(InputStream sheetData = sheetIterator.next()){
+                if(i == sheetIndex){
+                    parse(sheetData, excelRowHandler);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * sheetName의 Sheet를 처음부터 읽어 Row마다 excelRowHandler를 호출한다.
+     * @param sheetName Sheet 이름
+     * @param excelRowHandler Row를 받을 ExcelRowHandler
+     * @throws IOException 파일을 읽을 수 없거나, excelRowHandler가 IOException을 던진 경우
+     * @throws IllegalArgumentException sheetName의 Sheet가 없는 경우
+     */
+    public void read(String sheetName, ExcelRowHandler excelRowHandler) throws IOException{
+        final int sheetIndex = sheetNameList.indexOf(sheetName);
+        if(sheetIndex < 0){
+            throw new IllegalArgumentException("No sheet named " + sheetName);
+        }
+        read(sheetIndex, excelRowHandler);
+    }
+
+    private XSSFReader.SheetIterator getSheetIterator() throws IOException{
+        try{
+            return (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+        }catch(OpenXML4JException e){
+            throw new IOException("Invalid xlsx file", e);
+        }
+    }
+
+    private void parse(InputStream sheetData, ExcelRowHandler excelRowHandler) throws IOException{
+        try{
+            XMLReader xmlReader = XMLHelper.newXMLReader(); // 외부 엔티티를 읽지 않는 SAX Parser
+            xmlReader.setContentHandler(new SheetRowParser(sharedStringsTable, stylesTable, date1904, excelRowHandler));
+            xmlReader.parse(new InputSource(sheetData));
+        }catch(SAXException e){
+            if(e.getException() instanceof IOException){
+                throw (IOException) e.getException(); // ExcelRowHandler가 던진 IOException
+            }
+            throw new IOException("Invalid sheet xml", e);
+        }catch(ParserConfigurationException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 파일을 닫는다.
+     * InputStream으로 열었으면 임시 파일도 삭제한다.
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException{
+        try{
+            opcPackage.revert(); // 읽기 전용이므로 저장하지 않고 닫는다.
+        }finally{
+            if(tempFile != null){
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.practice.practice.apachepoi.read;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Sheet XML(sheetN.xml)을 SAX로 읽어 Row마다 ExcelRow를 만든다.
+ * Cell의 값(v, is/t)과 타입(t), 스타일(s)만 읽고 수식(f) 등 나머지 요소는 무시하므로, 메모리는 Row 하나 크기만큼만 사용한다.
+ * 숫자는 스타일의 표현형식이 날짜이면 LocalDateTime으로 변환한다.(스타일별 판단 결과는 캐시한다.)
+ */
+class SheetRowParser extends DefaultHandler {
+    private final ReadOnlySharedStringsTable sharedStringsTable;
+    private final StylesTable stylesTable;
+    private final boolean date1904;
+    private final ExcelRowHandler excelRowHandler;
+    private final Map<Integer, Boolean> dateStyleCache = new HashMap<>();
+    private final StringBuilder valueBuilder = new StringBuilder();
+
+    private Object[] values = new Object[16];
+    private CellTypeEnum[] types = new CellTypeEnum[16];
+    private int cellCount; // 값이 있는 마지막 Column의 번호 + 1
+    private int rowIndex = -1;
+    private int colIndex = -1;
+    private String cellType; // c의 t 속성
+    private int styleIndex;
+    private boolean isValue; // v 또는 inline 문자열의 t 안인지
+    private boolean isInlineString; // is 안인지
+    private boolean isPhonetic; // rPh(윗주) 안인지
+    private boolean hasValue;
+
+    SheetRowParser(ReadOnlySharedStringsTable sharedStringsTable, StylesTable stylesTable, boolean date1904, ExcelRowHandler excelRowHandler){
+        this.sharedStringsTable = sharedStringsTable;
+        this.stylesTable = stylesTable;
+        this.date1904 = date1904;
+        this.excelRowHandler = excelRowHandler;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes){
+        switch(localName){
+            case "row":
+                final String rowReference = attributes.getValue("r");
+                rowIndex = rowReference != null ? Integer.parseInt(rowReference) - 1 : rowIndex + 1;
+                colIndex = -1;
+                cellCount = 0;
+                break;
+            case "c":
+                final String cellReference = attributes.getValue("r");
+                colIndex = cellReference != null ? toColIndex(cellReference) : colIndex + 1;
+                cellType = attributes.getValue("t");
+                final String style = attributes.getValue("s");
+                styleIndex = style != null ? Integer.parseInt(style) : 0;
+                hasValue = false;
+                valueBuilder.setLength(0);
+                break;
+            case "v":
+                isValue = true;
+                hasValue = true;
+                break;
+            case "is":
+                isInlineString = true;
+                hasValue = true;
+                break;
+            case "rPh":
+                isPhonetic = true;
+                break;
+            case "t":
+                isValue = isInlineString && !isPhonetic;
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException{
+        switch(localName){
+            case "v":
+            case "t":
+                isValue = false;
+                break;
+            case "is":
+                isInlineString = false;
+                break;
+            case "rPh":
+                isPhonetic = false;
+                break;
+            case "c":
+                if(hasValue){
+                    setCell(colIndex, valueBuilder.toString());
+                }
+                break;
+            case "row":
+                endRow();
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length){
+        if(isValue){
+            valueBuilder.append(ch, start, length);
+        }
+    }
+
+    /**
+     * Cell의 값을 타입(t 속성)에 맞게 변환해 현재 Row에 넣는다.
+     * 문자열(inlineStr, str)이 아닌 Cell의 값이 비어 있으면(&lt;v/&gt;) 값이 없는 Cell(BLANK)로 본다.
+     */
+    private void setCell(int colIndex, String text){
+        final boolean isString = "inlineStr".equals(cellType) || "str".equals(cellType);
+        if(text.isEmpty() && !isString){
+            return;
+        }
+        final CellTypeEnum type;
+        final Object value;
+        if(cellType == null || "n".equals(cellType)){
+            final double number = Double.parseDouble(text);
+            if(isDateStyle(styleIndex) && DateUtil.isValidExcelDate(number)){
+                type = CellTypeEnum.DATE;
+                value = DateUtil.getLocalDateTime(number, date1904);
+            }else{
+                type = CellTypeEnum.NUMBER;
+                value = number;
+            }
+        }else if("s".equals(cellType)){
+            type = CellTypeEnum.STRING;
+            value = sharedStringsTable.getItemAt(Integer.parseInt(text.trim())).getString();
+        }else if(isString){
+            type = CellTypeEnum.STRING;
+            value = text;
+        }else if("b".equals(cellType)){
+            type = CellTypeEnum.BOOLEAN;
+            value = "1".equals(text) || "true".equalsIgnoreCase(text);
+        }else if("e".equals(cellType)){
+            type = CellTypeEnum.ERROR;
+            value = text;
+        }else{
+            type = CellTypeEnum.STRING;
+            value = text;
+        }
+
+        if(colIndex >= values.length){
+            final int length = Math.max(colIndex + 1, values.length * 2);
+            values = Arrays.copyOf(values, length);
+            types = Arrays.copyOf(types, length);
+        }
+        values[colIndex] = value;
+        types[colIndex] = type;
+        cellCount = Math.max(cellCount, colIndex + 1);
+    }
+
+    /**
+     * 현재 Row를 ExcelRowHandler에 전달하고, 다음 Row를 위해 배열을 비운다.
+     */
+    private void endRow() throws SAXException{
+        if(cellCount == 0){
+            return;
+        }
+        final ExcelRow excelRow = new ExcelRow(rowIndex, Arrays.copyOf(values, cellCount), Arrays.copyOf(types, cellCount));
+        Arrays.fill(values, 0, cellCount, null);
+        Arrays.fill(types, 0, cellCount, null);
+        try{
+            excelRowHandler.handleRow(excelRow);
+        }catch(IOException e){
+            throw new SAXException(e); // ExcelStreamReader.read()에서 IOException으로 되돌린다.
+        }
+    }
+
+    /**
+     * 스타일의 표현형식이 날짜인지 확인한다.
+     */
+    private boolean isDateStyle(int styleIndex){
+        Boolean isDate = dateStyleCache.get(styleIndex);
+        if(isDate == null){
+            isDate = false;
+            if(stylesTable != null && styleIndex < stylesTable.getNumCellStyles()){
+                final XSSFCellStyle cellStyle = stylesTable.getStyleAt(styleIndex);
+                isDate = cellStyle != null && DateUtil.isADateFormat(cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+            }
+            dateStyleCache.put(styleIndex, isDate);
+        }
+        return isDate;
+    }
+
+    /**
+     * Cell 참조(예: "AB12")의 Column 번호를 구한다.
+     * @param cellReference Cell 참조
+     * @return Column의 번호(0부터 시작)
+     */
+    static int toColIndex(String cellReference){
+        int colIndex = 0;
+        for(int i = 0; i < cellReference.length(); i++){
+            final char c = cellReference.charAt(i);
+            if(c < 'A' || c > 'Z'){
+                break;
+            }
+            colIndex = colIndex * 26 + (c - 'A' + 1);
+        }
+        return colIndex - 1;
+    }
+}
@@ -1,69 +1,210 @@
 package com.practice.practice.apachepoi.simple;
 
 import java.io.IOException;
-import java.util.Map;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
-import java.awt.Color;
 
 import org.apache.poi.hssf.usermodel.HSSFDataFormat;
 import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.ClientAnchor.AnchorType;
 import org.apache.poi.util.Units;
-import org.apache.poi.xssf.usermodel.IndexedColorMap;
-import org.apache.poi.xssf.usermodel.XSSFCell;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFClientAnchor;
-import org.apache.poi.xssf.usermodel.XSSFColor;
 import org.apache.poi.xssf.usermodel.XSSFDrawing;
-import org.apache.poi.xssf.usermodel.XSSFFont;
 import org.apache.poi.xssf.usermodel.XSSFObjectData;
 import org.apache.poi.xssf.usermodel.XSSFPicture;
-import org.apache.poi.xssf.usermodel.XSSFRow;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.STDvAspect;
 
 /**
  * 셀을 조정할 수 있는 컨트롤러.
+ * XSSF(일반) 모드와 SXSSF(Streaming) 모드의 Cell을 모두 다룰 수 있도록 ss.usermodel 인터페이스로 Cell을 다룬다.
  */
 public class CellController {
     private XSSFWorkbook workbook;
-    private XSSFSheet workSheet;
-    private XSSFCell workCell;
+    private Sheet workSheet;
+    private Cell workCell;
     private XSSFCellStyle workCellStyle;
-    private XSSFRow workRow;
-    private XSSFDrawing workDrawing;
+    private Row workRow;
     private XSSFPicture workPicture;
-    private XSSFFont workFont;
-
-    private Map<String, Integer> embeddedFileIndexMap;
-    private Map<String, Integer> imageIndexMap;
+    private FontKey fontKey; // setFontSize 등으로 폰트를 바꾸기 전에는 null
+    private GlyphWidthTable glyphWidthTable; // 폰트가 바뀌면 null
+    private StyleKey styleKey;
+    private boolean isStyleChanged = false;
+    private TextLayout textLayout = new TextLayout(); // addText로 이어 붙인 Text와 줄 수 계산 상태(이미지, 첨부 파일 자리의 빈 줄은 layout()에서 넣는다.)
+    private List<Placement> placementList; // layout()에서 배치할 이미지, 첨부 파일, 없으면 null
+    private boolean isTextChanged = false;
+    private boolean isPending = false;
+    private boolean isLayoutPending = false;
+    private boolean isNumberValue = false; // setNumber()로 값을 Number로 바꾼 경우, layout()이 Text로 덮어쓰지 않는다.
+
+    private SheetContext sheetContext;
+    private WorkbookContext workbookContext;
+    private StyleRegistry styleRegistry;
+    private PictureRegistry pictureRegistry;
 
     /**
      * CellStyle의 기본값을 세팅한다.(글자 위쪽 맞춤, 텍스트 줄 바꿈)
+     * CellStyle은 StyleRegistry를 통해 같은 모양의 Cell끼리 공유한다.
+     * 템플릿이나 writeRows()로 이미 문자열이 들어 있는 Cell은 그 문자열에 이어서 addText() 한다.
+     * Streaming 모드에서도 스타일, 이미지, Drawing은 SXSSFWorkbook이 감싸고 있는 XSSFWorkbook에 생성된다.
+     * Workbook의 공용 부분(스타일, 공유 문자열, 이미지, Drawing)은 WorkbookContext의 lock을 잡고 변경하므로, 서로 다른 Sheet의 CellController는 동시에 사용할 수 있다.
      * @param workCell
-     * @param imageIndexMap
+     * @param sheetContext Cell이 속한 Sheet의 작업 상태
      */
-    protected CellController(
-        XSSFCell workCell,
-        Map<String, Integer> imageIndexMap,
-        Map<String, Integer> embeddedFileIndexMap
-    ){
+    protected CellController(Cell workCell, SheetContext sheetContext){
         this.workCell = workCell;
+        this.sheetContext = sheetContext;
+        workbookContext = sheetContext.getWorkbookContext();
+        workbook = workbookContext.getWorkbook();
+        styleRegistry = workbookContext.getStyleRegistry();
         workSheet = workCell.getSheet();
-        workbook = workSheet.getWorkbook();
-        workCellStyle = workbook.createCellStyle();
         workRow = workCell.getRow();
-        workDrawing = workSheet.createDrawingPatriarch();
-        workCellStyle.setVerticalAlignment(VerticalAlignment.TOP); // 글자 위쪽 맞춤
-        workCellStyle.setWrapText(true); // 텍스트 줄 바꿈
-        workCell.setCellStyle(workCellStyle);
+        synchronized(workbookContext.getLock()){
+            CellStyle existingCellStyle = workCell.getCellStyle();
+            if(existingCellStyle instanceof XSSFCellStyle && existingCellStyle.getIndex() != 0){
+                // 템플릿이나 writeRows()로 이미 스타일이 설정된 Cell은 그 스타일을 유지한다.
+                workCellStyle = (XSSFCellStyle) existingCellStyle;
+                styleKey = StyleKey.of(workCellStyle);
+            }else{
+                styleKey = StyleKey.DEFAULT; // 글자 위쪽 맞춤, 텍스트 줄 바꿈
+                workCellStyle = styleRegistry.getCellStyle(styleKey);
+                workCell.setCellStyle(workCellStyle);
+            }
+            if(workCell.getCellType() == CellType.STRING){
+                textLayout.setText(workCell.getStringCellValue()); // addText()가 기존 값 뒤에 이어 붙이도록 한다.
+            }
+        }
+
+        pictureRegistry = workbookContext.getPictureRegistry();
+    }
+
+    /**
+     * 변경된 StyleKey를 저장한다.
+     * 실제 XSSFCellStyle은 flush() 시점에 한 번만 조회하므로, 연속된 Setter 호출이 중간 단계의 스타일을 만들지 않는다.
+     * @param styleKey 변경된 StyleKey
+     * @return 현재 인스턴스(CellController)
+     */
+    private CellController changeStyle(StyleKey styleKey){
+        if(!this.styleKey.equals(styleKey)){
+            this.styleKey = styleKey;
+            isStyleChanged = true;
+            markPending();
+        }
+        return this;
+    }
+
+    /**
+     * Workbook에 반영되지 않은 변경 사항이 있음을 SheetContext에 알린다.
+     */
+    private void markPending(){
+        if(!isPending){
+            isPending = true;
+            sheetContext.addPendingCellController(this);
+        }
+    }
+
+    /**
+     * 변경 사항을 Workbook에 반영한다.
+     * 변경된 StyleKey에 해당하는 공유 XSSFCellStyle과, 이어 붙인 Text를 Cell에 설정한다.
+     */
+    void flush(){
+        if(isTextChanged || isStyleChanged){
+            fitColumn();
+            synchronized(workbookContext.getLock()){
+                if(isTextChanged && placementList == null){ // 배치할 이미지, 첨부 파일이 있으면 빈 줄을 넣은 Text를 layout()에서 설정한다.
+                    workCell.setCellValue(textLayout.toString());
+                    isTextChanged = false;
+                }
+                if(isStyleChanged){
+                    workCellStyle = styleRegistry.getCellStyle(styleKey);
+                    workCell.setCellStyle(workCellStyle);
+                    isStyleChanged = false;
+                }
+            }
+        }
+        isPending = false;
+    }
+
+    /**
+     * Column에 자동 넓이가 설정되어 있으면 Text의 넓이를 반영한다.(ColumnAutoFit)
+     */
+    private void fitColumn(){
+        final int colIndex = workCell.getColumnIndex();
+        if(sheetContext.isColumnAutoFit(colIndex)){
+            sheetContext.fitColumn(workCell.getRowIndex(), colIndex, textLayout.getMaxLineWidth(getGlyphWidthTable()));
+        }
+    }
+
+    /**
+     * Row Height와 이미지, 첨부 파일의 위치를 계산해야 함을 SheetContext에 알린다.
+     */
+    private void markLayoutPending(){
+        if(!isLayoutPending){
+            isLayoutPending = true;
+            sheetContext.addLayoutPendingCellController(this);
+        }
+    }
+
+    /**
+     * 기록해 둔 Text, 이미지, 첨부 파일을 지금의 Column Width로 배치한다.
+     * 이미지와 첨부 파일은 추가한 순서대로 Text 사이에 자리(빈 줄)를 만들어 Anchor를 생성하고, Row Height는 전체 Text의 높이보다 작을 때만 늘린다.
+     * ExcelContoller.write()에서 Column Width(ColumnAutoFit 포함)가 정해진 뒤 한 번 호출되며, Streaming 모드에서는 Row가 임시 파일로 내려가기 전에 호출된다.
+     * flush() 다음에 호출해야 한다.
+     */
+    void layout(){
+        TextLayout resolvedTextLayout = textLayout;
+        if(placementList != null){
+            resolvedTextLayout = new TextLayout();
+            int textIndex = 0;
+            for(Placement placement : placementList){
+                final int placementTextIndex = Math.min(placement.textIndex, textLayout.length()); // setText()로 Text가 짧아진 경우
+                if(placementTextIndex > textIndex){
+                    resolvedTextLayout.append(textLayout.subSequence(textIndex, placementTextIndex));
+                    textIndex = placementTextIndex;
+                }
+                if(placement.imageObject != null){
+                    placeImage(resolvedTextLayout, placement);
+                }else{
+                    placeFile(resolvedTextLayout, placement);
+                }
+            }
+            resolvedTextLayout.append(textLayout.subSequence(textIndex, textLayout.length()));
+            textLayout = resolvedTextLayout; // 이후 addText()는 배치된 빈 줄 뒤에 이어 붙인다.
+            placementList = null;
+            if(!isNumberValue){ // 이미지를 추가한 뒤 setNumber()를 호출했으면 Number를 유지하고 이미지만 배치한다.
+                synchronized(workbookContext.getLock()){ // SharedStringsTable은 Workbook 공용
+                    workCell.setCellValue(textLayout.toString());
+                }
+            }
+            isTextChanged = false;
+        }
 
-        this.imageIndexMap = imageIndexMap;
-        this.embeddedFileIndexMap = embeddedFileIndexMap;
+        if(resolvedTextLayout.length() > 0){
+            final int textHeightPixel = getTextHeightPixel(resolvedTextLayout);
+            if(UnitConverter.pointToPixel(workRow.getHeightInPoints()) < textHeightPixel){
+                setHeightInPixel(textHeightPixel);
+            }
+        }
+        isLayoutPending = false;
+    }
+
+    /**
+     * Cell의 Row 번호를 반환한다.
+     * @return Cell의 Row 번호(0부터 시작)
+     */
+    int getRowIndex(){
+        return workCell.getRowIndex();
     }
 
     /**
@@ -72,8 +213,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setVerticalAlignment(VerticalAlignment verticalAlignment){
-        workCellStyle.setVerticalAlignment(verticalAlignment);
-        return this;
+        return changeStyle(styleKey.withVerticalAlignment(verticalAlignment));
     }
 
     /**
@@ -82,8 +222,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setHorizontalAlignment(HorizontalAlignment horizontalAlignment){
-        workCellStyle.setAlignment(horizontalAlignment);
-        return this;
+        return changeStyle(styleKey.withHorizontalAlignment(horizontalAlignment));
     }
 
     /**
@@ -94,8 +233,7 @@ public class CellController {
      */
     public CellController setWidthInPixel(int pixel){
         int colIndex = workCell.getColumnIndex();
-        double fontPoint = workbook.getCellStyleAt(0).getFont().getFontHeightInPoints();
-        workSheet.setColumnWidth(colIndex, UnitConverter.widthPixelToWidth(pixel, fontPoint));
+        workSheet.setColumnWidth(colIndex, UnitConverter.widthPixelToWidth(pixel, getBaseFontPoint()));
         return this;
     }
 
@@ -122,20 +260,50 @@ public class CellController {
 
     /**
      * Cell의 Text를 변경한다.
-     * @param text 입력할 Text
+     * 이미 추가한 이미지, 첨부 파일의 자리는 유지된다.
+     * @param text 입력할 Text, null이면 Cell을 비운다.
      * @return 현재 인스턴스(CellController)
      */
     public CellController setText(String text){
-        workCell.setCellValue(text);
+        textLayout.setText(text);
+        isTextChanged = false;
+        isNumberValue = false;
+        synchronized(workbookContext.getLock()){ // SharedStringsTable은 Workbook 공용
+            if(text == null){
+                workCell.setBlank();
+            }else{
+                workCell.setCellValue(text);
+            }
+        }
+        fitColumn();
         return this;
     }
 
+    /**
+     * 이어 붙이던 Text를 지운다.(Cell의 값이 Number로 바뀌는 경우)
+     */
+    private void clearText(){
+        textLayout.clear();
+        isTextChanged = false;
+        isNumberValue = true;
+    }
+
+    /**
+     * 이어 붙인 Text를 flush() 시점에 Cell에 한 번만 설정하도록 표시한다.
+     */
+    private void changeText(){
+        isTextChanged = true;
+        isNumberValue = false;
+        markPending();
+    }
+
     /**
      * Cell의 Number를 변경한다.
      * @param value 입력할 value
      * @return 현재 인스턴스(CellController)
      */
     public CellController setNumber(int value){
+        clearText();
         workCell.setCellValue(value);
         return this;
     }
@@ -146,6 +314,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setNumber(float value){
+        clearText();
         workCell.setCellValue(value);
         return this;
     }
@@ -156,6 +325,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setNumber(double value){
+        clearText();
         workCell.setCellValue(value);
         return this;
     }
@@ -165,13 +335,13 @@ public class CellController {
      * @return Image 처리를 위해 사용되는 등록된 ImageKey들을 Set형태로 리턴한다.
      */
     public Set<String> getImageKeySet(){
-        return imageIndexMap.keySet();
+        return pictureRegistry.getImageKeySet();
     }
 
     /**
      **<pre>
      **1. Cell에 Image를 넣는다.
-     **2. imageObject의 imageKey가 기존에 사용/등록 되었다면, 기존 Image byte[]를 사용한다. 따라서 기존에 등록된 imageKey를 넣으면 기존 이미지를 사용할 수 있고, 새로운 Image를 사용하기 위해서는 imageKey 값이 중복되지 않게 설정해야 한다.
+     **2. Image는 내용(byte[]) 기준으로 Workbook에 한 번만 저장된다. 같은 내용이면 imageKey가 달라도 기존 Image를 사용하고, imageKey가 같아도 내용이 다르면 새로 저장한다.
      **3. 기존의 등록된 ImageKey getImageKeySet()로 확인한다.
      **4. positionObject의 dx, dy의 기준은 px이다.
      **5. Cell의 Width와 Height를 초과하도록 px가 설정되어도 Image의 실제 크기는 Width와 Height 보다 클 수 없다.
@@ -183,20 +353,14 @@ public class CellController {
      */
     public CellController setImage(ImageObject imageObject, PositionObject positionObject){
         final String imageKey = imageObject.getImageKey();
-        final byte[] imageByteArray = imageObject.getImageByteArray();
+        final ContentSource contentSource = imageObject.getContentSource();
         final ImageFormatEnum imageFormatEnum = imageObject.getImageFormatEnum();
         final int dx1 = positionObject.getDx1();
         final int dy1 = positionObject.getDy1();
         final int dx2 = positionObject.getDx2();
         final int dy2 = positionObject.getDy2();
 
-        int imageIndex = -99999;
-        if(imageIndexMap.containsKey(imageKey)){
-            imageIndex = imageIndexMap.get(imageKey);
-        }else{
-            imageIndex = workbook.addPicture(imageByteArray, imageFormatEnum.getValue());
-            imageIndexMap.put(imageKey, imageIndex);
-        }
+        imageObject.getContentHash(); // 해시는 lock 밖에서 미리 계산한다.
         int rowIndex = workCell.getRowIndex();
         int colIndex = workCell.getColumnIndex();
 
@@ -210,64 +374,44 @@ public class CellController {
         anchor.setDx2(Units.EMU_PER_PIXEL * dx2);
         anchor.setDy2(Units.EMU_PER_PIXEL * dy2);
         anchor.setAnchorType(AnchorType.MOVE_DONT_RESIZE);
-        workPicture = workDrawing.createPicture(anchor, imageIndex);
-        return this;
-    }
-
-    /**
-     * 한 Line에 몇 글자가 들어갈 수 있는지 판단하여 text의 총 Line 수를 구한다.
-     * @param text
-     * @return 한 Line에 몇 글자가 들어갈 수 있는지 판단하여 text의 총 Line 수를 구한다.
-     */
-    private int getLineCountFromText(CharSequence text, double maxCharacterCountInWidth){
-        int newLineCnt = 0;
-        double textCnt = 0d;
-
-        for(int i = 0; i < text.length(); i++){
-            char c = text.charAt(i);
-
-            if(c == '\n' || c == '\r'){
-                if(textCnt > 0d){
-                    double lineCnt = textCnt / maxCharacterCountInWidth;
-                    newLineCnt += (int)(Math.ceil(lineCnt));
-                    textCnt = 0d;
-                }else{
-                    newLineCnt++;
-                }
-                continue;
-            }else if(c == '"' || c == '\'' || c == '.' || c == ','){
-                // continue;
-            }else if(c == 'l' || c == 'i' || c == 'j'){
-                textCnt += 0.25;
-            }else if(c == '(' || c == ')' || c == '{' || c == '}' || c == '[' || c == ']' || c == '!' || c == 'f' || c == 't' || c == 'I'){
-                textCnt += 0.3333;
-            }
-            else if(c == ' ' || c == '-' || c == '_' || c == '*' ||  Character.isDigit(c) || (c >= 'a' && c <= 'z')){
-                textCnt += 0.5;
-            }else if(c >= 'A' && c <= 'Z'){
-                textCnt += 0.8;
-            }else{
-                textCnt += 1d;
+        final XSSFDrawing workDrawing = sheetContext.getDrawing();
+        synchronized(workbookContext.getLock()){
+            final ExportStats exportStats = workbookContext.getExportStats();
+            final long startNanos = exportStats != null ? System.nanoTime() : 0L;
+            final int imageIndex;
+            try{
+                imageIndex = pictureRegistry.addPicture(imageKey, contentSource, imageFormatEnum.getValue());
+            }catch(IOException e){
+                throw new UncheckedIOException(e); // 파일, InputStream 공급자로 만든 이미지를 읽지 못한 경우
             }
-
-            if(i == text.length() - 1){
-                double lineCnt = textCnt / maxCharacterCountInWidth;
-                newLineCnt += (int)(Math.ceil(lineCnt));
+            workPicture = workDrawing.createPicture(anchor, imageIndex);
+            if(exportStats != null){
+                exportStats.addPictureRegisterNanos(System.nanoTime() - startNanos);
             }
         }
-
-        return newLineCnt;
+        return this;
     }
 
     /**
-     * 글자의 높이를 Pixel로 구한다.
-     * Font Point를 Pixel로 변환한 후 + a값을 더한다.
-     * a 값이 무엇인지 정확하지가 않다. 맑은고딕 10pt 기준으로 4이다.
+     * 글자(한 줄)의 높이를 Pixel로 구한다.
+     * 맑은 고딕은 UnitConverter.CHARACTER_HEIGHT_PIXEL_MAP의 값을, 그 외의 폰트는 폰트 메트릭의 값을 사용한다.
      * @return 글자의 높이를 Pixel로 구한다.
      */
     private int getFontHeightPixel(){
-        final int fontPoint = workCellStyle.getFont().getFontHeightInPoints();
-        return UnitConverter.CHARACTER_HEIGHT_PIXEL_MAP.get(fontPoint);
+        return getGlyphWidthTable().getLineHeightPixel();
+    }
+
+    /**
+     * Cell에 적용될 폰트의 GlyphWidthTable을 반환한다.
+     * 폰트가 바뀌기 전까지는 처음 조회한 GlyphWidthTable을 계속 사용한다.
+     * @return Cell에 적용될 폰트의 GlyphWidthTable을 반환한다.
+     */
+    private GlyphWidthTable getGlyphWidthTable(){
+        if(glyphWidthTable == null){
+            FontKey currentFontKey = getFontKey();
+            glyphWidthTable = GlyphWidthTable.of(currentFontKey.getFontName(), currentFontKey.getFontPoint(), currentFontKey.isBold());
+        }
+        return glyphWidthTable;
     }
 
     /**
@@ -275,45 +419,39 @@ public class CellController {
      * @return workbook에 적용된 기본 폰트 포인트를 반환한다.
      */
     private int getBaseFontPoint(){
-        return workbook.getCellStyleAt(0).getFont().getFontHeightInPoints();
+        return workbookContext.getBaseFontPoint(); // StylesTable을 읽지 않도록 WorkbookContext가 읽어 둔 값
     }
 
     /**
-     * text가 한줄 또는 여러줄 일 경우 높이가 몇 Pixel인지 구한다.
-     * @param text
-     * @return text가 한줄 또는 여러줄 일 경우 높이가 몇 Pixel인지 구한다.
+     * Cell의 Text가 한줄 또는 여러줄 일 경우 높이가 몇 Pixel인지 구한다.
+     * @return Cell의 Text가 한줄 또는 여러줄 일 경우 높이가 몇 Pixel인지 구한다.
      */
-    private int getTextHeightPixel(final String text){
-        final int fontPoint = workCellStyle.getFont().getFontHeightInPoints();
+    private int getTextHeightPixel(TextLayout textLayout){
+        final ExportStats exportStats = workbookContext.getExportStats();
+        final long startNanos = exportStats != null ? System.nanoTime() : 0L;
         final int cellWidth = workSheet.getColumnWidth(workCell.getColumnIndex());
         final int cellWidthPixel = UnitConverter.widthToWidthPixel(cellWidth, getBaseFontPoint());
-        final int fontPixel = UnitConverter.pointToPixel(fontPoint);
         final int fontHeightPixel = getFontHeightPixel();
-        final double maxCharacterCountInWidth = cellWidthPixel / fontPixel;
-        
-        final int lineCnt = getLineCountFromText(text, maxCharacterCountInWidth);
+
+        final int lineCnt = textLayout.getLineCount(getGlyphWidthTable(), cellWidthPixel);
         final int textHeightPixel = lineCnt * fontHeightPixel;
 
+        if(exportStats != null){
+            exportStats.addTextMeasureNanos(System.nanoTime() - startNanos);
+        }
         return textHeightPixel;
     }
     /**
      * 텍스트를 이어서 추가한다.
+     * Row Height는 write() 할 때 최종 Column Width로 한 번만 계산한다.(layout() 참고)
      * @param text
      * @return 현재 인스턴스(CellController)
      */
     public CellController addText(final String text){
         if(text != null && text.length() > 0){
-            final int maxHeightPixel = UnitConverter.pointToPixel(workRow.getHeightInPoints());
-        
-            String fullText = workCell.getStringCellValue() + text;
-            
-            int textHeightPixel = getTextHeightPixel(fullText);
-            
-            if(maxHeightPixel < textHeightPixel){
-                setHeightInPixel(textHeightPixel);
-            }
-
-            setText(fullText);
+            textLayout.append(text);
+            changeText();
+            markLayoutPending();
         }
 
         return this;
@@ -346,115 +484,128 @@ public class CellController {
      * 이미지 크기는 셀의 넓이를 넘어서지 못한다.
      * 이미지 크기는 원본 이미지의 크기를 넘어서지 못한다.
      * 이미지의 가로 세로 크기 중 더 큰 것을 기준으로 셀의 넓이에 따라 사이즈가 조정된다.
+     * ExcelContoller.setImageResampleOption()이 설정되어 있으면 조정된 크기로 줄인 이미지를 저장한다.
+     * 이미지의 크기와 위치는 write() 할 때 최종 Column Width로 정한다.(layout() 참고)
      * @param imageObject
      * @param padding
      * @return 현재 인스턴스(CellController)
      */
     public CellController addImage(final ImageObject imageObject, final int padding){
         if(imageObject != null){
-            final int cellWidth = workSheet.getColumnWidth(workCell.getColumnIndex());
-            final int cellWidthPixel = UnitConverter.widthToWidthPixel(cellWidth, getBaseFontPoint());
-            final int maxHeightPixel = UnitConverter.pointToPixel(workRow.getHeightInPoints());
-            final int sourceImageWidth = imageObject.getWidth();
-            final int sourceImageHeight = imageObject.getHeight();
-            
-            double scale = 1d;
-            int imageWidthPixel = 0;
-            int imageHeightPixel = 0;
-
-            if(sourceImageWidth < cellWidthPixel && sourceImageHeight < cellWidthPixel){
-                imageWidthPixel = sourceImageWidth;
-                imageHeightPixel = sourceImageHeight;
-            }else{
-                if(sourceImageWidth > sourceImageHeight){
-                    scale = (double)cellWidthPixel / sourceImageWidth;
-                }else{
-                    scale = (double)cellWidthPixel / sourceImageHeight;
-                }
-                imageWidthPixel = (int)(sourceImageWidth * scale);
-                imageHeightPixel = (int)(sourceImageHeight * scale);
-            }
+            addPlacement(new Placement(textLayout.length(), imageObject, null, padding));
+        }
+
+        return this;
+    }
 
-            int imageLineCount = getLineCountFromHeightPixel(imageHeightPixel);
+    /**
+     * 이미지를 resolvedTextLayout의 끝에 배치한다.(addImage() 참고)
+     * 이미지 크기는 지금의 Column Width로 정하며, 이미지가 들어갈 만큼 빈 줄을 이어 붙인다.
+     */
+    private void placeImage(final TextLayout resolvedTextLayout, final Placement placement){
+        final ImageObject imageObject = placement.imageObject;
+        final int padding = placement.padding;
+        final int cellWidth = workSheet.getColumnWidth(workCell.getColumnIndex());
+        final int cellWidthPixel = UnitConverter.widthToWidthPixel(cellWidth, getBaseFontPoint());
+        final int sourceImageWidth = imageObject.getWidth();
+        final int sourceImageHeight = imageObject.getHeight();
 
-            String text = workCell.getStringCellValue();
-            int fromTextHeightPixel = getTextHeightPixel(text);
+        double scale = 1d;
+        int imageWidthPixel = 0;
+        int imageHeightPixel = 0;
 
-            boolean isStart = text.length() == 0;
-            for(int i = (isStart ? 1 : 0); i < imageLineCount + 1; i++){ // 엑셀에서 기본으로 빈 텍스트는 한 줄임.
-                text += "\n";
+        if(sourceImageWidth < cellWidthPixel && sourceImageHeight < cellWidthPixel){
+            imageWidthPixel = sourceImageWidth;
+            imageHeightPixel = sourceImageHeight;
+        }else{
+            if(sourceImageWidth > sourceImageHeight){
+                scale = (double)cellWidthPixel / sourceImageWidth;
+            }else{
+                scale = (double)cellWidthPixel / sourceImageHeight;
             }
+            imageWidthPixel = (int)(sourceImageWidth * scale);
+            imageHeightPixel = (int)(sourceImageHeight * scale);
+        }
 
-            int toTextHeightPixel = getTextHeightPixel(text);
+        int imageLineCount = getLineCountFromHeightPixel(imageHeightPixel);
 
-            if(maxHeightPixel < toTextHeightPixel){
-                setHeightInPixel(toTextHeightPixel);
-            }
+        int fromTextHeightPixel = getTextHeightPixel(resolvedTextLayout);
 
-            setImage(imageObject, new PositionObject(0 + padding, fromTextHeightPixel + padding, imageWidthPixel - padding, fromTextHeightPixel + imageHeightPixel - padding));
+        boolean isStart = resolvedTextLayout.length() == 0;
+        resolvedTextLayout.appendNewLine(imageLineCount + (isStart ? 0 : 1)); // 엑셀에서 기본으로 빈 텍스트는 한 줄임.
 
-            setText(text);
+        ImageObject placedImageObject = imageObject;
+        ImageResampler imageResampler = workbookContext.getImageResampler();
+        if(imageResampler != null){
+            placedImageObject = imageResampler.resample(imageObject, imageWidthPixel, imageHeightPixel);
         }
 
-        return this;
+        setImage(placedImageObject, new PositionObject(0 + padding, fromTextHeightPixel + padding, imageWidthPixel - padding, fromTextHeightPixel + imageHeightPixel - padding));
+        if(placement.lineColor != null){
+            workPicture.setLineStyleColor(placement.lineColor[0], placement.lineColor[1], placement.lineColor[2]);
+        }
+    }
+
+    /**
+     * 이미지, 첨부 파일을 layout()에서 배치하도록 기록한다.
+     */
+    private void addPlacement(final Placement placement){
+        if(placementList == null){
+            placementList = new ArrayList<>(2);
+        }
+        placementList.add(placement);
+        changeText();
+        markLayoutPending();
     }
 
     /**
      * 파일을 추가한다.
      * 아이콘의 크기는 30 x 30 Pixel이다.
      * @param embeddedFile
-     * @param padding
      * @return 현재 인스턴스(CellController)
-     * @throws IOException
      */
-    public CellController addFile(final EmbeddedFile embeddedFile) throws IOException{
+    public CellController addFile(final EmbeddedFile embeddedFile){
         return addFile(embeddedFile, 0);
     }
 
     /**
      * 파일을 추가한다.
      * 아이콘의 크기는 30 x 30 Pixel이다.
+     * 파일은 write() 할 때 읽어서 Workbook에 첨부한다.(layout() 참고)
+     * 파일, InputStream 공급자로 만든 EmbeddedFile을 읽지 못하면 여기가 아니라 write()에서 IOException이 발생한다.
+     * (Streaming 모드에서는 Row가 임시 파일로 내려가기 전에 배치하므로, 이후의 selectCell()에서 UncheckedIOException이 발생할 수 있다.)
      * @param embeddedFile
+     * @param padding
      * @return 현재 인스턴스(CellController)
-     * @throws IOException
      */
-    public CellController addFile(final EmbeddedFile embeddedFile, final int padding) throws IOException{
+    public CellController addFile(final EmbeddedFile embeddedFile, final int padding){
         if(embeddedFile != null){
-            final int maxHeightPixel = UnitConverter.pointToPixel(workRow.getHeightInPoints());
-            final int size = 30;
-
-            int imageLineCount = getLineCountFromHeightPixel(size);
-
-            String text = workCell.getStringCellValue();
-            boolean isStart =
-                (text.length() == 0) ||
-                (
-                    text.length() >= 2 &&
-                    (
-                        (text.charAt(text.length() - 1) == '\n' && text.charAt(text.length() - 2) == '\n') ||
-                        (text.charAt(text.length() - 1) == '\r' && text.charAt(text.length() - 2) == '\r')
-                    )
-                )
-            ;
-
-            int fromTextHeightPixel = getTextHeightPixel(text);
-
-            for(int i = (isStart ? 1 : 0); i < imageLineCount + 1; i++){ // 엑셀에서 기본으로 빈 텍스트는 한 줄임.
-                text += "\n";
-            }
+            addPlacement(new Placement(textLayout.length(), null, embeddedFile, padding));
+        }
 
-            int toTextHeightPixel = getTextHeightPixel(text);
-            
-            if(maxHeightPixel < toTextHeightPixel){
-                setHeightInPixel(toTextHeightPixel);
-            }
+        return this;
+    }
 
-            setFile(embeddedFile, new PositionObject(0 + padding, fromTextHeightPixel + padding, size - padding, fromTextHeightPixel + size - padding));
+    /**
+     * 첨부 파일 아이콘을 resolvedTextLayout의 끝에 배치한다.(addFile() 참고)
+     */
+    private void placeFile(final TextLayout resolvedTextLayout, final Placement placement){
+        final int padding = placement.padding;
+        final int size = 30;
 
-            setText(text);
-        }
+        int imageLineCount = getLineCountFromHeightPixel(size);
 
-        return this;
+        boolean isStart = resolvedTextLayout.isEmptyOrEndsWithBlankLine();
+
+        int fromTextHeightPixel = getTextHeightPixel(resolvedTextLayout);
+
+        resolvedTextLayout.appendNewLine(imageLineCount + (isStart ? 0 : 1)); // 엑셀에서 기본으로 빈 텍스트는 한 줄임.
+
+        try{
+            setFile(placement.embeddedFile, new PositionObject(0 + padding, fromTextHeightPixel + padding, size - padding, fromTextHeightPixel + size - padding));
+        }catch(IOException e){
+            throw new UncheckedIOException(e); // 파일, InputStream 공급자로 만든 첨부 파일을 읽지 못한 경우
+        }
     }
 
     /**
@@ -462,13 +613,13 @@ public class CellController {
      * @return Embedded File 처리를 위해 사용되는 등록된 embeddedFileName들을 Set형태로 리턴한다.
      */
     public Set<String> getEmbeddedFileNameSet(){
-        return embeddedFileIndexMap.keySet();
+        return pictureRegistry.getEmbeddedFileNameSet();
     }
 
     /**
      **<pre>
      **1. Cell에 Embedded File를 넣는다.
-     **2. embeddedFile embeddedFileName 기존에 사용/등록 되었다면, 기존 embbedFileByteArray를 사용한다. 따라서 기존에 등록/사용된 embeddedFileName를 넣으면 기존 Embedded File을 사용할 수 있고, 새로운 Embedded File를 사용하기 위해서는 embeddedFileName 값이 중복되지 않게 설정해야 한다.
+     **2. Embedded File은 내용(byte[]) 기준으로 Workbook에 한 번만 저장된다. 같은 내용이면 embeddedFileName이 달라도 기존 Embedded File을 사용하고, embeddedFileName이 같아도 내용이 다르면 새로 저장한다.
      **3. 기존의 등록된 embeddedFileName getEmbeddedFileNameSet()로 확인한다.
      **4. dx는 Cell의 좌상단 끝(모서리) 기준 x축 시작 오프셋이다.
      **5. dy는 Cell의 좌상단 끝(모서리) 기준 y축 시작 오프셋이다.
@@ -490,7 +641,7 @@ public class CellController {
     /**
      **<pre>
      **1. Cell에 Embedded File를 넣는다.
-     **2. embeddedFile embeddedFileName 기존에 사용/등록 되었다면, 기존 embbedFileByteArray를 사용한다. 따라서 기존에 등록/사용된 embeddedFileName를 넣으면 기존 Embedded File을 사용할 수 있고, 새로운 Embedded File를 사용하기 위해서는 embeddedFileName 값이 중복되지 않게 설정해야 한다.
+     **2. Embedded File은 내용(byte[]) 기준으로 Workbook에 한 번만 저장된다. 같은 내용이면 embeddedFileName이 달라도 기존 Embedded File을 사용하고, embeddedFileName이 같아도 내용이 다르면 새로 저장한다.
      **3. 기존의 등록된 embeddedFileName getEmbeddedFileNameSet()로 확인한다.
      **4. positionObject의 dx, dy의 기준은 px이다.
      **5. Cell의 Width와 Height를 초과하도록 px가 설정되어도 파일 아이콘 Image의 실제 크기는 Width와 Height 보다 클 수 없다.
@@ -502,23 +653,16 @@ public class CellController {
      */
     public CellController setFile(EmbeddedFile embeddedFile, PositionObject positionObject) throws IOException{
         final String embbedFileName = embeddedFile.getEmbeddedFileName();
-        final byte[] embbedFileByteArray = embeddedFile.getEmbeddedFileByteArray();
+        final ContentSource contentSource = embeddedFile.getContentSource();
         final EmbeddedFileFormatEnum embeddedFileFormatEnum = embeddedFile.getEmbeddedFileFormatEnum();
         final int dx1 = positionObject.getDx1();
         final int dy1 = positionObject.getDy1();
         final int dx2 = positionObject.getDx2();
         final int dy2 = positionObject.getDy2();
 
-        int embbedFileIndex = -99999;
-        if(embeddedFileIndexMap.containsKey(embbedFileName)){
-            embbedFileIndex = embeddedFileIndexMap.get(embbedFileName);
-        }else{
-            embbedFileIndex = workbook.addOlePackage(embbedFileByteArray, embbedFileName, embbedFileName, embbedFileName);
-            embeddedFileIndexMap.put(embbedFileName, embbedFileIndex);
-        }
+        embeddedFile.getContentHash(); // 해시는 lock 밖에서 미리 계산한다.
         int rowIndex = workCell.getRowIndex();
         int colIndex = workCell.getColumnIndex();
-        int imageIndex = imageIndexMap.get(embeddedFileFormatEnum.getIconName());
 
         XSSFClientAnchor anchor = new XSSFClientAnchor();
         anchor.setRow1(rowIndex);
@@ -530,43 +674,50 @@ public class CellController {
         anchor.setDx2(Units.EMU_PER_PIXEL * dx2);
         anchor.setDy2(Units.EMU_PER_PIXEL * dy2);
         
-        XSSFObjectData txtObjectData = workDrawing.createObjectData(anchor, embbedFileIndex, imageIndex);
-        txtObjectData.getOleObject().setDvAspect(STDvAspect.DVASPECT_ICON); // 파일 이미지를 더블클릭 했을 때, 엑셀 기능에 의해 썸네일 형식으로 전환되는 것을 방지.
+        final XSSFDrawing workDrawing = sheetContext.getDrawing();
+        synchronized(workbookContext.getLock()){
+            final ExportStats exportStats = workbookContext.getExportStats();
+            final long startNanos = exportStats != null ? System.nanoTime() : 0L;
+            int embbedFileIndex = pictureRegistry.addOlePackage(embbedFileName, contentSource);
+            int imageIndex = pictureRegistry.getImageIndex(embeddedFileFormatEnum.getIconName());
+            XSSFObjectData txtObjectData = workDrawing.createObjectData(anchor, embbedFileIndex, imageIndex);
+            txtObjectData.getOleObject().setDvAspect(STDvAspect.DVASPECT_ICON); // 파일 이미지를 더블클릭 했을 때, 엑셀 기능에 의해 썸네일 형식으로 전환되는 것을 방지.
+            if(exportStats != null){
+                exportStats.addEmbeddedFileRegisterNanos(System.nanoTime() - startNanos);
+            }
+        }
 
         return this;
     }
 
     /**
      * Cell에 설정된 XSSFCellStyle 인스턴스를 반환한다.
+     * 반환된 XSSFCellStyle은 같은 모양의 다른 Cell과 공유되므로, 직접 수정하면 다른 Cell에도 반영된다.
      * @return Cell에 설정된 XSSFCellStyle 인스턴스를 반환한다.
      */
     public XSSFCellStyle getCellStyle(){
+        flush();
         return workCellStyle;
     }
 
     /**
      * Cell의 XSSFCellStyle을 교체한다.
+     * 이후 Setter로 스타일을 변경하면 cellStyle을 수정하지 않고, 변경된 모양의 공유 XSSFCellStyle로 교체된다.
      * @param cellStyle
      * @return 현재 인스턴스(CellController)
      */
     public CellController setCellStyle(XSSFCellStyle cellStyle){
         workCellStyle = cellStyle;
-        workCell.setCellStyle(workCellStyle);
+        synchronized(workbookContext.getLock()){ // XSSFCell.setCellStyle()은 StylesTable을 조회/변경한다.
+            workCell.setCellStyle(workCellStyle);
+        }
+        styleKey = StyleKey.of(cellStyle);
+        fontKey = null;
+        glyphWidthTable = null;
+        isStyleChanged = false;
         return this;
     }
 
-    /**
-     * R, G, B로 XSSFColor를 생성후 반환한다.
-     * @param R
-     * @param G
-     * @param B
-     * @return R, G, B로 XSSFColor를 생성후 반환한다.
-     */
-    private XSSFColor getColor(int R, int G, int B){
-        IndexedColorMap indexedColors = workbook.getStylesSource().getIndexedColors();
-        return new XSSFColor(new Color(R, G, B), indexedColors);
-    }
-
     /**
      * Cell의 색상을 변경한다.
      * @param R
@@ -575,12 +726,11 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setCellColor(int R, int G, int B){
-        XSSFColor color = getColor(R, G, B);
-
-        workCellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        workCellStyle.setFillForegroundColor(color);
-
-        return this;
+        return changeStyle(
+            styleKey
+                .withFillPattern(FillPatternType.SOLID_FOREGROUND)
+                .withFillColor(StyleKey.toRgb(R, G, B))
+        );
     }
 
     /**
@@ -589,9 +739,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setTopBorderStyle(BorderStyle borderStyle){
-        workCellStyle.setBorderTop(borderStyle);
-
-        return this;
+        return changeStyle(styleKey.withTopBorder(borderStyle));
     }
 
     /**
@@ -600,9 +748,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setBottomBorderStyle(BorderStyle borderStyle){
-        workCellStyle.setBorderBottom(borderStyle);
-
-        return this;
+        return changeStyle(styleKey.withBottomBorder(borderStyle));
     }
 
     /**
@@ -611,9 +757,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setLeftBorderStyle(BorderStyle borderStyle){
-        workCellStyle.setBorderLeft(borderStyle);
-
-        return this;
+        return changeStyle(styleKey.withLeftBorder(borderStyle));
     }
 
     /**
@@ -622,9 +766,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setRightBorderStyle(BorderStyle borderStyle){
-        workCellStyle.setBorderRight(borderStyle);
-
-        return this;
+        return changeStyle(styleKey.withRightBorder(borderStyle));
     }
 
     /**
@@ -633,12 +775,13 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setBorderStyle(BorderStyle borderStyle){
-        return this
-              .setTopBorderStyle(borderStyle)
-              .setBottomBorderStyle(borderStyle)
-              .setLeftBorderStyle(borderStyle)
-              .setRightBorderStyle(borderStyle)
-        ;
+        return changeStyle(
+            styleKey
+                .withTopBorder(borderStyle)
+                .withBottomBorder(borderStyle)
+                .withLeftBorder(borderStyle)
+                .withRightBorder(borderStyle)
+        );
     }
 
     /**
@@ -649,8 +792,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setTopBorderColor(int R, int G, int B){
-        workCellStyle.setTopBorderColor(getColor(R, G, B));
-        return this;
+        return changeStyle(styleKey.withTopBorderColor(StyleKey.toRgb(R, G, B)));
     }
 
     /**
@@ -661,8 +803,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setBottomBorderColor(int R, int G, int B){
-        workCellStyle.setBottomBorderColor(getColor(R, G, B));
-        return this;
+        return changeStyle(styleKey.withBottomBorderColor(StyleKey.toRgb(R, G, B)));
     }
 
     /**
@@ -673,8 +814,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setLeftBorderColor(int R, int G, int B){
-        workCellStyle.setLeftBorderColor(getColor(R, G, B));
-        return this;
+        return changeStyle(styleKey.withLeftBorderColor(StyleKey.toRgb(R, G, B)));
     }
 
     /**
@@ -685,8 +825,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setRightBorderColor(int R, int G, int B){
-        workCellStyle.setRightBorderColor(getColor(R, G, B));
-        return this;
+        return changeStyle(styleKey.withRightBorderColor(StyleKey.toRgb(R, G, B)));
     }
 
     /**
@@ -697,12 +836,14 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setBorderColor(int R, int G, int B){
-        return this
-              .setTopBorderColor(R, G, B)
-              .setBottomBorderColor(R, G, B)
-              .setLeftBorderColor(R, G, B)
-              .setRightBorderColor(R, G, B)
-        ;
+        final int rgb = StyleKey.toRgb(R, G, B);
+        return changeStyle(
+            styleKey
+                .withTopBorderColor(rgb)
+                .withBottomBorderColor(rgb)
+                .withLeftBorderColor(rgb)
+                .withRightBorderColor(rgb)
+        );
     }
 
     /**
@@ -713,23 +854,40 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setImageLineColor(int R, int G, int B){
-        workPicture.setLineStyleColor(R, G, B);
+        if(placementList != null && placementList.get(placementList.size() - 1).imageObject != null){
+            placementList.get(placementList.size() - 1).lineColor = new int[]{R, G, B}; // 아직 배치하지 않은 이미지(addImage)
+        }else{
+            workPicture.setLineStyleColor(R, G, B);
+        }
         return this;
     }
 
     /**
-     * workFont를 반환한다.
-     * workFont가 없을 경우 새로 생성 후 반환한다.
-     * @return workFont를 반환한다.
+     * Cell에 적용된 Font의 FontKey를 반환한다.
+     * @return Cell에 적용된 Font의 FontKey를 반환한다.
      */
-    private XSSFFont getWorkFont(){
-        if(workFont == null){
-            workFont = workbook.createFont();
-            workFont.setFontName(UnitConverter.BASE_FONT_NAME);
-            workCellStyle.setFont(workFont);
-        };
+    private FontKey getFontKey(){
+        if(fontKey == null){
+            synchronized(workbookContext.getLock()){
+                fontKey = FontKey.of(styleRegistry.getFontAt(styleKey.getFontIndex()));
+            }
+        }
+        return fontKey;
+    }
 
-        return workFont;
+    /**
+     * Cell의 Font를 fontKey에 해당하는 공유 Font로 변경한다.
+     * @param fontKey
+     * @return 현재 인스턴스(CellController)
+     */
+    private CellController changeFont(FontKey fontKey){
+        this.fontKey = fontKey;
+        glyphWidthTable = null;
+        int fontIndex;
+        synchronized(workbookContext.getLock()){
+            fontIndex = styleRegistry.getFont(fontKey).getIndex();
+        }
+        return changeStyle(styleKey.withFontIndex(fontIndex));
     }
 
     /**
@@ -738,8 +896,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setFontSize(int size){
-        getWorkFont().setFontHeightInPoints((short)size);
-        return this;
+        return changeFont(getFontKey().withFontPoint((short)size));
     }
 
     /**
@@ -750,8 +907,16 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setFontColor(int R, int G, int B){
-        getWorkFont().setColor(getColor(R, G, B));
-        return this;
+        return changeFont(getFontKey().withColor(StyleKey.toRgb(R, G, B)));
+    }
+
+    /**
+     * Cell의 font 굵기를 설정한다.
+     * @param bold 굵게 여부
+     * @return 현재 인스턴스(CellController)
+     */
+    public CellController setFontBold(boolean bold){
+        return changeFont(getFontKey().withBold(bold));
     }
 
     /**
@@ -761,8 +926,7 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setDataFormat(int dataformatIndex){
-        workCellStyle.setDataFormat(dataformatIndex);
-        return this;
+        return changeStyle(styleKey.withDataFormat((short) dataformatIndex));
     }
 
     /**
@@ -772,7 +936,24 @@ public class CellController {
      * @return 현재 인스턴스(CellController)
      */
     public CellController setDataFormat(String dataformat){
-        workCellStyle.setDataFormat(HSSFDataFormat.getBuiltinFormat(dataformat));
-        return this;
+        return changeStyle(styleKey.withDataFormat(HSSFDataFormat.getBuiltinFormat(dataformat)));
+    }
+
+    /**
+     * addImage, addFile로 추가한 이미지 또는 첨부 파일, layout()에서 배치한다.
+     */
+    private static class Placement {
+        private final int textIndex; // 추가할 때의 Text 길이(배치할 위치)
+        private final ImageObject imageObject; // 첨부 파일이면 null
+        private final EmbeddedFile embeddedFile; // 이미지이면 null
+        private final int padding;
+        private int[] lineColor; // setImageLineColor()로 설정한 R, G, B, 설정하지 않으면 null
+
+        Placement(int textIndex, ImageObject imageObject, EmbeddedFile embeddedFile, int padding){
+            this.textIndex = textIndex;
+            this.imageObject = imageObject;
+            this.embeddedFile = embeddedFile;
+            this.padding = padding;
+        }
     }
 }
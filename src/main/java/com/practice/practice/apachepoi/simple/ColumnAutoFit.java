@@ -0,0 +1,82 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.util.Arrays;
+
+/**
+ * Sheet 하나의 Column 자동 넓이 상태.
+ * 자동 넓이를 설정한 Column에 Cell이 써질 때마다 Text의 넓이(GlyphWidthTable)를 재서 가장 넓은 값만 기억하고,
+ * ExcelContoller.write() 할 때 한 번만 Column Width로 반영한다.
+ * POI의 autoSizeColumn()처럼 Cell을 다시 읽거나 AWT로 그리지 않으므로, Row 수와 무관하게 Cell당 글자 수만큼의 배열 조회로 끝난다.
+ * SheetContext와 같이 한 번에 하나의 스레드에서만 사용해야 한다.
+ */
+class ColumnAutoFit {
+    static final int CELL_PADDING_PIXEL = 8; // 글자 양옆 여백(pixel)
+
+    private boolean[] enabled = new boolean[0];
+    private int[] minPixels = new int[0];
+    private int[] maxPixels = new int[0]; // 0 이하이면 제한하지 않는다.
+    private float[] maxTextWidths = new float[0]; // 지금까지 잰 가장 넓은 Text의 넓이(pixel), 재지 않았으면 0
+
+    /**
+     * columnIndex의 자동 넓이를 설정한다.
+     * @param columnIndex Column의 번호(0부터 시작).
+     * @param minPixel 최소 넓이(pixel)
+     * @param maxPixel 최대 넓이(pixel), 0 이하이면 제한하지 않는다.
+     */
+    void enable(int columnIndex, int minPixel, int maxPixel){
+        if(columnIndex >= enabled.length){
+            final int length = Math.max(columnIndex + 1, enabled.length * 2);
+            enabled = Arrays.copyOf(enabled, length);
+            minPixels = Arrays.copyOf(minPixels, length);
+            maxPixels = Arrays.copyOf(maxPixels, length);
+            maxTextWidths = Arrays.copyOf(maxTextWidths, length);
+        }
+        enabled[columnIndex] = true;
+        minPixels[columnIndex] = minPixel;
+        maxPixels[columnIndex] = maxPixel;
+    }
+
+    /**
+     * columnIndex에 자동 넓이가 설정되어 있는지 반환한다.
+     * @param columnIndex Column의 번호(0부터 시작).
+     * @return 자동 넓이가 설정되어 있으면 true
+     */
+    boolean isEnabled(int columnIndex){
+        return columnIndex < enabled.length && enabled[columnIndex];
+    }
+
+    /**
+     * 자동 넓이를 설정할 수 있는 Column 번호의 상한을 반환한다.(이 값 이상의 Column은 설정되어 있지 않다.)
+     * @return 자동 넓이를 설정한 Column 번호 중 가장 큰 값 + 1 이상의 값
+     */
+    int getColumnLimit(){
+        return enabled.length;
+    }
+
+    /**
+     * columnIndex에 쓴 Text의 넓이를 반영한다.
+     * @param columnIndex Column의 번호(0부터 시작).
+     * @param textWidth Text의 넓이(pixel)
+     */
+    void update(int columnIndex, float textWidth){
+        if(textWidth > maxTextWidths[columnIndex]){
+            maxTextWidths[columnIndex] = textWidth;
+        }
+    }
+
+    /**
+     * columnIndex에 적용할 넓이(pixel)를 반환한다.
+     * @param columnIndex 자동 넓이를 설정한 Column의 번호(0부터 시작).
+     * @return 적용할 넓이(pixel), 잰 Text가 없으면 -1(변경하지 않음)
+     */
+    int getWidthPixel(int columnIndex){
+        if(maxTextWidths[columnIndex] <= 0f){
+            return -1;
+        }
+        int widthPixel = Math.max((int) Math.ceil(maxTextWidths[columnIndex]) + CELL_PADDING_PIXEL, minPixels[columnIndex]);
+        if(maxPixels[columnIndex] > 0){
+            widthPixel = Math.min(widthPixel, maxPixels[columnIndex]);
+        }
+        return widthPixel;
+    }
+}
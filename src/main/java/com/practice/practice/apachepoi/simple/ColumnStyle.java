@@ -0,0 +1,178 @@
+package com.practice.practice.apachepoi.simple;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+/**
+ * ExcelContoller.writeRows()에서 Column 하나에 적용할 스타일.
+ * CellController의 스타일 Setter와 같은 속성을 설정하며, 기본값도 CellController와 같다.(글자 위쪽 맞춤, 텍스트 줄 바꿈)
+ * writeRows() 호출마다 공유 XSSFCellStyle로 한 번만 변환되므로, Cell마다 스타일을 만들지 않는다.
+ */
+public class ColumnStyle {
+    private StyleKey styleKey = StyleKey.DEFAULT;
+    private short fontPoint = -1; // 변경하지 않으면 -1
+    private Integer fontColor; // 변경하지 않으면 null
+    private Boolean fontBold; // 변경하지 않으면 null
+    private String dataFormat; // 문자열로 지정한 표현형식, 지정하지 않으면 null
+
+    /**
+     * 내용의 수직 정렬을 설정한다.
+     * @param verticalAlignment ENUM
+     * @return 현재 인스턴스(ColumnStyle)
+     */
+    public ColumnStyle setVerticalAlignment(VerticalAlignment verticalAlignment){
+        styleKey = styleKey.withVerticalAlignment(verticalAlignment);
+        return this;
+    }
+
+    /**
+     * 내용의 수평 정렬을 설정한다.
+     * @param horizontalAlignment ENUM
+     * @return 현재 인스턴스(ColumnStyle)
+     */
+    public ColumnStyle setHorizontalAlignment(HorizontalAlignment horizontalAlignment){
+        styleKey = styleKey.withHorizontalAlignment(horizontalAlignment);
+        return this;
+    }
+
+    /**
+     * 텍스트 줄 바꿈 여부를 설정한다.
+     * @param wrapText 텍스트 줄 바꿈 여부
+     * @return 현재 인스턴스(ColumnStyle)
+     */
+    public ColumnStyle setWrapText(boolean wrapText){
+        styleKey = styleKey.withWrapText(wrapText);
+        return this;
+    }
+
+    /**
+     * Cell의 색상을 변경한다.
+     * @param R
+     * @param G
+     * @param B
+     * @return 현재 인스턴스(ColumnStyle)
+     */
+    public ColumnStyle setCellColor(int R, int G, int B){
+        styleKey = styleKey
+            .withFillPattern(FillPatternType.SOLID_FOREGROUND)
+            .withFillColor(StyleKey.toRgb(R, G, B));
+        return this;
+    }
+
+    /**
+     * Cell의 Border Style를 설정한다.
+     * @param borderStyle Border의 스타일
+     * @return 현재 인스턴스(ColumnStyle)
+     */
+    public ColumnStyle setBorderStyle(BorderStyle borderStyle){
+        styleKey = styleKey
+            .withTopBorder(borderStyle)
+            .withBottomBorder(borderStyle)
+            .withLeftBorder(borderStyle)
+            .withRightBorder(borderStyle);
+        return this;
+    }
+
+    /**
+     * Cell의 Border Color를 설정한다.
+     * @param R
+     * @param G
+     * @param B
+     * @return 현재 인스턴스(ColumnStyle)
+     */
+    public ColumnStyle setBorderColor(int R, int G, int B){
+        final int rgb = StyleKey.toRgb(R, G, B);
+        styleKey = styleKey
+            .withTopBorderColor(rgb)
+            .withBottomBorderColor(rgb)
+            .withLeftBorderColor(rgb)
+            .withRightBorderColor(rgb);
+        return this;
+    }
+
+    /**
+     * Cell의 Font Size를 설정한다.
+     * @param size 폰트 크기
+     * @return 현재 인스턴스(ColumnStyle)
+     */
+    public ColumnStyle setFontSize(int size){
+        fontPoint = (short) size;
+        return this;
+    }
+
+    /**
+     * Cell의 font color를 설정한다.
+     * @param R
+     * @param G
+     * @param B
+     * @return 현재 인스턴스(ColumnStyle)
+     */
+    public ColumnStyle setFontColor(int R, int G, int B){
+        fontColor = StyleKey.toRgb(R, G, B);
+        return this;
+    }
+
+    /**
+     * Cell의 font 굵기를 설정한다.
+     * @param bold 굵게 여부
+     * @return 현재 인스턴스(ColumnStyle)
+     */
+    public ColumnStyle setFontBold(boolean bold){
+        fontBold = bold;
+        return this;
+    }
+
+    /**
+     * Cell의 DataFormat을 설정한다.
+     * 참고 [표현형식 Index] - https://poi.apache.org/apidocs/dev/org/apache/poi/ss/usermodel/BuiltinFormats.html
+     * @param dataformatIndex 표현형식 Index, 예시) 0x31 : text
+     * @return 현재 인스턴스(ColumnStyle)
+     */
+    public ColumnStyle setDataFormat(int dataformatIndex){
+        styleKey = styleKey.withDataFormat((short) dataformatIndex);
+        dataFormat = null;
+        return this;
+    }
+
+    /**
+     * Cell의 DataFormat을 설정한다.
+     * 기본 표현형식에 없는 형식(예: "yyyy-mm-dd")은 Workbook에 추가된다.
+     * 참고 [표현형식 Index] - https://poi.apache.org/apidocs/dev/org/apache/poi/ss/usermodel/BuiltinFormats.html
+     * @param dataformat 표현형식, 예시) "#,##0"
+     * @return 현재 인스턴스(ColumnStyle)
+     */
+    public ColumnStyle setDataFormat(String dataformat){
+        dataFormat = dataformat;
+        return this;
+    }
+
+    /**
+     * 설정된 속성에 해당하는 공유 XSSFCellStyle을 반환한다.
+     * WorkbookContext의 lock을 잡고 호출해야 한다.
+     * @param styleRegistry
+     * @return 설정된 속성에 해당하는 공유 XSSFCellStyle
+     */
+    XSSFCellStyle resolve(StyleRegistry styleRegistry){
+        StyleKey resolvedStyleKey = styleKey;
+        if(dataFormat != null){
+            resolvedStyleKey = resolvedStyleKey.withDataFormat(styleRegistry.getDataFormat(dataFormat));
+        }
+        if(fontPoint > 0 || fontColor != null || fontBold != null){
+            FontKey fontKey = FontKey.of(styleRegistry.getFontAt(styleKey.getFontIndex()));
+            if(fontPoint > 0){
+                fontKey = fontKey.withFontPoint(fontPoint);
+            }
+            if(fontColor != null){
+                fontKey = fontKey.withColor(fontColor);
+            }
+            if(fontBold != null){
+                fontKey = fontKey.withBold(fontBold);
+            }
+            resolvedStyleKey = resolvedStyleKey.withFontIndex(styleRegistry.getFont(fontKey).getIndex());
+        }
+        return styleRegistry.getCellStyle(resolvedStyleKey);
+    }
+}
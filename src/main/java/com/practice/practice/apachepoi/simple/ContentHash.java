@@ -0,0 +1,128 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 이미지, 첨부 파일 내용의 중복을 찾기 위한 64bit 해시.(MurmurHash3 계열, 암호화 용도가 아님)
+ * 8byte씩 읽어 계산하므로 큰 파일도 빠르게 계산한다.
+ * 내용을 나눠서 update() 해도 한 번에 계산한 값과 같으므로, InputStream도 Heap에 모으지 않고 계산할 수 있다.
+ * 해시가 같아도 내용이 같다는 보장은 없으므로, 길이와 내용을 다시 비교해야 한다.
+ */
+final class ContentHash {
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private long hash = 0L;
+    private long length = 0L;
+    private long tail = 0L; // 8byte가 채워지지 않은 마지막 block(little endian)
+    private int tailSize = 0;
+
+    ContentHash(){
+    }
+
+    /**
+     * byteArray의 64bit 해시를 반환한다.
+     * @param byteArray
+     * @return byteArray의 64bit 해시
+     */
+    static long of(byte[] byteArray){
+        return of(ByteBuffer.wrap(byteArray));
+    }
+
+    /**
+     * byteBuffer의 position부터 limit까지의 64bit 해시를 반환한다.(byte[]로 계산한 값과 같다.)
+     * MappedByteBuffer도 Heap에 복사하지 않고 계산하며, byteBuffer의 position은 변경하지 않는다.
+     * @param byteBuffer
+     * @return 64bit 해시
+     */
+    static long of(ByteBuffer byteBuffer){
+        return new ContentHash().update(byteBuffer).getValue();
+    }
+
+    /**
+     * inputStream을 끝까지 읽어 64bit 해시를 반환한다.(byte[]로 계산한 값과 같다.)
+     * 고정 크기 버퍼로 나눠 읽으므로 내용 전체를 Heap에 올리지 않는다. inputStream은 닫지 않는다.
+     * @param inputStream
+     * @return 계산을 마친 ContentHash(getValue(), getLength())
+     * @throws IOException
+     */
+    static ContentHash of(InputStream inputStream) throws IOException{
+        final ContentHash contentHash = new ContentHash();
+        final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        for(int count = inputStream.read(buffer); count >= 0; count = inputStream.read(buffer)){
+            contentHash.update(ByteBuffer.wrap(buffer, 0, count));
+        }
+        return contentHash;
+    }
+
+    /**
+     * byteBuffer의 position부터 limit까지를 이어서 계산한다. byteBuffer의 position은 변경하지 않는다.
+     * @param byteBuffer
+     * @return 현재 인스턴스(ContentHash)
+     */
+    ContentHash update(ByteBuffer byteBuffer){
+        final ByteBuffer littleEndianBuffer = byteBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        final int end = littleEndianBuffer.limit();
+        int i = littleEndianBuffer.position();
+        length += end - i;
+        for(; tailSize > 0 && i < end; i++){ // 이전 update()에서 남은 block을 먼저 채운다.
+            appendTail(littleEndianBuffer.get(i));
+        }
+        for(; i + 8 <= end; i += 8){
+            mixIn(littleEndianBuffer.getLong(i));
+        }
+        for(; i < end; i++){
+            appendTail(littleEndianBuffer.get(i));
+        }
+        return this;
+    }
+
+    /**
+     * 지금까지 update()한 내용의 64bit 해시를 반환한다.
+     * @return 64bit 해시
+     */
+    long getValue(){
+        return finalizeHash((hash ^ mixBlock(tail)) ^ length);
+    }
+
+    /**
+     * 지금까지 update()한 내용의 크기(byte)를 반환한다.
+     * @return 내용의 크기(byte)
+     */
+    long getLength(){
+        return length;
+    }
+
+    private void appendTail(byte value){
+        tail |= (value & 0xFFL) << (tailSize * 8);
+        if(++tailSize == 8){
+            mixIn(tail);
+            tail = 0L;
+            tailSize = 0;
+        }
+    }
+
+    private void mixIn(long block){
+        hash ^= mixBlock(block);
+        hash = Long.rotateLeft(hash, 27) * 5 + 0x52dce729;
+    }
+
+    private static long mixBlock(long block){
+        block *= C1;
+        block = Long.rotateLeft(block, 31);
+        return block * C2;
+    }
+
+    private static long finalizeHash(long hash){
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
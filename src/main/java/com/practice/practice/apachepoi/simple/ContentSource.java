@@ -0,0 +1,342 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * ImageObject, EmbeddedFile의 내용이 있는 곳.(byte[], ByteBuffer, 파일, InputStream 공급자)
+ * 파일과 InputStream 공급자는 내용을 Heap에 들고 있지 않고, Workbook에 저장할 때 읽는다.
+ * 파일은 메모리 매핑(MappedByteBuffer)으로, InputStream 공급자는 고정 크기 버퍼로 나눠 읽으며 해시를 계산하고 비교하므로, 중복 확인에도 Heap을 사용하지 않는다.
+ * 해시는 처음 필요할 때 한 번만 계산하며, 여러 스레드에서 함께 사용할 수 있다.
+ */
+abstract class ContentSource {
+    private static final int COMPARE_BUFFER_SIZE = 64 * 1024;
+
+    private volatile long contentHash;
+    private volatile boolean isContentHashed = false;
+
+    static ContentSource of(byte[] byteArray){
+        return new ByteArraySource(byteArray);
+    }
+
+    /**
+     * ContentHash를 이미 알고 있는 byte[]의 ContentSource를 반환한다.(PoiAsset 등)
+     */
+    static ContentSource of(byte[] byteArray, long contentHash){
+        ContentSource contentSource = new ByteArraySource(byteArray);
+        contentSource.setContentHash(contentHash);
+        return contentSource;
+    }
+
+    static ContentSource of(ByteBuffer byteBuffer){
+        return new ByteBufferSource(byteBuffer.slice());
+    }
+
+    static ContentSource of(Path path){
+        return new PathSource(path);
+    }
+
+    static ContentSource of(ContentSupplier contentSupplier){
+        return new SupplierSource(contentSupplier);
+    }
+
+    /**
+     * 내용의 크기(byte)를 반환한다.
+     * @return 내용의 크기(byte), 아직 읽지 않은 InputStream 공급자는 -1
+     */
+    abstract long getLength();
+
+    /**
+     * 내용을 읽을 InputStream을 연다. 호출한 쪽에서 닫는다.
+     */
+    abstract InputStream openStream() throws IOException;
+
+    /**
+     * 내용 전체를 byte[]로 반환한다.
+     * byte[]로 만든 ContentSource는 복사하지 않고 그대로 반환하며, 그 외에는 호출할 때마다 새로 읽는다.
+     */
+    abstract byte[] toByteArray() throws IOException;
+
+    /**
+     * 내용 비교에 사용할 ByteBuffer를 반환한다.(position 0, limit 내용의 크기)
+     * @return 내용의 ByteBuffer, Heap에 복사하지 않고는 볼 수 없는 내용(InputStream 공급자)은 null
+     */
+    abstract ByteBuffer asByteBuffer() throws IOException;
+
+    /**
+     * 내용을 끝까지 읽은 뒤 호출된다. 길이를 미리 알 수 없는 ContentSource가 길이를 기록한다.
+     * @param length 읽은 내용의 크기(byte)
+     */
+    void onContentRead(long length){
+    }
+
+    /**
+     * 내용의 ContentHash를 반환한다. 처음 호출될 때 한 번만 계산한다.
+     * @return 내용의 ContentHash
+     * @throws UncheckedIOException 내용을 읽을 수 없는 경우
+     */
+    long getContentHash(){
+        if(!isContentHashed){
+            try{
+                final ByteBuffer byteBuffer = asByteBuffer();
+                if(byteBuffer != null){
+                    setContentHash(ContentHash.of(byteBuffer));
+                }else{
+                    try(InputStream inputStream = openStream()){
+                        final ContentHash streamHash = ContentHash.of(inputStream);
+                        onContentRead(streamHash.getLength());
+                        setContentHash(streamHash.getValue());
+                    }
+                }
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }
+        return contentHash;
+    }
+
+    private void setContentHash(long contentHash){
+        this.contentHash = contentHash;
+        this.isContentHashed = true; // volatile 쓰기 순서로 contentHash가 먼저 보인다.
+    }
+
+    /**
+     * other와 내용이 같은지 비교한다.
+     * 둘 중 하나라도 ByteBuffer로 볼 수 없으면 두 InputStream을 고정 크기 버퍼로 나눠 읽으며 비교한다.
+     */
+    boolean contentEquals(ContentSource other) throws IOException{
+        if(other == this){
+            return true;
+        }
+        final long length = getLength();
+        final long otherLength = other.getLength();
+        if(length >= 0 && otherLength >= 0 && length != otherLength){
+            return false;
+        }
+        final ByteBuffer byteBuffer = asByteBuffer();
+        final ByteBuffer otherByteBuffer = other.asByteBuffer();
+        if(byteBuffer != null && otherByteBuffer != null){
+            return byteBuffer.equals(otherByteBuffer);
+        }
+        try(InputStream inputStream = openStream(); InputStream otherInputStream = other.openStream()){
+            return streamEquals(inputStream, otherInputStream);
+        }
+    }
+
+    private static boolean streamEquals(InputStream inputStream, InputStream otherInputStream) throws IOException{
+        final byte[] buffer = new byte[COMPARE_BUFFER_SIZE];
+        final byte[] otherBuffer = new byte[COMPARE_BUFFER_SIZE];
+        while(true){
+            final int count = IOUtils.readFully(inputStream, buffer);
+            final int otherCount = IOUtils.readFully(otherInputStream, otherBuffer);
+            if(count != otherCount){ // 끝에 도달하면 -1 또는 버퍼보다 작은 값을 반환한다.
+                return false;
+            }
+            if(count <= 0){
+                return true;
+            }
+            if(!Arrays.equals(buffer, 0, count, otherBuffer, 0, count)){
+                return false;
+            }
+            if(count < COMPARE_BUFFER_SIZE){
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 내용을 Workbook의 이미지 Part에 저장하고 index를 반환한다.
+     * byte[]가 아닌 내용은 InputStream에서 Part로 바로 복사하므로, 중간 byte[]를 만들지 않는다.
+     */
+    int addPicture(XSSFWorkbook workbook, int format) throws IOException{
+        try(InputStream inputStream = openStream()){
+            return workbook.addPicture(inputStream, format);
+        }
+    }
+
+    private static class ByteArraySource extends ContentSource {
+        private final byte[] byteArray;
+
+        private ByteArraySource(byte[] byteArray){
+            this.byteArray = byteArray;
+        }
+
+        @Override
+        long getLength(){
+            return byteArray.length;
+        }
+
+        @Override
+        InputStream openStream(){
+            return new ByteArrayInputStream(byteArray);
+        }
+
+        @Override
+        byte[] toByteArray(){
+            return byteArray;
+        }
+
+        @Override
+        ByteBuffer asByteBuffer(){
+            return ByteBuffer.wrap(byteArray);
+        }
+
+        @Override
+        int addPicture(XSSFWorkbook workbook, int format){
+            return workbook.addPicture(byteArray, format);
+        }
+    }
+
+    private static class ByteBufferSource extends ContentSource {
+        private final ByteBuffer byteBuffer; // position 0부터 내용, 읽을 때는 duplicate()를 사용한다.
+
+        private ByteBufferSource(ByteBuffer byteBuffer){
+            this.byteBuffer = byteBuffer;
+        }
+
+        @Override
+        long getLength(){
+            return byteBuffer.remaining();
+        }
+
+        @Override
+        InputStream openStream(){
+            return new ByteBufferInputStream(byteBuffer.duplicate());
+        }
+
+        @Override
+        byte[] toByteArray(){
+            byte[] byteArray = new byte[byteBuffer.remaining()];
+            byteBuffer.duplicate().get(byteArray);
+            return byteArray;
+        }
+
+        @Override
+        ByteBuffer asByteBuffer(){
+            return byteBuffer.duplicate();
+        }
+    }
+
+    private static class PathSource extends ContentSource {
+        private final Path path;
+        private volatile ByteBuffer mappedByteBuffer; // 처음 비교, 해시 계산할 때 매핑한다.(Heap이 아닌 Page Cache를 사용)
+
+        private PathSource(Path path){
+            this.path = path;
+        }
+
+        @Override
+        long getLength(){
+            try{
+                return Files.size(path);
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        InputStream openStream() throws IOException{
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        byte[] toByteArray() throws IOException{
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        ByteBuffer asByteBuffer() throws IOException{
+            ByteBuffer byteBuffer = mappedByteBuffer;
+            if(byteBuffer == null){
+                try(FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)){
+                    byteBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size()); // 매핑은 Channel을 닫아도 유지된다.
+                }
+                mappedByteBuffer = byteBuffer;
+            }
+            return byteBuffer.duplicate();
+        }
+    }
+
+    private static class SupplierSource extends ContentSource {
+        private final ContentSupplier contentSupplier;
+        private volatile long length = -1; // 처음 읽을 때 구한다.
+
+        private SupplierSource(ContentSupplier contentSupplier){
+            this.contentSupplier = contentSupplier;
+        }
+
+        @Override
+        long getLength(){
+            return length;
+        }
+
+        @Override
+        InputStream openStream() throws IOException{
+            return contentSupplier.open();
+        }
+
+        @Override
+        byte[] toByteArray() throws IOException{
+            try(InputStream inputStream = contentSupplier.open()){
+                byte[] byteArray = IOUtils.toByteArray(inputStream);
+                length = byteArray.length;
+                return byteArray;
+            }
+        }
+
+        @Override
+        ByteBuffer asByteBuffer(){
+            return null; // 해시 계산과 비교는 openStream()으로 나눠 읽는다.
+        }
+
+        @Override
+        void onContentRead(long length){
+            this.length = length;
+        }
+    }
+
+    /**
+     * ByteBuffer를 읽는 InputStream.(MappedByteBuffer도 Heap에 복사하지 않고 필요한 만큼씩 읽는다.)
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer byteBuffer;
+
+        private ByteBufferInputStream(ByteBuffer byteBuffer){
+            this.byteBuffer = byteBuffer;
+        }
+
+        @Override
+        public int read(){
+            return byteBuffer.hasRemaining() ? byteBuffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len){
+            if(len == 0){
+                return 0;
+            }
+            if(!byteBuffer.hasRemaining()){
+                return -1;
+            }
+            int count = Math.min(len, byteBuffer.remaining());
+            byteBuffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available(){
+            return byteBuffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 이미지, 첨부 파일 내용을 읽을 InputStream을 연다.
+ * 내용이 필요할 때마다(해시 계산, 비교, Workbook에 저장) 새 InputStream을 열며, 열 때마다 같은 내용을 반환해야 한다.
+ * 예시) () -> s3Client.getObject(bucket, key)
+ */
+@FunctionalInterface
+public interface ContentSupplier {
+    /**
+     * 내용을 읽을 InputStream을 연다. 호출한 쪽에서 닫는다.
+     * @return 내용을 읽을 InputStream
+     * @throws IOException
+     */
+    InputStream open() throws IOException;
+}
@@ -1,10 +1,17 @@
 package com.practice.practice.apachepoi.simple;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import lombok.AccessLevel;
 import lombok.Getter;
 
 @Getter
 public class EmbeddedFile {
-    private byte[] embeddedFileByteArray;
+    @Getter(AccessLevel.PACKAGE)
+    private ContentSource contentSource;
     private EmbeddedFileFormatEnum embeddedFileFormatEnum;
     private String embeddedFileName;
     
@@ -13,8 +20,108 @@ public class EmbeddedFile {
         EmbeddedFileFormatEnum embeddedFileFormatEnum,
         String embeddedFileName
     ) {
-        this.embeddedFileByteArray = embeddedFileByteArray;
+        this(ContentSource.of(embeddedFileByteArray), embeddedFileFormatEnum, embeddedFileName);
+    }
+
+    /**
+     * 파일로 EmbeddedFile을 생성한다.
+     * 파일을 Heap에 읽어 두지 않고, Workbook에 처음 첨부할 때 읽는다.
+     * 중복 확인(해시, 비교)은 파일을 메모리 매핑해서 하므로 Heap을 사용하지 않는다.
+     * @param embeddedFilePath 첨부할 파일
+     * @param embeddedFileFormatEnum
+     * @param embeddedFileName
+     */
+    public EmbeddedFile(
+        Path embeddedFilePath,
+        EmbeddedFileFormatEnum embeddedFileFormatEnum,
+        String embeddedFileName
+    ) {
+        this(ContentSource.of(embeddedFilePath), embeddedFileFormatEnum, embeddedFileName);
+    }
+
+    /**
+     * 파일 내용이 담긴 ByteBuffer(MappedByteBuffer 등)로 EmbeddedFile을 생성한다.
+     * ByteBuffer의 position부터 limit까지를 내용으로 사용하며, 이후 ByteBuffer의 내용을 변경하면 안 된다.
+     * @param embeddedFileByteBuffer 파일 내용
+     * @param embeddedFileFormatEnum
+     * @param embeddedFileName
+     */
+    public EmbeddedFile(
+        ByteBuffer embeddedFileByteBuffer,
+        EmbeddedFileFormatEnum embeddedFileFormatEnum,
+        String embeddedFileName
+    ) {
+        this(ContentSource.of(embeddedFileByteBuffer), embeddedFileFormatEnum, embeddedFileName);
+    }
+
+    /**
+     * 파일을 읽을 InputStream 공급자로 EmbeddedFile을 생성한다.
+     * 내용이 필요할 때마다(중복 확인, Workbook에 첨부) 새 InputStream을 열며, 내용을 Heap에 들고 있지 않는다.
+     * @param embeddedFileSupplier 파일을 읽을 InputStream 공급자
+     * @param embeddedFileFormatEnum
+     * @param embeddedFileName
+     */
+    public EmbeddedFile(
+        ContentSupplier embeddedFileSupplier,
+        EmbeddedFileFormatEnum embeddedFileFormatEnum,
+        String embeddedFileName
+    ) {
+        this(ContentSource.of(embeddedFileSupplier), embeddedFileFormatEnum, embeddedFileName);
+    }
+
+    /**
+     * PoiAssetCache의 자원으로 EmbeddedFile을 생성한다.
+     * 자원의 byte[]를 복사하지 않는다.
+     * @param asset PoiAssetCache의 자원
+     * @param embeddedFileFormatEnum
+     * @param embeddedFileName
+     */
+    public EmbeddedFile(
+        PoiAsset asset,
+        EmbeddedFileFormatEnum embeddedFileFormatEnum,
+        String embeddedFileName
+    ) {
+        this(ContentSource.of(asset.getByteArray(), asset.getContentHash()), embeddedFileFormatEnum, embeddedFileName);
+    }
+
+    private EmbeddedFile(
+        ContentSource contentSource,
+        EmbeddedFileFormatEnum embeddedFileFormatEnum,
+        String embeddedFileName
+    ) {
+        this.contentSource = contentSource;
         this.embeddedFileFormatEnum = embeddedFileFormatEnum;
         this.embeddedFileName = embeddedFileName;
     }
+
+    /**
+     * 파일 내용을 byte[]로 반환한다.
+     * byte[]로 만든 EmbeddedFile은 그 byte[]를 그대로 반환하고, 파일, ByteBuffer, InputStream 공급자로 만든 EmbeddedFile은 호출할 때마다 새로 읽는다.
+     * @return 파일 내용
+     */
+    public byte[] getEmbeddedFileByteArray(){
+        try{
+            return contentSource.toByteArray();
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 파일 내용의 크기(byte)를 반환한다. 내용을 읽지 않는다.
+     * @return 파일 내용의 크기(byte), 아직 읽지 않은 InputStream 공급자는 -1
+     */
+    public long getContentLength(){
+        return contentSource.getLength();
+    }
+
+    /**
+     * 내용의 ContentHash를 반환한다.
+     * 처음 호출될 때 한 번만 계산한다.(파일, InputStream 공급자는 내용을 한 번 읽는다.)
+     * 같은 내용인지 빠르게 거르는 용도이며, 값이 같아도 내용이 같다는 보장은 없다.
+     * @return 내용의 ContentHash
+     */
+    public long getContentHash(){
+        return contentSource.getContentHash();
+    }
 }
@@ -0,0 +1,48 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ExcelContoller.writeRecords()로 출력할 필드를 지정한다.
+ * 이 어노테이션이 붙은 필드만 Column으로 출력된다.
+ * 필드 값은 getter(getXxx/isXxx)가 있으면 getter로, 없으면 필드에서 직접 읽는다.
+ * <pre>
+ * public class Sample {
+ *     &#64;ExcelColumn(header = "이름", order = 1, width = 120)
+ *     private String name;
+ *
+ *     &#64;ExcelColumn(header = "금액", order = 2, format = "#,##0")
+ *     private long amount;
+ * }
+ * </pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ExcelColumn {
+    /**
+     * Header Row에 표시할 이름, 비어 있으면 필드 이름을 사용한다.
+     */
+    String header() default "";
+
+    /**
+     * Column 순서(작은 값이 왼쪽), 같으면 상위 클래스의 필드가 먼저, 같은 클래스에서는 필드 이름 순서를 따른다.
+     * (필드 선언 순서는 Java가 보장하지 않으므로 Column 순서를 정하려면 order를 지정한다.)
+     */
+    int order() default Integer.MAX_VALUE;
+
+    /**
+     * Column의 Width(pixel), 0 이하이면 변경하지 않는다.
+     */
+    int width() default 0;
+
+    /**
+     * 표현형식, 예시) "#,##0", "yyyy-mm-dd"
+     * 비어 있으면 날짜 타입은 "yyyy-mm-dd"(LocalDateTime은 "yyyy-mm-dd hh:mm:ss"), 그 외는 기본 형식을 사용한다.
+     */
+    String format() default "";
+}
@@ -2,35 +2,61 @@ package com.practice.practice.apachepoi.simple;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFCell;
-import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFFont;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * WorkBook과 Sheet를 조정할 수 있는 컨트롤러.
  * 작업을 종료하면 close() 메소드로 Workbook 자원을 반환해야한다.
+ * rowAccessWindowSize를 지정하면 SXSSFWorkbook 기반의 Streaming 모드로 동작한다.
+ * 여러 Sheet를 동시에 채우려면 buildSheets() 또는 Sheet별 SheetBuilder를 사용한다.
  */
 public class ExcelContoller{
+    public static final int DEFAULT_ROW_ACCESS_WINDOW_SIZE = 100;
+
     private XSSFWorkbook workbook;
-    private XSSFSheet workSheet;
-    private XSSFRow workRow;
-    private XSSFCell workCell;
-    private Map<String, CellController> cellControllerMap = new HashMap<>();
-    private CellController cellController;
-    private Map<String, Integer> imageIndexMap = new HashMap<>(); // key: imageKey(사용자 지정), value: imageNumber(Workbook.addPicture())
-    private Map<String, Integer> embeddedFileIndexMap = new HashMap<>(); // key: fileName(사용자 지정), value: embbedFileNumber(Workbook.addOlePackage())
+    private SXSSFWorkbook streamingWorkbook; // Streaming 모드가 아니면 null
+    private int workSheetIndex;
+    private List<SheetContext> sheetContextList = new ArrayList<>(); // Sheet별 작업 상태(CellController 인덱스 등)
+    private SheetContext workSheetContext; // 작업중인 Sheet의 작업 상태
+    private WorkbookContext workbookContext;
     private List<XSSFSheet> sheetList = new ArrayList<>();
+    private WriteProfileEnum writeProfile; // 설정하지 않으면 null(POI 기본 압축)
+    private ExcelMetrics excelMetrics; // 설정하지 않으면 null(Metric을 발행하지 않음)
+    private final long createdNanos = System.nanoTime(); // poi.export.build의 시작 시각
+    private final AtomicBoolean closed = new AtomicBoolean(false);
 
     /**
      * 내부적으로 Workbook과 Sheet를 생성한다.
@@ -69,24 +95,100 @@ public class ExcelContoller{
      * @throws IOException
      */
     public ExcelContoller(String sheetName, short fontPoint) throws IOException{
+        this(sheetName, fontPoint, -1);
+    }
+
+    /**
+     * 내부적으로 Workbook과 Sheet를 생성한다.
+     * rowAccessWindowSize가 0보다 크면 SXSSFWorkbook 기반의 Streaming 모드로 생성한다.
+     * Streaming 모드에서는 최근 rowAccessWindowSize개의 Row만 메모리에 유지되고, 나머지 Row는 압축된 임시 파일로 내려간다.
+     * 임시 파일로 내려간(flush) Row의 CellController는 폐기되며, 해당 Row를 다시 선택하면 IllegalStateException이 발생한다.
+     * 기본적인 파일 아이콘(MS-Office, Txt, Etc-File)이 WorkBook에 추가된다.
+     * 작업을 종료하면 close() 메소드로 Workbook 자원을 반환해야한다.
+     * @param sheetName 생성할 Sheet의 이름
+     * @param fontPoint 기본 폰트 포인트
+     * @param rowAccessWindowSize 메모리에 유지할 Row의 수(0 이하이면 일반 XSSFWorkbook 모드), 예시) DEFAULT_ROW_ACCESS_WINDOW_SIZE
+     * @throws IOException
+     */
+    public ExcelContoller(String sheetName, short fontPoint, int rowAccessWindowSize) throws IOException{
         workbook = new XSSFWorkbook();
-        workSheet = workbook.createSheet(sheetName);
-        sheetList.add(workSheet);
+        workbookContext = new WorkbookContext(workbook);
+        if(rowAccessWindowSize > 0){
+            streamingWorkbook = new SXSSFWorkbook(workbook, rowAccessWindowSize, true); // 임시 파일 압축
+        }
+        workSheetContext = addSheet(sheetName);
+        workSheetIndex = 0;
+        registIconImage();
+        XSSFFont baseFont = workbookContext.setBaseFont(UnitConverter.BASE_FONT_NAME, fontPoint);
+        workbookContext.getStyleRegistry().registFont(FontKey.of(baseFont), baseFont);
+    }
+
+    /**
+     * 이미 만들어진 Workbook(ExcelTemplate의 복사본)으로 생성한다.
+     * Workbook의 Sheet, CellStyle, Font, 이미지를 그대로 사용하며, 같은 모양의 CellStyle과 같은 내용의 이미지는 새로 만들지 않고 재사용한다.
+     * Sheet가 없으면 "sheet1" Sheet를 생성하고, 활성화된 Sheet를 작업중인 Sheet로 선택한다.
+     * Streaming 모드에서는 Workbook에 이미 있는 Row를 다시 선택할 수 없으므로, 마지막 Row 다음부터 작업해야 한다.
+     * @param workbook 사용할 Workbook
+     * @param rowAccessWindowSize 메모리에 유지할 Row의 수(0 이하이면 일반 XSSFWorkbook 모드)
+     */
+    ExcelContoller(XSSFWorkbook workbook, int rowAccessWindowSize) throws IOException{
+        this.workbook = workbook;
+        workbookContext = new WorkbookContext(workbook);
+        workbookContext.getStyleRegistry().registExistingStyles();
+        workbookContext.getPictureRegistry().registExistingPictures();
+        if(rowAccessWindowSize > 0){
+            streamingWorkbook = new SXSSFWorkbook(workbook, rowAccessWindowSize, true); // 임시 파일 압축
+        }
+        for(int i = 0; i < workbook.getNumberOfSheets(); i++){
+            Sheet sheet = isStreaming() ? streamingWorkbook.getSheetAt(i) : workbook.getSheetAt(i);
+            SheetContext sheetContext = new SheetContext(workbookContext, sheet);
+            sheetList.add(sheetContext.getXssfSheet());
+            sheetContextList.add(sheetContext);
+        }
+        if(sheetContextList.isEmpty()){
+            addSheet("sheet1");
+        }
+        workSheetIndex = Math.min(workbook.getActiveSheetIndex(), sheetContextList.size() - 1);
+        workSheetContext = sheetContextList.get(workSheetIndex);
         registIconImage();
-        workbook.getCellStyleAt(0).getFont().setFontName(UnitConverter.BASE_FONT_NAME);
-        workbook.getCellStyleAt(0).getFont().setFontHeightInPoints(fontPoint);
     }
 
     /**
      * XSSFWorkbook을 반환한다.
+     * Streaming 모드에서는 SXSSFWorkbook이 감싸고 있는 XSSFWorkbook(스타일, 이미지 등의 공용 부분)을 반환한다.
      * @return XSSFWorkbook을 반환한다.
      */
     public XSSFWorkbook getWorkbook(){
         return workbook;
     }
 
+    /**
+     * Streaming 모드의 SXSSFWorkbook을 반환한다.
+     * @return Streaming 모드의 SXSSFWorkbook을 반환한다. Streaming 모드가 아니면 null을 반환한다.
+     */
+    public SXSSFWorkbook getStreamingWorkbook(){
+        return streamingWorkbook;
+    }
+
+    /**
+     * Streaming(SXSSF) 모드 여부를 반환한다.
+     * @return Streaming(SXSSF) 모드 여부
+     */
+    public boolean isStreaming(){
+        return streamingWorkbook != null;
+    }
+
+    /**
+     * Cell 데이터를 기록하고 파일로 출력할 Workbook을 반환한다.
+     * @return Streaming 모드이면 SXSSFWorkbook, 아니면 XSSFWorkbook을 반환한다.
+     */
+    private Workbook getOutputWorkbook(){
+        return isStreaming() ? streamingWorkbook : workbook;
+    }
+
     /**
      * List<XSSFSheet>을 반환한다.
+     * Streaming 모드에서는 SXSSFSheet가 감싸고 있는 XSSFSheet를 반환한다.
      * @return List<XSSFSheet>을 반환한다.
      */
     public List<XSSFSheet> getSheetList(){
@@ -104,10 +206,11 @@ public class ExcelContoller{
 
     /**
      * 현재 작업중인 XSSFSheet를 반환한다.
+     * Streaming 모드에서는 SXSSFSheet가 감싸고 있는 XSSFSheet를 반환한다.
      * @return 현재 작업중인 XSSFSheet를 반환한다.
      */
     public XSSFSheet getActivatedSheet(){
-        return workSheet;
+        return sheetList.get(workSheetIndex);
     }
 
     /**
@@ -116,11 +219,87 @@ public class ExcelContoller{
      * @return 현재 인스턴스(ExcelContoller)
      */
     public ExcelContoller selectSheet(int index){
-        workSheet = sheetList.get(index);
+        workSheetContext = sheetContextList.get(index);
+        workSheetIndex = index;
         workbook.setActiveSheet(index);
         return this;
     }
 
+    /**
+     * sheetName의 Sheet를 생성하고 SheetContext를 등록한다.
+     * @param sheetName 생성할 Sheet의 이름
+     * @return 생성한 Sheet의 SheetContext
+     */
+    private SheetContext addSheet(String sheetName){
+        Sheet sheet = isStreaming() ? streamingWorkbook.createSheet(sheetName) : workbook.createSheet(sheetName);
+        SheetContext sheetContext = new SheetContext(workbookContext, sheet);
+        sheetList.add(sheetContext.getXssfSheet());
+        sheetContextList.add(sheetContext);
+        return sheetContext;
+    }
+
+    /**
+     * sheetName의 Sheet를 생성하고, 생성한 Sheet를 채우는 SheetBuilder를 반환한다.
+     * 생성한 Sheet는 마지막 Sheet로 추가되며, selectSheet()로도 선택할 수 있다.
+     * Sheet 생성은 ExcelContoller를 사용하는 스레드에서 해야 하며, 반환된 SheetBuilder는 다른 스레드에서 사용할 수 있다.
+     * @param sheetName 생성할 Sheet의 이름
+     * @return 생성한 Sheet를 채우는 SheetBuilder
+     */
+    public SheetBuilder createSheetBuilder(String sheetName){
+        return new SheetBuilder(addSheet(sheetName));
+    }
+
+    /**
+     * index번호의 Sheet를 채우는 SheetBuilder를 반환한다.
+     * @param index Sheet 번호(0부터 시작)
+     * @return index번호의 Sheet를 채우는 SheetBuilder
+     */
+    public SheetBuilder getSheetBuilder(int index){
+        return new SheetBuilder(sheetContextList.get(index));
+    }
+
+    /**
+     * 여러 Sheet를 executor의 스레드에서 동시에 채운다.
+     * sheetBuildTaskMap의 순서대로 Sheet를 생성하고(LinkedHashMap 사용), Sheet마다 하나의 작업을 executor에 제출한 뒤 모두 끝날 때까지 기다린다.
+     * Style, Font, Image, 첨부 파일은 Workbook 단위로 공유되므로, 여러 Sheet에서 같은 모양이나 같은 내용을 사용해도 한 번만 저장된다.
+     * 작업 중 하나라도 실패하면 나머지 작업이 끝난 뒤 첫 번째 예외를 던진다.
+     * @param sheetBuildTaskMap key: 생성할 Sheet의 이름, value: Sheet를 채우는 작업
+     * @param executor 작업을 실행할 Executor(예: Executors.newFixedThreadPool())
+     * @return 현재 인스턴스(ExcelContoller)
+     * @throws IOException
+     */
+    public ExcelContoller buildSheets(Map<String, SheetBuildTask> sheetBuildTaskMap, Executor executor) throws IOException{
+        List<CompletableFuture<Void>> futureList = new ArrayList<>(sheetBuildTaskMap.size());
+        for(Map.Entry<String, SheetBuildTask> entry : sheetBuildTaskMap.entrySet()){
+            final SheetBuilder sheetBuilder = createSheetBuilder(entry.getKey());
+            final SheetBuildTask sheetBuildTask = entry.getValue();
+            futureList.add(CompletableFuture.runAsync(() -> {
+                try{
+                    sheetBuildTask.build(sheetBuilder);
+                    sheetBuilder.flush(); // 변경 사항 반영도 작업 스레드에서 한다.
+                }catch(IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            }, executor));
+        }
+        try{
+            CompletableFuture.allOf(futureList.toArray(new CompletableFuture<?>[0])).join();
+        }catch(CompletionException e){
+            Throwable cause = e.getCause();
+            if(cause instanceof UncheckedIOException){
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            }
+            if(cause instanceof Error){
+                throw (Error) cause;
+            }
+            throw e;
+        }
+        return this;
+    }
+
     /**
      * 작업중인 Sheet의 이름을 sheetName으로 설정한다.
      * @param sheetName 변경할 Sheet의 이름
@@ -134,13 +313,38 @@ public class ExcelContoller{
     /**
      * Column의 Width를 pixel으로 변경한다.
      * Excel의 width 특성상 완벽하게 pixel로 구현하기가 쉽지 않아서 오차가 있다.
+     * Streaming 모드에서는 임시 파일로 내려가면서 이미 배치된(Row Height, 이미지/첨부 파일 위치) Row에 최종 Width가 반영되지 않는다.(최근 rowAccessWindowSize개의 Row만 반영)
      * @param columnIndex 변경할 Column의 번호(0부터 시작).
      * @param pixel
      * @return 현재 인스턴스(ExcelContoller)
      */
     public ExcelContoller setColumnWidthInPixel(int columnIndex, int pixel){
-        double fontPoint = workbook.getCellStyleAt(0).getFont().getFontHeightInPoints();
-        workSheet.setColumnWidth(columnIndex, UnitConverter.widthPixelToWidth(pixel, fontPoint));
+        workSheetContext.setColumnWidthInPixel(columnIndex, pixel);
+        return this;
+    }
+
+    /**
+     * Column의 Width를 Text에 맞춰 자동으로 변경한다.
+     * 설정한 뒤에 쓰는 Cell(selectCell, writeRows)의 Text 넓이를 글자 넓이 표(GlyphWidthTable)로 재서 가장 넓은 값만 기억하고, write() 할 때 한 번만 Width를 변경한다.
+     * POI의 autoSizeColumn()과 달리 Cell을 다시 읽지 않으므로 Row가 많아도 비용이 거의 없다.
+     * 여러 Column에 걸쳐 Merge된 Cell은 제외되므로, Merge는 Text를 쓰기 전에 한다.
+     * Streaming 모드에서는 write() 전에 임시 파일로 내려간 Row의 Row Height와 이미지/첨부 파일 위치가 자동 넓이를 적용하기 전의 Width로 계산된다.
+     * @param columnIndex 변경할 Column의 번호(0부터 시작).
+     * @return 현재 인스턴스(ExcelContoller)
+     */
+    public ExcelContoller setColumnAutoFit(int columnIndex){
+        return setColumnAutoFit(columnIndex, 0, 0);
+    }
+
+    /**
+     * Column의 Width를 Text에 맞춰 자동으로 변경한다.(setColumnAutoFit(int) 참고)
+     * @param columnIndex 변경할 Column의 번호(0부터 시작).
+     * @param minPixel 최소 넓이(pixel)
+     * @param maxPixel 최대 넓이(pixel), 0 이하이면 제한하지 않는다.
+     * @return 현재 인스턴스(ExcelContoller)
+     */
+    public ExcelContoller setColumnAutoFit(int columnIndex, int minPixel, int maxPixel){
+        workSheetContext.setColumnAutoFit(columnIndex, minPixel, maxPixel);
         return this;
     }
 
@@ -151,11 +355,7 @@ public class ExcelContoller{
      * @return 현재 인스턴스(ExcelController)
      */
     public ExcelContoller setRowHeightInPixel(int rowIndex, int pixel){
-        XSSFRow row = workSheet.getRow(rowIndex);
-        if(row == null){
-            row = workSheet.createRow(rowIndex);
-        }
-        row.setHeight(UnitConverter.getHeightFromPixel(pixel));
+        workSheetContext.getOrCreateRow(rowIndex).setHeight(UnitConverter.getHeightFromPixel(pixel));
         return this;
     }
 
@@ -166,62 +366,237 @@ public class ExcelContoller{
      * @return 현재 인스턴스(ExcelController)
      */
     public ExcelContoller setRowHeight(int rowIndex, int point){
-        XSSFRow row = workSheet.getRow(rowIndex);
-        if(row == null){
-            row = workSheet.createRow(rowIndex);
-        }
-        row.setHeight(UnitConverter.getHeightFromPoint(point));
+        workSheetContext.getOrCreateRow(rowIndex).setHeight(UnitConverter.getHeightFromPoint(point));
         return this;
     }
 
     /**
-     * createObjectData에 쓰일 기본 아이콘 이미지를 등록한다.
-     * icon 이미지 파일은 /static/poi에서 불러온다.
-     * @throws IOException
+     * CellController.addImage()로 추가하는 이미지를 표시 크기에 맞게 줄여서 저장하도록 설정한다.
+     * 같은 이미지를 같은 크기로 여러 번 추가하면 한 번만 줄이고 다시 인코딩한다.
+     * 설정 이후에 추가하는 이미지부터 적용된다.
+     * @param imageResampleOption 이미지 줄이기 설정, null이면 원본 이미지를 그대로 저장한다.
+     * @return 현재 인스턴스(ExcelContoller)
      */
-    private void registIconImage() throws IOException{
-        List<String> iconFileNames = new ArrayList<>();
-        for(EmbeddedFileFormatEnum fileFormatEnum : EmbeddedFileFormatEnum.values()){
-            iconFileNames.add(fileFormatEnum.getIconName());
-        }
+    public ExcelContoller setImageResampleOption(ImageResampleOption imageResampleOption){
+        workbookContext.setImageResampler(imageResampleOption == null ? null : new ImageResampler(imageResampleOption));
+        return this;
+    }
+
+    /**
+     * Workbook을 쓸 때의 압축 설정을 변경한다.
+     * FAST, BALANCED는 이미 압축된 이미지와 첨부 파일(xlsx, pptx 등)을 다시 압축하지 않는다.
+     * 압축하지 않는 Entry를 쓰려면 출력 위치를 되돌아갈 수 있어야 하므로, 파일 전체를 임시 파일에 만든 뒤 outputStream으로 내보낸다.
+     * Streaming 모드에서는 SXSSFWorkbook이 압축을 직접 처리하므로 적용되지 않는다.
+     * @param writeProfile 압축 설정, null이면 POI 기본 압축
+     * @return 현재 인스턴스(ExcelContoller)
+     */
+    public ExcelContoller setWriteProfile(WriteProfileEnum writeProfile){
+        this.writeProfile = writeProfile;
+        return this;
+    }
 
-        for(String iconFileName : iconFileNames){
-            byte[] imageByteArray = Files.readAllBytes(new ClassPathResource("static/poi/" + iconFileName).getFile().toPath());
-            int imageIndex = workbook.addPicture(imageByteArray, ImageFormatEnum.PICTURE_TYPE_PNG.getValue());
-            imageIndexMap.put(iconFileName, imageIndex);
+    /**
+     * write() 할 때 출력 단계별 시간과 Workbook 크기를 Micrometer로 발행한다.(ExcelMetrics 참고)
+     * Text 줄 수 계산, 이미지/첨부 파일 등록 시간은 이 메소드를 호출한 뒤부터 측정되므로, ExcelContoller를 만든 직후에 호출한다.
+     * @param meterRegistry 발행할 MeterRegistry, null이면 발행하지 않는다.
+     * @param exportName export Tag 값(보고서 이름)
+     * @return 현재 인스턴스(ExcelContoller)
+     */
+    public ExcelContoller setMetrics(MeterRegistry meterRegistry, String exportName){
+        if(meterRegistry == null){
+            excelMetrics = null;
+            workbookContext.setExportStats(null);
+        }else{
+            excelMetrics = new ExcelMetrics(meterRegistry, exportName);
+            workbookContext.setExportStats(new ExportStats());
         }
+        return this;
     }
 
     /**
-     * cellControllerMap에 쓰이는 Key를 생성한다.
-     * @param rowIndex Row의 번호(0부터 시작).
-     * @param colInex Column의 번호(0부터 시작).
-     * @return "R{rowIndex}C{colIndex}"
+     * createObjectData에 쓰일 기본 아이콘 이미지를 등록한다.
+     * icon 이미지는 PoiAssetCache(/static/poi)에 올려 둔 자원을 사용하므로 파일 I/O가 없다.
      */
-    private String getCellControllerKey(int rowIndex, int colInex){
-        return "R" + rowIndex + "C" + colInex;
+    private void registIconImage() throws IOException{
+        PoiAssetCache poiAssetCache = PoiAssetCache.getInstance();
+        PictureRegistry pictureRegistry = workbookContext.getPictureRegistry();
+        for(EmbeddedFileFormatEnum fileFormatEnum : EmbeddedFileFormatEnum.values()){
+            PoiAsset iconAsset = poiAssetCache.get(fileFormatEnum.getIconName());
+            pictureRegistry.addPicture(iconAsset.getName(), iconAsset.getByteArray(), ImageFormatEnum.PICTURE_TYPE_PNG.getValue(), iconAsset.getContentHash());
+        }
     }
 
     /**
      * 작업할 Cell을 선택한다.
+     * Streaming 모드에서 이미 임시 파일로 내려간 Row의 Cell을 선택하면 IllegalStateException이 발생한다.
      * @param rowIndex Row의 번호(0부터 시작).
      * @param colIndex Column의 번호(0부터 시작).
      * @return Cell을 조정할 수 있는 CellController 인스턴스를 반환한다.
      */
     public CellController selectCell(int rowIndex, int colIndex){
-        String cellControllerKey = getCellControllerKey(rowIndex, colIndex);
+        return workSheetContext.selectCell(rowIndex, colIndex);
+    }
+
+    /**
+     * 작업중인 Sheet에 여러 Row를 한 번에 쓴다.
+     * Cell마다 CellController를 만들지 않고 POI의 Row, Cell에 값을 바로 쓰므로, 단순한 데이터 출력에 사용한다.
+     * columnStyles는 호출마다 한 번만 공유 XSSFCellStyle로 변환되며, 값이 없는(null) Cell에도 적용된다.
+     * 값은 타입에 따라 Number, Boolean, Date, LocalDate, LocalDateTime, Calendar, RichTextString으로 쓰고, 그 외에는 toString()으로 쓴다.
+     * 이미 CellController로 작업 중인 Cell에 쓰면, 해당 CellController의 변경 사항이 나중에 반영되면서 덮어쓸 수 있다.
+     * @param startRowIndex 처음 쓸 Row의 번호(0부터 시작).
+     * @param rows 쓸 Row들, Row 하나는 Column 순서의 값 배열
+     * @param columnStyles Column별 스타일, 부족하거나 null인 Column은 스타일을 설정하지 않는다.
+     * @return 현재 인스턴스(ExcelContoller)
+     */
+    public ExcelContoller writeRows(int startRowIndex, Iterable<Object[]> rows, ColumnStyle... columnStyles){
+        return writeRows(startRowIndex, 0, rows, columnStyles);
+    }
+
+    /**
+     * 작업중인 Sheet에 여러 Row를 startColIndex부터 한 번에 쓴다.
+     * @param startRowIndex 처음 쓸 Row의 번호(0부터 시작).
+     * @param startColIndex 처음 쓸 Column의 번호(0부터 시작).
+     * @param rows 쓸 Row들, Row 하나는 Column 순서의 값 배열
+     * @param columnStyles Column별 스타일(startColIndex부터), 부족하거나 null인 Column은 스타일을 설정하지 않는다.
+     * @return 현재 인스턴스(ExcelContoller)
+     * @see #writeRows(int, Iterable, ColumnStyle...)
+     */
+    public ExcelContoller writeRows(int startRowIndex, int startColIndex, Iterable<Object[]> rows, ColumnStyle... columnStyles){
+        workSheetContext.writeRows(startRowIndex, startColIndex, rows.iterator(), columnStyles);
+        return this;
+    }
 
-        if(cellControllerMap.containsKey(cellControllerKey)){
-            return cellControllerMap.get(cellControllerKey);
+    /**
+     * 작업중인 Sheet에 Stream의 Row들을 한 번에 쓴다.
+     * Row를 하나씩 꺼내 쓰므로, Streaming 모드와 함께 사용하면 전체 데이터를 메모리에 올리지 않는다.
+     * @param startRowIndex 처음 쓸 Row의 번호(0부터 시작).
+     * @param rows 쓸 Row들, Row 하나는 Column 순서의 값 배열
+     * @param columnStyles Column별 스타일, 부족하거나 null인 Column은 스타일을 설정하지 않는다.
+     * @return 현재 인스턴스(ExcelContoller)
+     * @see #writeRows(int, Iterable, ColumnStyle...)
+     */
+    public ExcelContoller writeRows(int startRowIndex, Stream<Object[]> rows, ColumnStyle... columnStyles){
+        workSheetContext.writeRows(startRowIndex, 0, rows.iterator(), columnStyles);
+        return this;
+    }
+
+    /**
+     * 작업중인 Sheet에 &#64;ExcelColumn이 붙은 객체들을 Header Row와 데이터 Row로 쓴다.
+     * Column은 &#64;ExcelColumn의 order 순서이며, header, width, format이 Header Row, Column Width, 데이터 Cell의 표현형식으로 적용된다.
+     * 필드 값은 클래스마다 한 번 만들어 둔 접근자로 읽으므로, Row마다 리플렉션을 하지 않는다.
+     * 값은 writeRows()와 같은 방식으로 쓴다.
+     * @param startRowIndex Header Row의 번호(0부터 시작), 데이터는 다음 Row부터 쓴다.
+     * @param records 쓸 객체들
+     * @param type 객체의 타입
+     * @return 현재 인스턴스(ExcelContoller)
+     * @throws IllegalArgumentException type에 &#64;ExcelColumn이 붙은 필드가 없는 경우
+     */
+    public <T> ExcelContoller writeRecords(int startRowIndex, Iterable<? extends T> records, Class<T> type){
+        workSheetContext.writeRecords(startRowIndex, 0, records.iterator(), type);
+        return this;
+    }
+
+    /**
+     * 작업중인 Sheet에 Stream의 &#64;ExcelColumn이 붙은 객체들을 Header Row와 데이터 Row로 쓴다.
+     * 객체를 하나씩 꺼내 쓰므로, Streaming 모드와 함께 사용하면 전체 데이터를 메모리에 올리지 않는다.
+     * @param startRowIndex Header Row의 번호(0부터 시작), 데이터는 다음 Row부터 쓴다.
+     * @param records 쓸 객체들
+     * @param type 객체의 타입
+     * @return 현재 인스턴스(ExcelContoller)
+     * @see #writeRecords(int, Iterable, Class)
+     */
+    public <T> ExcelContoller writeRecords(int startRowIndex, Stream<? extends T> records, Class<T> type){
+        workSheetContext.writeRecords(startRowIndex, 0, records.iterator(), type);
+        return this;
+    }
+
+    /**
+     * 모든 Sheet에서 작업한 내용을 Workbook에 반영한다.
+     */
+    private void flushPendingCellControllers(){
+        for(SheetContext sheetContext : sheetContextList){
+            sheetContext.flushPendingCellControllers();
+        }
+    }
+
+    /**
+     * 모든 Sheet에서 Row Height, 이미지/첨부 파일 위치를 최종 Column Width로 계산한다.
+     * @throws IOException 파일, InputStream 공급자로 만든 이미지나 첨부 파일을 읽지 못한 경우
+     */
+    private void layoutPendingCellControllers() throws IOException{
+        try{
+            for(SheetContext sheetContext : sheetContextList){
+                sheetContext.layoutPendingCellControllers();
+            }
+        }catch(UncheckedIOException e){
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 모든 Sheet에서 자동 넓이를 설정한 Column의 Width를 변경한다.
+     */
+    private void applyColumnAutoFit(){
+        for(SheetContext sheetContext : sheetContextList){
+            sheetContext.applyColumnAutoFit();
+        }
+    }
+
+    /**
+     * 작업한 Workbook을 outputStream에 바로 쓴다.
+     * 파일 전체를 메모리에 만들지 않고, 만들어지는 대로 outputStream으로 내보낸다.(WriteProfile을 설정한 경우는 임시 파일에 만든 뒤 내보낸다.)
+     * outputStream은 닫지 않는다.
+     * 쓰기 전에 Column 자동 넓이를 적용하고, addText, addImage, addFile로 추가한 내용의 Row Height와 위치를 최종 Column Width로 한 번만 계산한다.
+     * @param outputStream Workbook을 쓸 OutputStream
+     * @throws IOException
+     */
+    public void write(OutputStream outputStream) throws IOException{
+        flushPendingCellControllers();
+        applyColumnAutoFit();
+        layoutPendingCellControllers(); // Column Width가 모두 정해진 뒤 한 번에 배치한다.
+        final long writeStartNanos = System.nanoTime();
+        final ExcelMetrics.CountingOutputStream countingOutputStream = excelMetrics != null ? new ExcelMetrics.CountingOutputStream(outputStream) : null;
+        final OutputStream targetOutputStream = countingOutputStream != null ? countingOutputStream : outputStream;
+        if(writeProfile != null && !isStreaming()){
+            writeWithProfile(targetOutputStream);
         }else{
-            workRow = workSheet.getRow(rowIndex);
-            if(workRow == null){
-                workRow = workSheet.createRow(rowIndex);
+            getOutputWorkbook().write(targetOutputStream);
+        }
+        targetOutputStream.flush();
+        if(excelMetrics != null){
+            excelMetrics.record(workbookContext, workbookContext.getExportStats(), getCreatedCellCount(),
+                writeStartNanos - createdNanos, System.nanoTime() - writeStartNanos, countingOutputStream.getCount());
+        }
+    }
+
+    /**
+     * 모든 Sheet에서 새로 만든 Cell의 수를 반환한다.
+     */
+    private long getCreatedCellCount(){
+        long createdCellCount = 0;
+        for(SheetContext sheetContext : sheetContextList){
+            createdCellCount += sheetContext.getCreatedCellCount();
+        }
+        return createdCellCount;
+    }
+
+    /**
+     * WriteProfile의 압축 설정으로 Workbook을 쓴다.
+     * STORED Entry의 크기와 CRC를 나중에 고칠 수 있도록 임시 파일에 쓴 뒤 outputStream으로 내보낸다.(파일 전체를 Heap에 들고 있지 않는다.)
+     */
+    private void writeWithProfile(OutputStream outputStream) throws IOException{
+        Path spoolFile = Files.createTempFile("poi-write-", ".xlsx");
+        try{
+            Set<String> storedEntryNameSet = workbookContext.getPictureRegistry().getPrecompressedEntryNameSet();
+            FileChannel channel = FileChannel.open(spoolFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try(ProfiledZipArchiveOutputStream zipOutputStream = new ProfiledZipArchiveOutputStream(channel, writeProfile, storedEntryNameSet)){
+                workbook.write(zipOutputStream); // ZipPackage는 ZipArchiveOutputStream을 그대로 사용한다.
+            }finally{
+                channel.close(); // ZipArchiveOutputStream 생성이 실패한 경우
             }
-            workCell = workRow.createCell(colIndex);
-            cellController = new CellController(workCell, imageIndexMap, embeddedFileIndexMap);
-            cellControllerMap.put(cellControllerKey, cellController);
-            return cellController;
+            Files.copy(spoolFile, outputStream);
+        }finally{
+            Files.deleteIfExists(spoolFile);
         }
     }
 
@@ -232,7 +607,7 @@ public class ExcelContoller{
      */
     public ByteArrayOutputStream getByteArrayOutputStream() throws IOException{
         ByteArrayOutputStream result = new ByteArrayOutputStream();
-        workbook.write(result);
+        write(result);
         return result;
     }
 
@@ -258,10 +633,26 @@ public class ExcelContoller{
 
     /**
      * Workbook을 close한다.
+     * Streaming 모드에서는 임시 파일도 삭제한다.
+     * 여러 번 호출해도 한 번만 close한다.
      * @throws IOException
      */
     public void close() throws IOException{
-        workbook.close();
+        if(!closed.compareAndSet(false, true)){
+            return; // getStreamingResponseBodyAndClose()의 정리 작업과 StreamingResponseBody가 모두 호출할 수 있다.
+        }
+        for(SheetContext sheetContext : sheetContextList){
+            sheetContext.clear();
+        }
+        if(isStreaming()){
+            try{
+                streamingWorkbook.close();
+            }finally{
+                streamingWorkbook.dispose();
+            }
+        }else{
+            workbook.close();
+        }
     }
 
     /**
@@ -271,9 +662,8 @@ public class ExcelContoller{
      * @throws IOException
      */
     public ByteArrayOutputStream getByteArrayOutputStreamAndClose() throws IOException{
-        ByteArrayOutputStream result = new ByteArrayOutputStream();
-        workbook.write(result);
-        workbook.close();
+        ByteArrayOutputStream result = getByteArrayOutputStream();
+        close();
         return result;
     }
 
@@ -285,7 +675,7 @@ public class ExcelContoller{
      */
     public byte[] getByteArrayAndClose() throws IOException{
         ByteArrayOutputStream byteArrayOutputStream = getByteArrayOutputStream();
-        workbook.close();
+        close();
         return byteArrayOutputStream.toByteArray();
     }
 
@@ -297,10 +687,36 @@ public class ExcelContoller{
      */
     public Resource getResourceAndClose() throws IOException{
         ByteArrayOutputStream byteArrayOutputStream = getByteArrayOutputStream();
-        workbook.close();
+        close();
         return new ByteArrayResource(byteArrayOutputStream.toByteArray());
     }
 
+    /**
+     * 작업한 Workbook을 응답(OutputStream)에 바로 쓰는 StreamingResponseBody를 반환하고,
+     * 쓰기가 끝나면 Workbook을 close한다.
+     * 파일 전체를 byte[]로 복사하지 않으므로, 큰 파일도 메모리에 한 번 더 올라가지 않는다.
+     * 요청 처리 스레드에서 호출하면, StreamingResponseBody가 실행되지 않고 비동기 요청이 끝나도(타임아웃, 오류) Workbook을 close한다.
+     * @return 작업한 Workbook을 응답에 쓰는 StreamingResponseBody를 반환한다.
+     */
+    public StreamingResponseBody getStreamingResponseBodyAndClose(){
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if(requestAttributes instanceof ServletRequestAttributes){
+            WebAsyncUtils.getAsyncManager(((ServletRequestAttributes) requestAttributes).getRequest()).registerCallableInterceptor(this, new CallableProcessingInterceptor(){
+                @Override
+                public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) throws IOException{
+                    close();
+                }
+            });
+        }
+        return outputStream -> {
+            try{
+                write(outputStream);
+            }finally{
+                close();
+            }
+        };
+    }
+
     /**
      * Cell을 Merge한다.
      * @param startRowIndex 시작 Row Index(0부터 시작)
@@ -310,7 +726,7 @@ public class ExcelContoller{
      * @return 현재 인스턴스(ExcelController)
      */
     public ExcelContoller mergedRegion(int startRowIndex, int endRowIndex, int startColIndex, int endColInex){
-        workSheet.addMergedRegion(new CellRangeAddress(startRowIndex, endRowIndex, startColIndex, endColInex));
+        workSheetContext.addMergedRegion(new CellRangeAddress(startRowIndex, endRowIndex, startColIndex, endColInex));
         return this;
     }
 
@@ -323,7 +739,7 @@ public class ExcelContoller{
      * @return Mearge된 영역의 Cell을 조정할 수 있는 CellController 인스턴스를 반환한다.
      */
     public CellController mergedRegionAndSelect(int startRowIndex, int endRowIndex, int startColIndex, int endColInex){
-        workSheet.addMergedRegion(new CellRangeAddress(startRowIndex, endRowIndex, startColIndex, endColInex));
+        workSheetContext.addMergedRegion(new CellRangeAddress(startRowIndex, endRowIndex, startColIndex, endColInex));
         return selectCell(startRowIndex, startColIndex);
     }
 
@@ -334,7 +750,7 @@ public class ExcelContoller{
      * @return 현재 인스턴스(ExcelController)
      */
     public ExcelContoller mergedRegion(String startCell, String endCell){
-        workSheet.addMergedRegion(CellRangeAddress.valueOf(startCell + ":" + endCell));
+        workSheetContext.addMergedRegion(CellRangeAddress.valueOf(startCell + ":" + endCell));
         return this;
     }
 }
@@ -0,0 +1,109 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * ExcelContoller의 출력 단계별 시간과 Workbook 크기를 Micrometer로 발행한다.(ExcelContoller.setMetrics() 참고)
+ * 모든 Meter에는 export Tag(보고서 이름)가 붙으며, 시간은 p50/p95/p99와 Histogram을 함께 발행한다.
+ * <pre>
+ * poi.export.build            : ExcelContoller 생성부터 write() 시작까지(Cell 작성)
+ * poi.export.text.measure     : Text 줄 수 계산에 걸린 시간의 합
+ * poi.export.picture.register : 이미지 등록(중복 확인, Part 저장)에 걸린 시간의 합
+ * poi.export.embedded.register: 첨부 파일(OLE) 등록에 걸린 시간의 합
+ * poi.export.write            : write()(압축 포함)
+ * poi.export.output.bytes     : 출력 크기
+ * poi.export.cells, poi.export.styles, poi.export.fonts, poi.export.pictures, poi.export.embedded.files : Workbook별 개수
+ * </pre>
+ */
+public final class ExcelMetrics {
+    public static final String METRIC_PREFIX = "poi.export";
+    public static final String EXPORT_TAG = "export";
+
+    private final MeterRegistry meterRegistry;
+    private final Tags tags;
+
+    /**
+     * @param meterRegistry 발행할 MeterRegistry
+     * @param exportName export Tag 값(보고서 이름), 값의 종류가 많지 않아야 한다.
+     */
+    public ExcelMetrics(MeterRegistry meterRegistry, String exportName){
+        this.meterRegistry = meterRegistry;
+        this.tags = Tags.of(EXPORT_TAG, exportName);
+    }
+
+    /**
+     * Workbook 하나의 출력 결과를 발행한다.
+     * @param workbookContext 출력한 Workbook의 공유 자원(스타일, 이미지 수)
+     * @param exportStats 단계별 시간
+     * @param cellCount 작성한 Cell의 수
+     * @param buildNanos ExcelContoller 생성부터 write() 시작까지의 시간
+     * @param writeNanos write()에 걸린 시간
+     * @param outputBytes 출력 크기
+     */
+    void record(WorkbookContext workbookContext, ExportStats exportStats, long cellCount, long buildNanos, long writeNanos, long outputBytes){
+        timer("build").record(buildNanos, TimeUnit.NANOSECONDS);
+        timer("write").record(writeNanos, TimeUnit.NANOSECONDS);
+        timer("text.measure").record(exportStats.getTextMeasureNanos(), TimeUnit.NANOSECONDS);
+        timer("picture.register").record(exportStats.getPictureRegisterNanos(), TimeUnit.NANOSECONDS);
+        timer("embedded.register").record(exportStats.getEmbeddedFileRegisterNanos(), TimeUnit.NANOSECONDS);
+
+        summary("output.bytes", "bytes").record(outputBytes);
+        summary("cells", "cells").record(cellCount);
+        synchronized(workbookContext.getLock()){
+            summary("styles", "styles").record(workbookContext.getStyleRegistry().getCellStyleCount());
+            summary("fonts", "fonts").record(workbookContext.getStyleRegistry().getFontCount());
+            summary("pictures", "pictures").record(workbookContext.getPictureRegistry().getPictureCount());
+            summary("embedded.files", "files").record(workbookContext.getPictureRegistry().getEmbeddedFileCount());
+        }
+    }
+
+    private Timer timer(String name){
+        return Timer.builder(METRIC_PREFIX + "." + name)
+            .tags(tags)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry); // 이미 등록된 Meter가 있으면 그 Meter를 반환한다.
+    }
+
+    private DistributionSummary summary(String name, String baseUnit){
+        return DistributionSummary.builder(METRIC_PREFIX + "." + name)
+            .tags(tags)
+            .baseUnit(baseUnit)
+            .register(meterRegistry);
+    }
+
+    /**
+     * 출력 크기를 세는 OutputStream.
+     */
+    static class CountingOutputStream extends FilterOutputStream {
+        private long count = 0;
+
+        CountingOutputStream(OutputStream outputStream){
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException{
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException{
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount(){
+            return count;
+        }
+    }
+}
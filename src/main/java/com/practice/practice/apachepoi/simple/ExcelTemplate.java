@@ -0,0 +1,91 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * 한 번 만들어 두고 요청마다 복사해서 사용하는 Workbook 템플릿.
+ * Header, Column Width, 스타일, 로고 이미지처럼 요청마다 같은 부분을 미리 만들어 직렬화해 두고,
+ * newExcelContoller()로 복사본을 열어 데이터만 채운다.
+ * 복사본은 템플릿의 CellStyle, Font, 이미지를 재사용하므로 요청마다 스타일을 다시 만들지 않는다.
+ * 템플릿은 변경되지 않으므로 여러 스레드에서 함께 사용할 수 있다.(애플리케이션 시작 시 한 번 만들어 재사용)
+ */
+public final class ExcelTemplate {
+    private final byte[] templateByteArray;
+
+    private ExcelTemplate(byte[] templateByteArray){
+        this.templateByteArray = templateByteArray;
+    }
+
+    /**
+     * ExcelContoller로 템플릿을 작성한다.
+     * @param templateBuildTask 템플릿을 꾸미는 작업
+     * @return 작성된 템플릿
+     * @throws IOException
+     */
+    public static ExcelTemplate build(TemplateBuildTask templateBuildTask) throws IOException{
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            templateBuildTask.build(excelContoller);
+            return new ExcelTemplate(excelContoller.getByteArray());
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    /**
+     * xlsx 파일로 템플릿을 만든다.
+     * @param inputStream xlsx 파일 내용(닫지 않는다)
+     * @return 템플릿
+     * @throws IOException xlsx 파일이 아닌 경우
+     */
+    public static ExcelTemplate of(InputStream inputStream) throws IOException{
+        return of(IOUtils.toByteArray(inputStream));
+    }
+
+    /**
+     * xlsx 파일로 템플릿을 만든다.
+     * @param templateByteArray xlsx 파일 내용
+     * @return 템플릿
+     * @throws IOException xlsx 파일이 아닌 경우
+     */
+    public static ExcelTemplate of(byte[] templateByteArray) throws IOException{
+        byte[] copiedByteArray = templateByteArray.clone();
+        try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(copiedByteArray))){
+            // 요청 시점이 아니라 템플릿을 만들 때 잘못된 파일을 알 수 있도록 한 번 열어본다.
+        }
+        return new ExcelTemplate(copiedByteArray);
+    }
+
+    /**
+     * 템플릿의 복사본으로 ExcelContoller를 생성한다.(일반 XSSFWorkbook 모드)
+     * @return 템플릿의 복사본을 조정하는 ExcelContoller
+     * @throws IOException
+     */
+    public ExcelContoller newExcelContoller() throws IOException{
+        return newExcelContoller(0);
+    }
+
+    /**
+     * 템플릿의 복사본으로 ExcelContoller를 생성한다.
+     * Streaming 모드에서는 템플릿에 이미 있는 Row를 다시 선택할 수 없으므로, 템플릿의 마지막 Row 다음부터 작업해야 한다.
+     * @param rowAccessWindowSize 메모리에 유지할 Row의 수(0 이하이면 일반 XSSFWorkbook 모드)
+     * @return 템플릿의 복사본을 조정하는 ExcelContoller
+     * @throws IOException
+     */
+    public ExcelContoller newExcelContoller(int rowAccessWindowSize) throws IOException{
+        return new ExcelContoller(new XSSFWorkbook(new ByteArrayInputStream(templateByteArray)), rowAccessWindowSize);
+    }
+
+    /**
+     * 템플릿 xlsx 파일의 크기를 반환한다.
+     * @return 템플릿 xlsx 파일의 크기(byte)
+     */
+    public int getSize(){
+        return templateByteArray.length;
+    }
+}
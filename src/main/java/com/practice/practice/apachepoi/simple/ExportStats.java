@@ -0,0 +1,38 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Workbook 하나를 만드는 동안 단계별로 걸린 시간을 모은다.(ExcelMetrics가 write() 시점에 발행)
+ * 여러 Sheet를 동시에 채울 수 있으므로 LongAdder로 더한다.
+ * ExcelContoller.setMetrics()를 호출한 경우에만 WorkbookContext에 설정되며, 설정되지 않으면 시간을 재지 않는다.
+ */
+final class ExportStats {
+    private final LongAdder textMeasureNanos = new LongAdder();
+    private final LongAdder pictureRegisterNanos = new LongAdder();
+    private final LongAdder embeddedFileRegisterNanos = new LongAdder();
+
+    void addTextMeasureNanos(long nanos){
+        textMeasureNanos.add(nanos);
+    }
+
+    void addPictureRegisterNanos(long nanos){
+        pictureRegisterNanos.add(nanos);
+    }
+
+    void addEmbeddedFileRegisterNanos(long nanos){
+        embeddedFileRegisterNanos.add(nanos);
+    }
+
+    long getTextMeasureNanos(){
+        return textMeasureNanos.sum();
+    }
+
+    long getPictureRegisterNanos(){
+        return pictureRegisterNanos.sum();
+    }
+
+    long getEmbeddedFileRegisterNanos(){
+        return embeddedFileRegisterNanos.sum();
+    }
+}
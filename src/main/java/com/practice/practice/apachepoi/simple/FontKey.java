@@ -0,0 +1,35 @@
+package com.practice.practice.apachepoi.simple;
+
+import org.apache.poi.xssf.usermodel.XSSFFont;
+
+import lombok.AccessLevel;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Font를 공유하기 위한 Key.
+ * 폰트 이름, 크기, 색상, 굵기로 구성된다.
+ * 불변 객체이며, 속성을 변경하면 새로운 FontKey를 반환한다.
+ */
+@Value
+@With(AccessLevel.PACKAGE)
+class FontKey {
+    String fontName;
+    short fontPoint;
+    int color; // RGB, 없으면 StyleKey.NO_COLOR
+    boolean bold;
+
+    /**
+     * 이미 만들어진 XSSFFont의 속성으로 FontKey를 생성한다.
+     * @param font
+     * @return XSSFFont의 속성으로 만든 FontKey
+     */
+    static FontKey of(XSSFFont font){
+        return new FontKey(
+            font.getFontName(),
+            font.getFontHeightInPoints(),
+            StyleKey.toRgb(font.getXSSFColor()),
+            font.getBold()
+        );
+    }
+}
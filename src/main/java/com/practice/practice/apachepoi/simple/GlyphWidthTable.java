@@ -0,0 +1,180 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineMetrics;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 글자별 넓이(advance, pixel) 표.
+ * (폰트 이름, 폰트 포인트, 굵기)마다 한 번만 만들어 프로세스 전체에서 공유한다.
+ * BMP 글자 전체(0x0000 ~ 0xFFFF)의 넓이를 float[]에 미리 계산해 두므로, 조회는 분기 없이 배열 접근 한 번이다.
+ * 서버에 해당 폰트가 설치되어 있으면 실제 폰트 메트릭(AWT)을 사용하고,
+ * 설치되어 있지 않거나 폰트에 없는 글자는 기존의 글자 종류별 비율(한글 한 글자 = 폰트 픽셀)로 계산한다.
+ */
+class GlyphWidthTable {
+    private static final int GLYPH_COUNT = 0x10000;
+    private static final int CHUNK_SIZE = 4096;
+    private static final Map<String, GlyphWidthTable> CACHE = new ConcurrentHashMap<>();
+
+    private final float[] advances;
+    private final int lineHeightPixel;
+    private final boolean isFontMetrics;
+
+    private GlyphWidthTable(float[] advances, int lineHeightPixel, boolean isFontMetrics){
+        this.advances = advances;
+        this.lineHeightPixel = lineHeightPixel;
+        this.isFontMetrics = isFontMetrics;
+    }
+
+    /**
+     * (폰트 이름, 폰트 포인트, 굵기)에 해당하는 GlyphWidthTable을 반환한다.
+     * 처음 요청될 때 한 번만 만든다.
+     * @param fontName 폰트 이름
+     * @param fontPoint 폰트 포인트
+     * @param bold 굵게 여부
+     * @return (폰트 이름, 폰트 포인트, 굵기)에 해당하는 GlyphWidthTable을 반환한다.
+     */
+    static GlyphWidthTable of(String fontName, int fontPoint, boolean bold){
+        final String name = fontName == null ? UnitConverter.BASE_FONT_NAME : fontName;
+        return CACHE.computeIfAbsent(name + "|" + fontPoint + "|" + bold, key -> create(name, fontPoint, bold));
+    }
+
+    /**
+     * 글자의 넓이를 pixel로 반환한다.
+     * @param c
+     * @return 글자의 넓이(pixel)
+     */
+    float getAdvance(char c){
+        return advances[c];
+    }
+
+    /**
+     * 한 줄의 높이를 pixel로 반환한다.
+     * @return 한 줄의 높이(pixel)
+     */
+    int getLineHeightPixel(){
+        return lineHeightPixel;
+    }
+
+    /**
+     * 실제 폰트 메트릭으로 만든 표인지 반환한다.
+     * @return 실제 폰트 메트릭으로 만든 표이면 true, 글자 종류별 비율로 만든 표이면 false
+     */
+    boolean isFontMetrics(){
+        return isFontMetrics;
+    }
+
+    /**
+     * text의 넓이를 pixel로 반환한다.(줄 바꿈은 고려하지 않는다.)
+     * @param text
+     * @return text의 넓이(pixel)
+     */
+    float getWidth(CharSequence text){
+        float width = 0f;
+        for(int i = 0; i < text.length(); i++){
+            width += advances[text.charAt(i)];
+        }
+        return width;
+    }
+
+    /**
+     * text에서 가장 넓은 줄의 넓이를 pixel로 반환한다.(줄 바꿈 문자로 나눈 줄, Column Width에 의한 줄 바꿈은 고려하지 않는다.)
+     * @param text
+     * @return 가장 넓은 줄의 넓이(pixel)
+     */
+    float getMaxLineWidth(CharSequence text){
+        float maxWidth = 0f;
+        float lineWidth = 0f;
+        for(int i = 0; i < text.length(); i++){
+            final char c = text.charAt(i);
+            if(c == '\n' || c == '\r'){
+                maxWidth = Math.max(maxWidth, lineWidth);
+                lineWidth = 0f;
+            }else{
+                lineWidth += advances[c];
+            }
+        }
+        return Math.max(maxWidth, lineWidth);
+    }
+
+    private static GlyphWidthTable create(String fontName, int fontPoint, boolean bold){
+        final int fontPixel = UnitConverter.pointToPixel(fontPoint);
+        final float[] advances = new float[GLYPH_COUNT];
+        for(int c = 0; c < GLYPH_COUNT; c++){
+            advances[c] = (float)(getCharacterWidthRatio((char) c) * fontPixel);
+        }
+
+        final Integer baseLineHeightPixel = UnitConverter.BASE_FONT_NAME.equals(fontName)
+            ? UnitConverter.CHARACTER_HEIGHT_PIXEL_MAP.get(fontPoint)
+            : null;
+
+        try{
+            final Font font = new Font(fontName, bold ? Font.BOLD : Font.PLAIN, 1)
+                .deriveFont((float)(fontPoint * UnitConverter.POINT_PER_PIXEL));
+            if(!isInstalled(font, fontName)){
+                return new GlyphWidthTable(advances, getLineHeightPixel(baseLineHeightPixel, fontPixel), false);
+            }
+
+            final FontRenderContext fontRenderContext = new FontRenderContext(null, true, true);
+            final char[] chunk = new char[CHUNK_SIZE];
+            for(int start = 0; start < GLYPH_COUNT; start += CHUNK_SIZE){
+                for(int i = 0; i < CHUNK_SIZE; i++){
+                    chunk[i] = (char)(start + i);
+                }
+                final GlyphVector glyphVector = font.createGlyphVector(fontRenderContext, chunk);
+                for(int i = 0; i < CHUNK_SIZE; i++){
+                    final char c = chunk[i];
+                    if(!Character.isSurrogate(c) && font.canDisplay(c)){
+                        advances[c] = glyphVector.getGlyphMetrics(i).getAdvance();
+                    }
+                }
+            }
+
+            final LineMetrics lineMetrics = font.getLineMetrics("가A", fontRenderContext);
+            final int metricsLineHeightPixel = (int) Math.ceil(lineMetrics.getAscent() + lineMetrics.getDescent() + lineMetrics.getLeading());
+            return new GlyphWidthTable(advances, baseLineHeightPixel != null ? baseLineHeightPixel : metricsLineHeightPixel, true);
+        }catch(RuntimeException | LinkageError e){ // 폰트 설정이 없는 환경(headless 등)
+            return new GlyphWidthTable(advances, getLineHeightPixel(baseLineHeightPixel, fontPixel), false);
+        }
+    }
+
+    /**
+     * AWT가 fontName의 폰트를 찾지 못하면 논리 폰트(Dialog)로 대체하므로, 실제로 설치된 폰트인지 확인한다.
+     */
+    private static boolean isInstalled(Font font, String fontName){
+        return fontName.equalsIgnoreCase(font.getFamily())
+            || fontName.equalsIgnoreCase(font.getFamily(Locale.ROOT))
+            || fontName.equalsIgnoreCase(font.getFontName());
+    }
+
+    private static int getLineHeightPixel(Integer baseLineHeightPixel, int fontPixel){
+        return baseLineHeightPixel != null ? baseLineHeightPixel : (int) Math.ceil(fontPixel * 1.35);
+    }
+
+    /**
+     * 폰트 메트릭을 사용할 수 없을 때, 글자의 넓이를 폰트 픽셀 대비 비율(한글 한 글자 = 1)로 반환한다.
+     * @param c
+     * @return 글자의 넓이 비율
+     */
+    private static double getCharacterWidthRatio(char c){
+        if(c == '"' || c == '\'' || c == '.' || c == ','){
+            return 0d;
+        }else if(c == 'l' || c == 'i' || c == 'j'){
+            return 0.25;
+        }else if(c == '(' || c == ')' || c == '{' || c == '}' || c == '[' || c == ']' || c == '!' || c == 'f' || c == 't' || c == 'I'){
+            return 0.3333;
+        }else if(c == ' ' || c == '-' || c == '_' || c == '*' ||  Character.isDigit(c) || (c >= 'a' && c <= 'z')){
+            return 0.5;
+        }else if(c >= 'A' && c <= 'Z'){
+            return 0.8;
+        }else if(c == '\n' || c == '\r'){
+            return 0d;
+        }else{
+            return 1d;
+        }
+    }
+}
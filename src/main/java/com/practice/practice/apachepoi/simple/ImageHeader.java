@@ -0,0 +1,58 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.awt.Dimension;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+/**
+ * 이미지의 헤더만 읽어 크기(px)를 구한다.
+ * ImageIO.read()와 달리 픽셀을 디코딩하지 않으므로, 큰 이미지도 메모리를 거의 사용하지 않는다.
+ */
+final class ImageHeader {
+    private ImageHeader(){
+    }
+
+    /**
+     * 이미지의 크기(px)를 반환한다.
+     * @param imageByteArray 이미지 내용
+     * @return 이미지의 크기(px), 읽을 수 있는 이미지가 아니면 null
+     * @throws IOException
+     */
+    static Dimension readSize(byte[] imageByteArray) throws IOException{
+        return readSize(new ByteArrayInputStream(imageByteArray));
+    }
+
+    /**
+     * 이미지의 크기(px)를 반환한다.
+     * 헤더를 읽는 데 필요한 만큼만 inputStream에서 읽으므로, 큰 파일도 전부 읽지 않는다.
+     * @param inputStream 이미지 내용(닫지 않는다)
+     * @return 이미지의 크기(px), 읽을 수 있는 이미지가 아니면 null
+     * @throws IOException
+     */
+    static Dimension readSize(InputStream inputStream) throws IOException{
+        // ImageIO.createImageInputStream()은 설정에 따라 임시 파일을 만들 수 있으므로 메모리 스트림을 직접 사용한다.
+        try(ImageInputStream imageInputStream = new MemoryCacheImageInputStream(inputStream)){
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+            while(readers.hasNext()){
+                ImageReader reader = readers.next();
+                try{
+                    imageInputStream.seek(0);
+                    reader.setInput(imageInputStream, true, true);
+                    return new Dimension(reader.getWidth(0), reader.getHeight(0));
+                }catch(IOException e){
+                    // 다음 reader로 시도한다.
+                }finally{
+                    reader.dispose();
+                }
+            }
+            return null;
+        }
+    }
+}
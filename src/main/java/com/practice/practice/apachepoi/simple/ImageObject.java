@@ -1,30 +1,194 @@
 package com.practice.practice.apachepoi.simple;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import java.awt.Dimension;
 import java.awt.Image;
 import javax.imageio.ImageIO;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import javax.imageio.IIOException;
 
 @Getter
 public class ImageObject {
-    private byte[] imageByteArray;
+    @Getter(AccessLevel.PACKAGE)
+    private ContentSource contentSource;
     private ImageFormatEnum imageFormatEnum;
     private String imageKey;
+    @Getter(AccessLevel.NONE)
     private Image image;
+    @Getter(AccessLevel.NONE)
+    private int width = -1;
+    @Getter(AccessLevel.NONE)
+    private int height = -1;
     
-    public ImageObject(byte[] imageByteArray, ImageFormatEnum imageFormatEnum, String imageKey) throws IOException{
-        this.imageByteArray = imageByteArray;
+    /**
+     * 이미지 내용으로 ImageObject를 생성한다.
+     * 이미지를 읽지 않으며, 크기는 getWidth()/getHeight()가 처음 호출될 때 헤더만 읽어 구한다.
+     * @param imageByteArray
+     * @param imageFormatEnum
+     * @param imageKey
+     */
+    public ImageObject(byte[] imageByteArray, ImageFormatEnum imageFormatEnum, String imageKey){
+        this(ContentSource.of(imageByteArray), imageFormatEnum, imageKey);
+    }
+
+    /**
+     * 이미지 파일로 ImageObject를 생성한다.
+     * 파일을 Heap에 읽어 두지 않고, Workbook에 저장할 때 파일에서 이미지 Part로 바로 복사한다.
+     * 중복 확인(해시, 비교)은 파일을 메모리 매핑해서 하므로 Heap을 사용하지 않는다.
+     * @param imagePath 이미지 파일
+     * @param imageFormatEnum
+     * @param imageKey
+     */
+    public ImageObject(Path imagePath, ImageFormatEnum imageFormatEnum, String imageKey){
+        this(ContentSource.of(imagePath), imageFormatEnum, imageKey);
+    }
+
+    /**
+     * 이미지 내용이 담긴 ByteBuffer(MappedByteBuffer 등)로 ImageObject를 생성한다.
+     * ByteBuffer의 position부터 limit까지를 내용으로 사용하며, 이후 ByteBuffer의 내용을 변경하면 안 된다.
+     * @param imageByteBuffer 이미지 내용
+     * @param imageFormatEnum
+     * @param imageKey
+     */
+    public ImageObject(ByteBuffer imageByteBuffer, ImageFormatEnum imageFormatEnum, String imageKey){
+        this(ContentSource.of(imageByteBuffer), imageFormatEnum, imageKey);
+    }
+
+    /**
+     * 이미지를 읽을 InputStream 공급자로 ImageObject를 생성한다.
+     * 내용이 필요할 때마다(크기, 중복 확인, Workbook에 저장) 새 InputStream을 열며, 내용을 Heap에 들고 있지 않는다.
+     * @param imageSupplier 이미지를 읽을 InputStream 공급자
+     * @param imageFormatEnum
+     * @param imageKey
+     */
+    public ImageObject(ContentSupplier imageSupplier, ImageFormatEnum imageFormatEnum, String imageKey){
+        this(ContentSource.of(imageSupplier), imageFormatEnum, imageKey);
+    }
+
+    private ImageObject(ContentSource contentSource, ImageFormatEnum imageFormatEnum, String imageKey){
+        this.contentSource = contentSource;
+        this.imageFormatEnum = imageFormatEnum;
+        this.imageKey = imageKey;
+    }
+
+    /**
+     * 크기(px)를 이미 알고 있는 이미지로 ImageObject를 생성한다.(ImageResampler의 결과 등)
+     * @param imageByteArray
+     * @param imageFormatEnum
+     * @param imageKey
+     * @param width 이미지의 너비(px)
+     * @param height 이미지의 높이(px)
+     */
+    ImageObject(byte[] imageByteArray, ImageFormatEnum imageFormatEnum, String imageKey, int width, int height){
+        this(ContentSource.of(imageByteArray), imageFormatEnum, imageKey);
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * PoiAssetCache의 이미지 자원으로 ImageObject를 생성한다.
+     * 자원의 byte[]를 복사하지 않고, 미리 구해 둔 크기를 사용하므로 이미지를 다시 읽지 않는다.
+     * @param asset PoiAssetCache의 이미지 자원
+     * @param imageFormatEnum
+     * @param imageKey
+     */
+    public ImageObject(PoiAsset asset, ImageFormatEnum imageFormatEnum, String imageKey){
+        if(!asset.isImage()){
+            throw new IllegalArgumentException("Asset is not an image: " + asset.getName());
+        }
+        this.contentSource = ContentSource.of(asset.getByteArray(), asset.getContentHash());
         this.imageFormatEnum = imageFormatEnum;
         this.imageKey = imageKey;
-        this.image = ImageIO.read(new ByteArrayInputStream(imageByteArray));
+        this.width = asset.getWidth();
+        this.height = asset.getHeight();
+    }
+
+    /**
+     * 이미지 내용을 byte[]로 반환한다.
+     * byte[]로 만든 ImageObject는 그 byte[]를 그대로 반환하고, 파일, ByteBuffer, InputStream 공급자로 만든 ImageObject는 호출할 때마다 새로 읽는다.
+     * @return 이미지 내용
+     */
+    public byte[] getImageByteArray(){
+        try{
+            return contentSource.toByteArray();
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 이미지 내용의 크기(byte)를 반환한다. 내용을 읽지 않는다.
+     * @return 이미지 내용의 크기(byte), 아직 읽지 않은 InputStream 공급자는 -1
+     */
+    public long getContentLength(){
+        return contentSource.getLength();
     }
 
+    /**
+     * 이미지의 너비(px)를 반환한다.
+     * 처음 호출될 때 이미지 헤더만 읽으며, 픽셀은 디코딩하지 않는다.
+     * @return 이미지의 너비(px)
+     */
     public int getWidth(){
-        return image.getWidth(null);
+        if(width < 0){
+            readSize();
+        }
+        return width;
     }
 
+    /**
+     * 이미지의 높이(px)를 반환한다.
+     * 처음 호출될 때 이미지 헤더만 읽으며, 픽셀은 디코딩하지 않는다.
+     * @return 이미지의 높이(px)
+     */
     public int getHeight(){
-        return image.getHeight(null);
+        if(height < 0){
+            readSize();
+        }
+        return height;
+    }
+
+    /**
+     * 디코딩된 이미지를 반환한다.
+     * 처음 호출될 때 이미지 전체를 디코딩하므로, 크기만 필요하면 getWidth()/getHeight()를 사용한다.
+     * @return 이미지
+     */
+    public Image getImage(){
+        if(image == null){
+            try(InputStream inputStream = contentSource.openStream()){
+                image = ImageIO.read(inputStream);
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }
+        return image;
+    }
+
+    private void readSize(){
+        try(InputStream inputStream = contentSource.openStream()){
+            Dimension size = ImageHeader.readSize(inputStream);
+            if(size == null){
+                throw new IIOException("Unsupported image: " + imageKey);
+            }
+            width = size.width;
+            height = size.height;
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 내용의 ContentHash를 반환한다.
+     * 처음 호출될 때 한 번만 계산한다.(파일, InputStream 공급자는 내용을 한 번 읽는다.)
+     * 같은 내용인지 빠르게 거르는 용도이며, 값이 같아도 내용이 같다는 보장은 없다.
+     * @return 내용의 ContentHash
+     */
+    public long getContentHash(){
+        return contentSource.getContentHash();
     }
-}
\ No newline at end of file
+}
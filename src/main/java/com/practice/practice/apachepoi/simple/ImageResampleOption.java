@@ -0,0 +1,66 @@
+package com.practice.practice.apachepoi.simple;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * CellController.addImage()로 추가하는 이미지를 표시 크기에 맞게 줄여서 저장하기 위한 설정.
+ * ExcelContoller.setImageResampleOption()으로 설정하며, 설정하지 않으면 원본 이미지를 그대로 저장한다.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class ImageResampleOption {
+    public static final float DEFAULT_JPEG_QUALITY = 0.85f;
+
+    private final ImageFormatEnum outputFormat; // PICTURE_TYPE_JPEG 또는 PICTURE_TYPE_PNG
+    private final float jpegQuality; // 0.0 ~ 1.0, outputFormat이 JPEG일 때만 사용
+    private final double pixelRatio; // 표시 크기(px) 대비 저장할 크기의 배율, HiDPI는 2
+
+    /**
+     * @param outputFormat 다시 인코딩할 형식(PICTURE_TYPE_JPEG 또는 PICTURE_TYPE_PNG)
+     * @param jpegQuality JPEG 품질(0.0 ~ 1.0)
+     * @param pixelRatio 표시 크기(px) 대비 저장할 크기의 배율(1 이상)
+     */
+    public ImageResampleOption(ImageFormatEnum outputFormat, float jpegQuality, double pixelRatio){
+        if(outputFormat != ImageFormatEnum.PICTURE_TYPE_JPEG && outputFormat != ImageFormatEnum.PICTURE_TYPE_PNG){
+            throw new IllegalArgumentException("Output format must be PICTURE_TYPE_JPEG or PICTURE_TYPE_PNG.");
+        }
+        if(jpegQuality < 0f || jpegQuality > 1f){
+            throw new IllegalArgumentException("JPEG quality must be between 0.0 and 1.0.");
+        }
+        if(pixelRatio < 1d){
+            throw new IllegalArgumentException("Pixel ratio must be greater than or equal to 1.");
+        }
+        this.outputFormat = outputFormat;
+        this.jpegQuality = jpegQuality;
+        this.pixelRatio = pixelRatio;
+    }
+
+    /**
+     * 표시 크기(px)의 JPEG로 다시 인코딩하는 설정을 반환한다.
+     * @param jpegQuality JPEG 품질(0.0 ~ 1.0)
+     * @return 표시 크기(px)의 JPEG로 다시 인코딩하는 설정
+     */
+    public static ImageResampleOption jpeg(float jpegQuality){
+        return new ImageResampleOption(ImageFormatEnum.PICTURE_TYPE_JPEG, jpegQuality, 1d);
+    }
+
+    /**
+     * 표시 크기(px)의 PNG로 다시 인코딩하는 설정을 반환한다.
+     * @return 표시 크기(px)의 PNG로 다시 인코딩하는 설정
+     */
+    public static ImageResampleOption png(){
+        return new ImageResampleOption(ImageFormatEnum.PICTURE_TYPE_PNG, DEFAULT_JPEG_QUALITY, 1d);
+    }
+
+    /**
+     * pixelRatio만 변경한 설정을 반환한다.
+     * @param pixelRatio 표시 크기(px) 대비 저장할 크기의 배율(1 이상), HiDPI는 2
+     * @return pixelRatio만 변경한 설정
+     */
+    public ImageResampleOption withPixelRatio(double pixelRatio){
+        return new ImageResampleOption(outputFormat, jpegQuality, pixelRatio);
+    }
+}
@@ -0,0 +1,205 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import lombok.Value;
+
+/**
+ * 이미지를 표시 크기(px)에 맞게 줄이고 ImageResampleOption의 형식으로 다시 인코딩한다.
+ * 결과는 (ContentHash, 저장할 크기)로 캐시하므로, 같은 이미지를 같은 크기로 여러 번 넣어도 한 번만 처리한다.
+ * 줄인 이미지의 byte[]는 ResampledImageCache로 다른 Workbook과도 공유하므로, 요청마다 같은 이미지를 다시 인코딩하지 않는다.
+ * Workbook 단위로 사용하며, 여러 Sheet를 동시에 채우는 스레드에서 함께 사용할 수 있다.
+ */
+class ImageResampler {
+    private final ImageResampleOption option;
+    private final Map<ResampleKey, ImageObject> resampledImageMap = new ConcurrentHashMap<>();
+    private final ResampledImageCache resampledImageCache = ResampledImageCache.getInstance();
+
+    ImageResampler(ImageResampleOption option){
+        this.option = option;
+    }
+
+    /**
+     * 표시 크기(px)에 맞게 줄인 이미지를 반환한다.
+     * 원본이 저장할 크기보다 작거나 같으면, 또는 줄인 결과가 원본보다 크면 원본을 그대로 반환한다.
+     * 벡터/기타 형식(EMF, WMF, PICT)이나 읽을 수 없는 이미지도 원본을 그대로 반환한다.
+     * @param imageObject 원본 이미지
+     * @param displayWidthPixel 표시 너비(px)
+     * @param displayHeightPixel 표시 높이(px)
+     * @return 표시 크기(px)에 맞게 줄인 이미지 또는 원본 이미지
+     */
+    ImageObject resample(ImageObject imageObject, int displayWidthPixel, int displayHeightPixel){
+        final ImageFormatEnum sourceFormat = imageObject.getImageFormatEnum();
+        if(sourceFormat != ImageFormatEnum.PICTURE_TYPE_JPEG && sourceFormat != ImageFormatEnum.PICTURE_TYPE_PNG && sourceFormat != ImageFormatEnum.PICTURE_TYPE_DIB){
+            return imageObject;
+        }
+        final int targetWidth = Math.max(1, (int)Math.ceil(displayWidthPixel * option.getPixelRatio()));
+        final int targetHeight = Math.max(1, (int)Math.ceil(displayHeightPixel * option.getPixelRatio()));
+        if(targetWidth >= imageObject.getWidth() || targetHeight >= imageObject.getHeight()){
+            return imageObject;
+        }
+        final ResampleKey resampleKey = new ResampleKey(imageObject.getContentHash(), targetWidth, targetHeight);
+        ImageObject resampledImageObject = resampledImageMap.get(resampleKey);
+        if(resampledImageObject == null){
+            // 인코딩은 오래 걸리므로 Map의 lock 밖에서 한다. 동시에 같은 이미지를 처리하면 먼저 저장된 결과를 사용한다.
+            resampledImageObject = resampleShared(imageObject, targetWidth, targetHeight);
+            ImageObject previous = resampledImageMap.putIfAbsent(resampleKey, resampledImageObject);
+            if(previous != null){
+                resampledImageObject = previous;
+            }
+        }
+        return resampledImageObject;
+    }
+
+    /**
+     * 다른 Workbook에서 같은 이미지를 같은 크기로 줄인 결과가 ResampledImageCache에 있으면 사용하고, 없으면 줄여서 보관한다.
+     */
+    private ImageObject resampleShared(ImageObject imageObject, int targetWidth, int targetHeight){
+        try{
+            final ResampledImageCache.Key cacheKey = ResampledImageCache.keyOf(imageObject, targetWidth, targetHeight, option);
+            byte[] byteArray = resampledImageCache.get(cacheKey);
+            if(byteArray == null){
+                byteArray = encode(imageObject, targetWidth, targetHeight);
+                resampledImageCache.put(cacheKey, byteArray == null ? ResampledImageCache.NOT_RESAMPLED : byteArray);
+            }
+            if(byteArray == null || byteArray == ResampledImageCache.NOT_RESAMPLED){
+                return imageObject;
+            }
+            return new ImageObject(byteArray, option.getOutputFormat(), imageObject.getImageKey(), targetWidth, targetHeight);
+        }catch(IOException e){
+            return imageObject; // 용량 최적화이므로 실패하면 원본을 사용한다.(일시적인 실패일 수 있으므로 캐시하지 않는다.)
+        }
+    }
+
+    /**
+     * 이미지를 저장할 크기로 줄여서 다시 인코딩한다.
+     * @return 줄인 이미지의 byte[], 읽을 수 없는 이미지이거나 원본보다 크면 null
+     */
+    private byte[] encode(ImageObject imageObject, int targetWidth, int targetHeight) throws IOException{
+        BufferedImage sourceImage = decode(imageObject, targetWidth, targetHeight);
+        if(sourceImage == null){
+            return null;
+        }
+        BufferedImage targetImage = scale(sourceImage, targetWidth, targetHeight);
+        byte[] byteArray = option.getOutputFormat() == ImageFormatEnum.PICTURE_TYPE_JPEG ? writeJpeg(targetImage) : writePng(targetImage);
+        if(byteArray == null || byteArray.length >= imageObject.getContentLength()){
+            return null;
+        }
+        return byteArray;
+    }
+
+    /**
+     * 이미지를 디코딩한다.
+     * 저장할 크기의 2배 이상 크면 ImageReader의 subsampling으로 필요한 만큼만 디코딩한다.
+     */
+    private static BufferedImage decode(ImageObject imageObject, int targetWidth, int targetHeight) throws IOException{
+        try(InputStream inputStream = imageObject.getContentSource().openStream();
+            ImageInputStream imageInputStream = new MemoryCacheImageInputStream(inputStream)
+        ){
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+            if(!readers.hasNext()){
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try{
+                reader.setInput(imageInputStream, true, true);
+                int subsampling = Math.min(reader.getWidth(0) / targetWidth, reader.getHeight(0) / targetHeight) / 2;
+                ImageReadParam readParam = reader.getDefaultReadParam();
+                if(subsampling > 1){
+                    readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, readParam);
+            }finally{
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 이미지를 저장할 크기로 줄인다.
+     * 한 번에 크게 줄이면 bilinear 보간의 품질이 떨어지므로, 절반씩 줄인 뒤 마지막에 저장할 크기로 맞춘다.
+     */
+    private BufferedImage scale(BufferedImage sourceImage, int targetWidth, int targetHeight){
+        final boolean isOpaque = option.getOutputFormat() == ImageFormatEnum.PICTURE_TYPE_JPEG;
+        BufferedImage image = sourceImage;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do{
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            image = draw(image, width, height, isOpaque);
+        }while(width != targetWidth || height != targetHeight);
+        return image;
+    }
+
+    private static BufferedImage draw(BufferedImage sourceImage, int width, int height, boolean isOpaque){
+        BufferedImage image = new BufferedImage(width, height, isOpaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        try{
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if(isOpaque){
+                graphics.setColor(Color.WHITE); // JPEG는 투명도가 없으므로 흰 배경에 그린다.
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(sourceImage, 0, 0, width, height, null);
+        }finally{
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private byte[] writeJpeg(BufferedImage image) throws IOException{
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if(!writers.hasNext()){
+            return null;
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try(ImageOutputStream imageOutputStream = new MemoryCacheImageOutputStream(byteArrayOutputStream)){
+            ImageWriteParam writeParam = writer.getDefaultWriteParam();
+            writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            writeParam.setCompressionQuality(option.getJpegQuality());
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(image, null, null), writeParam);
+        }finally{
+            writer.dispose();
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    private static byte[] writePng(BufferedImage image) throws IOException{
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        if(!ImageIO.write(image, "png", byteArrayOutputStream)){
+            return null;
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    @Value
+    private static class ResampleKey {
+        long contentHash;
+        int width;
+        int height;
+    }
+}
@@ -0,0 +1,212 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.poi.xssf.usermodel.XSSFPictureData;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Workbook 단위로 이미지(Workbook.addPicture())와 첨부 파일(Workbook.addOlePackage())을 내용 기준으로 공유하는 저장소.
+ * 내용의 64bit 해시(ContentHash)로 후보를 찾고, 길이와 내용을 비교해 같은 내용이면 기존 index를 재사용한다.
+ * 따라서 같은 내용을 다른 이름으로 넣어도 한 번만 저장되고, 같은 이름의 다른 내용은 각각 저장된다.
+ */
+class PictureRegistry {
+    private final XSSFWorkbook workbook;
+    private final Map<String, Integer> imageIndexMap = new HashMap<>(); // key: imageKey(사용자 지정), value: imageNumber(Workbook.addPicture())
+    private final Map<String, Integer> embeddedFileIndexMap = new HashMap<>(); // key: fileName(사용자 지정), value: embbedFileNumber(Workbook.addOlePackage())
+    private final Map<Long, List<ContentEntry>> pictureContentMap = new HashMap<>(); // key: ContentHash
+    private final Map<Long, List<ContentEntry>> embeddedFileContentMap = new HashMap<>(); // key: ContentHash
+    private final Map<ContentSource, Integer> pictureSourceIndexMap = new IdentityHashMap<>(); // 같은 ImageObject를 다시 추가하면 내용을 확인하지 않는다.
+    private final Map<ContentSource, Integer> embeddedFileSourceIndexMap = new IdentityHashMap<>(); // 같은 EmbeddedFile을 다시 추가하면 내용을 확인하지 않는다.
+    private final Set<String> precompressedEntryNameSet = new HashSet<>(); // 이미 압축된 내용(zip, JPEG 등)을 담은 첨부 파일 Part의 Entry 이름
+    private int pictureCount = 0;
+    private int embeddedFileCount = 0;
+
+    PictureRegistry(XSSFWorkbook workbook){
+        this.workbook = workbook;
+    }
+
+    /**
+     * Workbook에 이미 있는 이미지를 등록한다.(템플릿으로 연 Workbook 등)
+     * 같은 내용의 이미지를 추가하면 새로 저장하지 않고 기존 index를 사용한다.
+     */
+    void registExistingPictures() throws IOException{
+        List<XSSFPictureData> pictureList = workbook.getAllPictures();
+        for(int index = 0; index < pictureList.size(); index++){
+            XSSFPictureData pictureData = pictureList.get(index);
+            ContentSource contentSource = ContentSource.of(pictureData.getData());
+            int format = pictureData.getPictureType();
+            List<ContentEntry> entryList = pictureContentMap.computeIfAbsent(contentSource.getContentHash(), hash -> new ArrayList<>(1));
+            if(find(entryList, contentSource, format) == null){
+                entryList.add(new ContentEntry(contentSource, format, index));
+                pictureCount++;
+            }
+        }
+    }
+
+    /**
+     * 이미지를 등록하고 index를 반환한다.
+     * 같은 형식, 같은 내용의 이미지가 이미 등록되어 있으면 기존 index를 반환한다.
+     * @param imageKey 이미지 Key(사용자 지정)
+     * @param imageByteArray 이미지 내용
+     * @param imageFormat 이미지 형식, ImageFormatEnum.getValue()
+     * @param contentHash imageByteArray의 ContentHash
+     * @return 이미지 index(Workbook.addPicture())
+     * @throws IOException
+     */
+    int addPicture(String imageKey, byte[] imageByteArray, int imageFormat, long contentHash) throws IOException{
+        return addPicture(imageKey, ContentSource.of(imageByteArray, contentHash), imageFormat);
+    }
+
+    /**
+     * 이미지를 등록하고 index를 반환한다.
+     * 같은 ContentSource(같은 ImageObject)는 내용을 다시 확인하지 않고 기존 index를 반환하며,
+     * 다른 ContentSource라도 같은 형식, 같은 내용의 이미지가 이미 등록되어 있으면 기존 index를 반환한다.
+     * 새로 등록할 때만 내용을 읽어 이미지 Part에 저장한다.
+     * @param imageKey 이미지 Key(사용자 지정)
+     * @param contentSource 이미지 내용
+     * @param imageFormat 이미지 형식, ImageFormatEnum.getValue()
+     * @return 이미지 index(Workbook.addPicture())
+     * @throws IOException
+     */
+    int addPicture(String imageKey, ContentSource contentSource, int imageFormat) throws IOException{
+        Integer index = pictureSourceIndexMap.get(contentSource);
+        if(index == null){
+            List<ContentEntry> entryList = pictureContentMap.computeIfAbsent(contentSource.getContentHash(), hash -> new ArrayList<>(1));
+            ContentEntry entry = find(entryList, contentSource, imageFormat);
+            if(entry == null){
+                entry = new ContentEntry(contentSource, imageFormat, contentSource.addPicture(workbook, imageFormat));
+                entryList.add(entry);
+                pictureCount++;
+            }
+            index = entry.index;
+            pictureSourceIndexMap.put(contentSource, index);
+        }
+        imageIndexMap.put(imageKey, index);
+        return index;
+    }
+
+    /**
+     * 첨부 파일을 등록하고 index를 반환한다.
+     * 같은 ContentSource(같은 EmbeddedFile)는 내용을 다시 확인하지 않고 기존 index를 반환하며,
+     * 다른 ContentSource라도 같은 내용의 파일이 이미 등록되어 있으면 기존 index를 반환한다.(파일 이름은 처음 등록된 이름이 표시된다.)
+     * POI의 OLE 패키지는 byte[]가 필요하므로, 새로 등록할 때만 내용을 읽고 등록이 끝나면 버린다.
+     * @param embeddedFileName 파일 이름
+     * @param contentSource 파일 내용
+     * @return 첨부 파일 index(Workbook.addOlePackage())
+     * @throws IOException
+     */
+    int addOlePackage(String embeddedFileName, ContentSource contentSource) throws IOException{
+        Integer index = embeddedFileSourceIndexMap.get(contentSource);
+        if(index == null){
+            List<ContentEntry> entryList = embeddedFileContentMap.computeIfAbsent(contentSource.getContentHash(), hash -> new ArrayList<>(1));
+            ContentEntry entry = find(entryList, contentSource, 0);
+            if(entry == null){
+                byte[] embeddedFileByteArray = contentSource.toByteArray();
+                entry = new ContentEntry(contentSource, 0, workbook.addOlePackage(embeddedFileByteArray, embeddedFileName, embeddedFileName, embeddedFileName));
+                entryList.add(entry);
+                embeddedFileCount++;
+                if(isPrecompressed(embeddedFileByteArray)){
+                    precompressedEntryNameSet.add(XSSFRelation.OLEEMBEDDINGS.getFileName(entry.index).substring(1)); // "/xl/embeddings/oleObject1.bin" -> Entry 이름
+                }
+            }
+            index = entry.index;
+            embeddedFileSourceIndexMap.put(contentSource, index);
+        }
+        embeddedFileIndexMap.put(embeddedFileName, index);
+        return index;
+    }
+
+    /**
+     * 이미 압축된 내용(xlsx, pptx 같은 zip 기반 파일, JPEG, PNG, GIF)을 담은 첨부 파일 Part의 Entry 이름들을 반환한다.
+     * WriteProfileEnum으로 쓸 때 압축하지 않고 저장할 Entry를 고르는 데 사용한다.
+     * @return 이미 압축된 첨부 파일 Part의 Entry 이름들
+     */
+    Set<String> getPrecompressedEntryNameSet(){
+        return precompressedEntryNameSet;
+    }
+
+    /**
+     * 파일의 앞부분(Magic Number)으로 이미 압축된 형식인지 확인한다.
+     */
+    private static boolean isPrecompressed(byte[] byteArray){
+        if(byteArray.length < 4){
+            return false;
+        }
+        final int b0 = byteArray[0] & 0xFF, b1 = byteArray[1] & 0xFF, b2 = byteArray[2] & 0xFF, b3 = byteArray[3] & 0xFF;
+        return (b0 == 'P' && b1 == 'K' && b2 == 3 && b3 == 4) // zip(xlsx, pptx, docx)
+            || (b0 == 0xFF && b1 == 0xD8 && b2 == 0xFF) // JPEG
+            || (b0 == 0x89 && b1 == 'P' && b2 == 'N' && b3 == 'G') // PNG
+            || (b0 == 'G' && b1 == 'I' && b2 == 'F' && b3 == '8'); // GIF
+    }
+
+    /**
+     * imageKey로 등록된 이미지 index를 반환한다.
+     * @param imageKey
+     * @return imageKey로 등록된 이미지 index, 없으면 null
+     */
+    Integer getImageIndex(String imageKey){
+        return imageIndexMap.get(imageKey);
+    }
+
+    /**
+     * 등록된 imageKey들을 반환한다.
+     * @return 등록된 imageKey들
+     */
+    Set<String> getImageKeySet(){
+        return imageIndexMap.keySet();
+    }
+
+    /**
+     * 등록된 embeddedFileName들을 반환한다.
+     * @return 등록된 embeddedFileName들
+     */
+    Set<String> getEmbeddedFileNameSet(){
+        return embeddedFileIndexMap.keySet();
+    }
+
+    /**
+     * Workbook에 실제로 추가된 이미지의 수를 반환한다.
+     * @return Workbook에 실제로 추가된 이미지의 수
+     */
+    int getPictureCount(){
+        return pictureCount;
+    }
+
+    /**
+     * Workbook에 실제로 추가된 첨부 파일의 수를 반환한다.
+     * @return Workbook에 실제로 추가된 첨부 파일의 수
+     */
+    int getEmbeddedFileCount(){
+        return embeddedFileCount;
+    }
+
+    private static ContentEntry find(List<ContentEntry> entryList, ContentSource contentSource, int format) throws IOException{
+        for(ContentEntry entry : entryList){
+            if(entry.format == format && entry.contentSource.contentEquals(contentSource)){
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static class ContentEntry {
+        private final ContentSource contentSource; // 비교용, 파일과 InputStream 공급자는 내용을 들고 있지 않는다.
+        private final int format;
+        private final int index;
+
+        private ContentEntry(ContentSource contentSource, int format, int index){
+            this.contentSource = contentSource;
+            this.format = format;
+            this.index = index;
+        }
+    }
+}
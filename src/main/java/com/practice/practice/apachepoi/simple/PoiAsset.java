@@ -0,0 +1,107 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * PoiAssetCache에 올려 둔 정적 자원(아이콘, 이미지, 첨부 파일 등) 하나.
+ * 내용은 변경할 수 없으며, 여러 요청(스레드)에서 동시에 읽어도 안전하다.
+ */
+public final class PoiAsset {
+    private final String name;
+    private final byte[] byteArray;
+    private final int width; // 이미지가 아니면 -1
+    private final int height; // 이미지가 아니면 -1
+    private final long contentHash;
+
+    PoiAsset(String name, byte[] byteArray, int width, int height){
+        this.name = name;
+        this.byteArray = byteArray;
+        this.width = width;
+        this.height = height;
+        this.contentHash = ContentHash.of(byteArray);
+    }
+
+    /**
+     * 자원의 파일 이름을 반환한다.
+     * @return 자원의 파일 이름을 반환한다. 예시) "icon_excel.png"
+     */
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * 자원의 크기(byte)를 반환한다.
+     * @return 자원의 크기(byte)를 반환한다.
+     */
+    public int getSize(){
+        return byteArray.length;
+    }
+
+    /**
+     * 이미지 여부를 반환한다.
+     * @return 이미지이면 true
+     */
+    public boolean isImage(){
+        return width >= 0 && height >= 0;
+    }
+
+    /**
+     * 이미지의 넓이(pixel)를 반환한다.
+     * @return 이미지의 넓이(pixel)를 반환한다. 이미지가 아니면 -1을 반환한다.
+     */
+    public int getWidth(){
+        return width;
+    }
+
+    /**
+     * 이미지의 높이(pixel)를 반환한다.
+     * @return 이미지의 높이(pixel)를 반환한다. 이미지가 아니면 -1을 반환한다.
+     */
+    public int getHeight(){
+        return height;
+    }
+
+    /**
+     * 자원의 내용을 읽는 InputStream을 새로 만들어 반환한다.
+     * @return 자원의 내용을 읽는 InputStream
+     */
+    public InputStream openStream(){
+        return new ByteArrayInputStream(byteArray);
+    }
+
+    /**
+     * 자원의 내용을 읽기 전용 ByteBuffer로 반환한다.
+     * @return 자원의 내용을 담은 읽기 전용 ByteBuffer
+     */
+    public ByteBuffer asByteBuffer(){
+        return ByteBuffer.wrap(byteArray).asReadOnlyBuffer();
+    }
+
+    /**
+     * 자원의 내용을 복사한 byte[]를 반환한다.
+     * @return 자원의 내용을 복사한 byte[]
+     */
+    public byte[] toByteArray(){
+        return Arrays.copyOf(byteArray, byteArray.length);
+    }
+
+    /**
+     * 자원의 내용을 복사하지 않고 그대로 반환한다.
+     * Workbook에 등록하는 용도로만 사용하며, 반환된 배열을 수정하면 안 된다.
+     * @return 자원의 내용
+     */
+    byte[] getByteArray(){
+        return byteArray;
+    }
+
+    /**
+     * 자원 내용의 ContentHash를 반환한다.
+     * @return 자원 내용의 ContentHash
+     */
+    long getContentHash(){
+        return contentHash;
+    }
+}
@@ -0,0 +1,88 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.awt.Dimension;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+/**
+ * classpath:/static/poi의 정적 자원을 한 번만 읽어 두고 공유하는 캐시.(프로세스 당 하나)
+ * ClassPathResource.getFile()을 사용하지 않고 InputStream으로 읽으므로, jar로 실행해도 동작한다.
+ * 이미지 자원은 읽을 때 크기(pixel)도 함께 구해 둔다.
+ * 새 Workbook은 파일 I/O 없이 메모리의 자원을 등록한다.
+ */
+public final class PoiAssetCache {
+    private static final String ASSET_LOCATION_PATTERN = "classpath:static/poi/*";
+
+    private final Map<String, PoiAsset> assetMap; // key: 파일 이름
+
+    private PoiAssetCache(Map<String, PoiAsset> assetMap){
+        this.assetMap = Collections.unmodifiableMap(assetMap);
+    }
+
+    private static class Holder {
+        private static final PoiAssetCache INSTANCE = load();
+    }
+
+    /**
+     * PoiAssetCache 인스턴스를 반환한다.
+     * 처음 호출될 때 자원을 모두 읽는다.
+     * @return PoiAssetCache 인스턴스
+     */
+    public static PoiAssetCache getInstance(){
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * 파일 이름에 해당하는 자원을 반환한다.
+     * @param name 파일 이름, 예시) "icon_excel.png"
+     * @return 파일 이름에 해당하는 자원
+     * @throws IllegalArgumentException 자원이 없는 경우
+     */
+    public PoiAsset get(String name){
+        PoiAsset asset = assetMap.get(name);
+        if(asset == null){
+            throw new IllegalArgumentException("Asset not found in " + ASSET_LOCATION_PATTERN + ": " + name);
+        }
+        return asset;
+    }
+
+    /**
+     * 캐시된 자원의 파일 이름들을 반환한다.
+     * @return 캐시된 자원의 파일 이름들
+     */
+    public Set<String> getNameSet(){
+        return assetMap.keySet();
+    }
+
+    private static PoiAssetCache load(){
+        try{
+            Map<String, PoiAsset> assetMap = new HashMap<>();
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(ASSET_LOCATION_PATTERN);
+            for(Resource resource : resources){
+                String name = resource.getFilename();
+                if(name == null || !resource.isReadable()){
+                    continue;
+                }
+                byte[] byteArray;
+                try(InputStream inputStream = resource.getInputStream()){
+                    byteArray = inputStream.readAllBytes();
+                }
+                Dimension size = ImageHeader.readSize(byteArray); // 이미지가 아니면 null
+                int width = size == null ? -1 : size.width;
+                int height = size == null ? -1 : size.height;
+                assetMap.put(name, new PoiAsset(name, byteArray, width, height));
+            }
+            return new PoiAssetCache(assetMap);
+        }catch(IOException e){
+            throw new UncheckedIOException("Failed to load assets from " + ASSET_LOCATION_PATTERN, e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+/**
+ * WriteProfileEnum에 따라 압축 수준을 정하고, 이미 압축된 Part는 압축하지 않고(STORED) 쓰는 ZipArchiveOutputStream.
+ * POI(ZipPackage)는 전달받은 OutputStream이 ZipArchiveOutputStream이면 새로 감싸지 않고 그대로 Part를 쓴다.
+ * STORED Entry는 크기와 CRC를 Entry를 다 쓴 뒤에 알 수 있으므로, Header를 되돌아가 고칠 수 있는 SeekableByteChannel에만 쓸 수 있다.
+ */
+class ProfiledZipArchiveOutputStream extends ZipArchiveOutputStream {
+    private final WriteProfileEnum writeProfile;
+    private final Set<String> storedEntryNameSet; // 압축하지 않을 Entry 이름(예: xl/embeddings/oleObject1.bin)
+
+    /**
+     * @param channel 쓸 곳
+     * @param writeProfile 압축 설정
+     * @param storedEntryNameSet 이미지 외에 압축하지 않을 Entry 이름(이미 압축된 첨부 파일)
+     * @throws IOException
+     */
+    ProfiledZipArchiveOutputStream(SeekableByteChannel channel, WriteProfileEnum writeProfile, Set<String> storedEntryNameSet) throws IOException{
+        super(channel);
+        this.writeProfile = writeProfile;
+        this.storedEntryNameSet = storedEntryNameSet;
+        setLevel(writeProfile.getDeflateLevel());
+    }
+
+    @Override
+    public void putArchiveEntry(ArchiveEntry archiveEntry) throws IOException{
+        if(writeProfile.isStorePrecompressed() && archiveEntry instanceof ZipArchiveEntry && isPrecompressed(archiveEntry.getName())){
+            ((ZipArchiveEntry) archiveEntry).setMethod(ZipEntry.STORED);
+        }
+        super.putArchiveEntry(archiveEntry);
+    }
+
+    private boolean isPrecompressed(String entryName){
+        if(storedEntryNameSet.contains(entryName)){
+            return true;
+        }
+        if(!entryName.startsWith("xl/media/")){
+            return false;
+        }
+        final String name = entryName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".jpeg") || name.endsWith(".jpg") || name.endsWith(".png") || name.endsWith(".gif");
+    }
+}
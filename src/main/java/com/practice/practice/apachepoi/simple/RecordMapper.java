@@ -0,0 +1,254 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+
+/**
+ * &#64;ExcelColumn이 붙은 필드를 Row의 값 배열로 변환한다.
+ * 클래스마다 한 번만 만들어 캐시(ClassValue)하며, 필드 값은 LambdaMetafactory로 만든 접근자(Function)로 읽으므로 Row마다 리플렉션을 하지 않는다.
+ * 만들어진 RecordMapper는 변경되지 않으므로 여러 스레드에서 함께 사용할 수 있다.
+ * @param <T> 출력할 객체의 타입
+ */
+final class RecordMapper<T> {
+    private static final String DEFAULT_DATE_FORMAT = "yyyy-mm-dd";
+    private static final String DEFAULT_DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+    private static final ClassValue<RecordMapper<?>> CACHE = new ClassValue<RecordMapper<?>>(){
+        @Override
+        protected RecordMapper<?> computeValue(Class<?> type){
+            return new RecordMapper<>(type);
+        }
+    };
+
+    private final String[] headers;
+    private final int[] widthPixels; // 0 이하이면 변경하지 않는다.
+    private final String[] formats; // null이면 기본 형식
+    private final Function<Object, Object>[] accessors;
+
+    /**
+     * type의 RecordMapper를 반환한다.
+     * @param type &#64;ExcelColumn이 붙은 필드가 있는 클래스
+     * @return type의 RecordMapper
+     * @throws IllegalArgumentException &#64;ExcelColumn이 붙은 필드가 없거나, 필드에 접근할 수 없는 경우
+     */
+    @SuppressWarnings("unchecked")
+    static <T> RecordMapper<T> of(Class<T> type){
+        return (RecordMapper<T>) CACHE.get(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RecordMapper(Class<?> type){
+        List<Field> fieldList = new ArrayList<>();
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for(Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()){
+            hierarchy.add(current);
+        }
+        Collections.reverse(hierarchy); // 상위 클래스의 필드가 먼저 온다.
+        for(Class<?> current : hierarchy){
+            for(Field field : current.getDeclaredFields()){
+                if(field.isAnnotationPresent(ExcelColumn.class) && !Modifier.isStatic(field.getModifiers())){
+                    fieldList.add(field);
+                }
+            }
+        }
+        if(fieldList.isEmpty()){
+            throw new IllegalArgumentException("No @ExcelColumn field in " + type.getName());
+        }
+        // getDeclaredFields()의 순서는 보장되지 않으므로, order가 같으면 상위 클래스의 필드, 필드 이름 순으로 정한다.
+        fieldList.sort(Comparator.<Field>comparingInt(field -> field.getAnnotation(ExcelColumn.class).order())
+            .thenComparingInt(field -> hierarchy.indexOf(field.getDeclaringClass()))
+            .thenComparing(Field::getName));
+
+        final int columnCount = fieldList.size();
+        headers = new String[columnCount];
+        widthPixels = new int[columnCount];
+        formats = new String[columnCount];
+        accessors = new Function[columnCount];
+        for(int i = 0; i < columnCount; i++){
+            Field field = fieldList.get(i);
+            ExcelColumn excelColumn = field.getAnnotation(ExcelColumn.class);
+            headers[i] = excelColumn.header().isEmpty() ? field.getName() : excelColumn.header();
+            widthPixels[i] = excelColumn.width();
+            formats[i] = excelColumn.format().isEmpty() ? getDefaultFormat(field.getType()) : excelColumn.format();
+            accessors[i] = createAccessor(type, field);
+        }
+    }
+
+    private static String getDefaultFormat(Class<?> fieldType){
+        if(fieldType == LocalDateTime.class){
+            return DEFAULT_DATE_TIME_FORMAT;
+        }
+        if(fieldType == LocalDate.class || Date.class.isAssignableFrom(fieldType) || Calendar.class.isAssignableFrom(fieldType)){
+            return DEFAULT_DATE_FORMAT;
+        }
+        return null;
+    }
+
+    /**
+     * 필드 값을 읽는 접근자를 만든다.
+     * getter가 있으면 LambdaMetafactory로 getter를 직접 호출하는 Function을, 없으면 필드의 MethodHandle을 호출하는 Function을 만든다.
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createAccessor(Class<?> type, Field field){
+        try{
+            Method getter = findGetter(type, field);
+            if(getter != null){
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(getter.getDeclaringClass(), MethodHandles.lookup());
+                MethodHandle getterHandle = lookup.unreflect(getter);
+                try{
+                    CallSite callSite = LambdaMetafactory.metafactory(
+                        lookup,
+                        "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        getterHandle,
+                        getterHandle.type().wrap()
+                    );
+                    return (Function<Object, Object>) callSite.getTarget().invokeExact();
+                }catch(LambdaConversionException e){
+                    return toFunction(getterHandle); // 다른 ClassLoader의 클래스 등 LambdaMetafactory를 쓸 수 없으면 MethodHandle을 직접 호출한다.
+                }
+            }
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            return toFunction(lookup.unreflectGetter(field));
+        }catch(Throwable e){
+            throw new IllegalArgumentException("Cannot access @ExcelColumn field " + field.getDeclaringClass().getName() + "." + field.getName(), e);
+        }
+    }
+
+    private static Function<Object, Object> toFunction(MethodHandle methodHandle){
+        final MethodHandle objectHandle = methodHandle.asType(MethodType.methodType(Object.class, Object.class));
+        return record -> {
+            try{
+                return objectHandle.invokeExact(record);
+            }catch(RuntimeException | Error e){
+                throw e;
+            }catch(Throwable e){
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /**
+     * 필드의 getter(getXxx, boolean은 isXxx)를 찾는다.
+     * @return 인자가 없고 필드 타입을 반환하는 getter, 없으면 null
+     */
+    private static Method findGetter(Class<?> type, Field field){
+        final String name = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        final String[] getterNames = field.getType() == boolean.class ? new String[]{"is" + name, "get" + name} : new String[]{"get" + name};
+        for(String getterName : getterNames){
+            for(Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()){
+                try{
+                    Method method = current.getDeclaredMethod(getterName);
+                    if(method.getReturnType() == field.getType() && !Modifier.isStatic(method.getModifiers())){
+                        return method;
+                    }
+                }catch(NoSuchMethodException e){
+                    // 상위 클래스에서 찾는다.
+                }
+            }
+        }
+        return null;
+    }
+
+    int getColumnCount(){
+        return headers.length;
+    }
+
+    /**
+     * Header Row의 값 배열을 반환한다.
+     * @return Header Row의 값 배열
+     */
+    Object[] getHeaderRow(){
+        return headers.clone();
+    }
+
+    /**
+     * Header Row에 적용할 스타일을 반환한다.(굵게, 가운데 정렬, 얇은 테두리)
+     * @return Header Row에 적용할 스타일
+     */
+    ColumnStyle[] getHeaderStyles(){
+        ColumnStyle[] headerStyles = new ColumnStyle[headers.length];
+        ColumnStyle headerStyle = new ColumnStyle()
+            .setFontBold(true)
+            .setHorizontalAlignment(HorizontalAlignment.CENTER)
+            .setVerticalAlignment(VerticalAlignment.CENTER)
+            .setBorderStyle(BorderStyle.THIN);
+        for(int i = 0; i < headerStyles.length; i++){
+            headerStyles[i] = headerStyle;
+        }
+        return headerStyles;
+    }
+
+    /**
+     * 데이터 Row에 적용할 스타일을 반환한다.
+     * 표현형식이 있는 Column만 스타일을 가지며, 나머지는 null(스타일을 설정하지 않음)이다.
+     * @return 데이터 Row에 적용할 스타일
+     */
+    ColumnStyle[] getDataStyles(){
+        ColumnStyle[] dataStyles = new ColumnStyle[formats.length];
+        for(int i = 0; i < dataStyles.length; i++){
+            if(formats[i] != null){
+                dataStyles[i] = new ColumnStyle().setWrapText(false).setDataFormat(formats[i]);
+            }
+        }
+        return dataStyles;
+    }
+
+    /**
+     * Column의 Width(pixel)를 반환한다.
+     * @return Column의 Width(pixel), 0 이하이면 변경하지 않는다.
+     */
+    int[] getWidthPixels(){
+        return widthPixels.clone();
+    }
+
+    /**
+     * records를 Row의 값 배열로 변환하는 Iterator를 반환한다.
+     * 값 배열 하나를 재사용하므로, next()로 받은 배열은 다음 next() 호출 전까지만 유효하다.(writeRows는 Row를 쓴 뒤 다음 Row를 읽는다.)
+     * @param records 출력할 객체들
+     * @return Row의 값 배열 Iterator
+     */
+    Iterator<Object[]> toRowIterator(final Iterator<? extends T> records){
+        final Object[] values = new Object[accessors.length];
+        return new Iterator<Object[]>(){
+            @Override
+            public boolean hasNext(){
+                return records.hasNext();
+            }
+
+            @Override
+            public Object[] next(){
+                final T record = records.next();
+                if(record == null){
+                    return null;
+                }
+                for(int i = 0; i < accessors.length; i++){
+                    values[i] = accessors[i].apply(record);
+                }
+                return values;
+            }
+        };
+    }
+}
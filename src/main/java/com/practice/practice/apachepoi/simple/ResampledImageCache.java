@@ -0,0 +1,131 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Value;
+
+/**
+ * ImageResampler가 줄인 이미지를 Workbook 사이에서 공유하는 캐시.(프로세스 당 하나)
+ * (원본 내용의 SHA-256, 저장할 크기, ImageResampleOption)을 키로 줄인 이미지의 byte[]를 보관한다.
+ * 요청마다 같은 이미지(로고, 아이콘 등)를 같은 크기로 넣는 경우 다시 디코딩, 인코딩하지 않는다.
+ * 보관하는 byte[]의 합에 항목마다 ENTRY_OVERHEAD_BYTES를 더한 크기가 MAX_CACHE_BYTES를 넘으면 가장 오래 사용하지 않은 것부터 버린다.
+ * (NOT_RESAMPLED처럼 크기가 0인 항목도 키와 Map Entry의 크기만큼 계산하므로 항목 수가 끝없이 늘지 않는다.)
+ * 다른 요청의 이미지와 섞이지 않도록 64bit ContentHash가 아닌 SHA-256을 키로 사용한다.
+ */
+final class ResampledImageCache {
+    static final long MAX_CACHE_BYTES = 64L * 1024 * 1024;
+    static final byte[] NOT_RESAMPLED = new byte[0]; // 줄인 결과가 원본보다 커서 원본을 사용하는 경우
+    static final long ENTRY_OVERHEAD_BYTES = 256L; // 항목 하나의 키(SHA-256 32byte 포함)와 Map Entry의 대략적인 크기
+
+    private final long maxCacheBytes;
+    private final LinkedHashMap<Key, byte[]> cacheMap = new LinkedHashMap<>(16, 0.75f, true); // 사용 순서
+    private long cacheBytes = 0L;
+    private long hitCount = 0L;
+
+    ResampledImageCache(long maxCacheBytes){
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    private static class Holder {
+        private static final ResampledImageCache INSTANCE = new ResampledImageCache(MAX_CACHE_BYTES);
+    }
+
+    /**
+     * ResampledImageCache 인스턴스를 반환한다.
+     * @return ResampledImageCache 인스턴스
+     */
+    static ResampledImageCache getInstance(){
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * 캐시의 키를 만든다. 원본 내용을 한 번 읽어 SHA-256을 계산한다.(InputStream 공급자는 Heap에 모으지 않고 나눠 읽는다.)
+     * @param imageObject 원본 이미지
+     * @param width 저장할 너비(px)
+     * @param height 저장할 높이(px)
+     * @param option 다시 인코딩할 설정
+     * @return 캐시의 키
+     * @throws IOException 원본을 읽지 못한 경우
+     */
+    static Key keyOf(ImageObject imageObject, int width, int height, ImageResampleOption option) throws IOException{
+        final MessageDigest messageDigest;
+        try{
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        }catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException(e); // 모든 JVM은 SHA-256을 지원한다.
+        }
+        final ContentSource contentSource = imageObject.getContentSource();
+        final ByteBuffer byteBuffer = contentSource.asByteBuffer();
+        if(byteBuffer != null){
+            messageDigest.update(byteBuffer);
+        }else{
+            try(InputStream inputStream = new DigestInputStream(contentSource.openStream(), messageDigest)){
+                inputStream.transferTo(OutputStream.nullOutputStream()); // 고정 크기 버퍼로 나눠 읽으며 계산한다.
+            }
+        }
+        return new Key(messageDigest.digest(), width, height, option);
+    }
+
+    /**
+     * 줄인 이미지의 byte[]를 반환한다.
+     * @param key
+     * @return 줄인 이미지의 byte[], 원본을 사용해야 하면 NOT_RESAMPLED, 캐시에 없으면 null
+     */
+    synchronized byte[] get(Key key){
+        byte[] byteArray = cacheMap.get(key);
+        if(byteArray != null){
+            hitCount++;
+        }
+        return byteArray;
+    }
+
+    /**
+     * 캐시에 있던 byte[]를 반환한 횟수를 반환한다.
+     * @return get()이 null이 아닌 값을 반환한 횟수
+     */
+    synchronized long getHitCount(){
+        return hitCount;
+    }
+
+    /**
+     * 줄인 이미지의 byte[]를 보관한다. ENTRY_OVERHEAD_BYTES를 더해 MAX_CACHE_BYTES보다 큰 byte[]는 보관하지 않는다.
+     * @param key
+     * @param byteArray 줄인 이미지의 byte[] 또는 NOT_RESAMPLED
+     */
+    synchronized void put(Key key, byte[] byteArray){
+        if(entryBytes(byteArray) > maxCacheBytes){
+            return;
+        }
+        byte[] previous = cacheMap.put(key, byteArray);
+        if(previous != null){
+            cacheBytes -= entryBytes(previous);
+        }
+        cacheBytes += entryBytes(byteArray);
+        Iterator<Map.Entry<Key, byte[]>> iterator = cacheMap.entrySet().iterator();
+        while(cacheBytes > maxCacheBytes && iterator.hasNext()){
+            cacheBytes -= entryBytes(iterator.next().getValue());
+            iterator.remove();
+        }
+    }
+
+    private static long entryBytes(byte[] byteArray){
+        return byteArray.length + ENTRY_OVERHEAD_BYTES;
+    }
+
+    @Value
+    static class Key {
+        byte[] contentDigest;
+        int width;
+        int height;
+        ImageResampleOption option;
+    }
+}
@@ -0,0 +1,16 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.IOException;
+
+/**
+ * ExcelContoller.buildSheets()에서 Sheet 하나를 채우는 작업.
+ */
+@FunctionalInterface
+public interface SheetBuildTask {
+    /**
+     * sheetBuilder로 Sheet를 채운다.
+     * @param sheetBuilder 채울 Sheet의 SheetBuilder
+     * @throws IOException
+     */
+    void build(SheetBuilder sheetBuilder) throws IOException;
+}
@@ -0,0 +1,209 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+
+/**
+ * Sheet 하나를 채우는 빌더.
+ * ExcelContoller.getSheetBuilder(), ExcelContoller.createSheetBuilder()로 얻으며, ExcelContoller의 작업 Sheet(selectSheet)와 무관하게 동작한다.
+ * 서로 다른 Sheet의 SheetBuilder는 서로 다른 스레드에서 동시에 사용할 수 있다.(ExcelContoller.buildSheets() 참고)
+ * Style, Font, Image, 첨부 파일은 Workbook 단위로 공유되므로, 어느 SheetBuilder에서 만들어도 한 번만 저장된다.
+ * 하나의 SheetBuilder(와 그 CellController)는 한 번에 하나의 스레드에서만 사용해야 한다.
+ */
+public class SheetBuilder {
+    private final SheetContext sheetContext;
+
+    SheetBuilder(SheetContext sheetContext){
+        this.sheetContext = sheetContext;
+    }
+
+    /**
+     * SheetBuilder가 채우는 XSSFSheet를 반환한다.
+     * Streaming 모드에서는 SXSSFSheet가 감싸고 있는 XSSFSheet를 반환한다.
+     * @return SheetBuilder가 채우는 XSSFSheet
+     */
+    public XSSFSheet getSheet(){
+        return sheetContext.getXssfSheet();
+    }
+
+    /**
+     * 작업할 Cell을 선택한다.
+     * Streaming 모드에서 이미 임시 파일로 내려간 Row의 Cell을 선택하면 IllegalStateException이 발생한다.
+     * @param rowIndex Row의 번호(0부터 시작).
+     * @param colIndex Column의 번호(0부터 시작).
+     * @return Cell을 조정할 수 있는 CellController 인스턴스를 반환한다.
+     */
+    public CellController selectCell(int rowIndex, int colIndex){
+        return sheetContext.selectCell(rowIndex, colIndex);
+    }
+
+    /**
+     * 여러 Row를 한 번에 쓴다.(ExcelContoller.writeRows() 참고)
+     * @param startRowIndex 처음 쓸 Row의 번호(0부터 시작).
+     * @param rows 쓸 Row들, Row 하나는 Column 순서의 값 배열
+     * @param columnStyles Column별 스타일
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public SheetBuilder writeRows(int startRowIndex, Iterable<Object[]> rows, ColumnStyle... columnStyles){
+        return writeRows(startRowIndex, 0, rows, columnStyles);
+    }
+
+    /**
+     * 여러 Row를 한 번에 쓴다.(ExcelContoller.writeRows() 참고)
+     * @param startRowIndex 처음 쓸 Row의 번호(0부터 시작).
+     * @param startColIndex 처음 쓸 Column의 번호(0부터 시작).
+     * @param rows 쓸 Row들, Row 하나는 Column 순서의 값 배열
+     * @param columnStyles Column별 스타일(startColIndex부터)
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public SheetBuilder writeRows(int startRowIndex, int startColIndex, Iterable<Object[]> rows, ColumnStyle... columnStyles){
+        sheetContext.writeRows(startRowIndex, startColIndex, rows.iterator(), columnStyles);
+        return this;
+    }
+
+    /**
+     * 여러 Row를 한 번에 쓴다.(ExcelContoller.writeRows() 참고)
+     * @param startRowIndex 처음 쓸 Row의 번호(0부터 시작).
+     * @param rows 쓸 Row들, Row 하나는 Column 순서의 값 배열
+     * @param columnStyles Column별 스타일
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public SheetBuilder writeRows(int startRowIndex, Stream<Object[]> rows, ColumnStyle... columnStyles){
+        sheetContext.writeRows(startRowIndex, 0, rows.iterator(), columnStyles);
+        return this;
+    }
+
+    /**
+     * &#64;ExcelColumn이 붙은 객체들을 Header Row와 데이터 Row로 쓴다.(ExcelContoller.writeRecords() 참고)
+     * @param startRowIndex Header Row의 번호(0부터 시작).
+     * @param records 쓸 객체들
+     * @param type 객체의 타입
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public <T> SheetBuilder writeRecords(int startRowIndex, Iterable<? extends T> records, Class<T> type){
+        sheetContext.writeRecords(startRowIndex, 0, records.iterator(), type);
+        return this;
+    }
+
+    /**
+     * &#64;ExcelColumn이 붙은 객체들을 Header Row와 데이터 Row로 쓴다.(ExcelContoller.writeRecords() 참고)
+     * @param startRowIndex Header Row의 번호(0부터 시작).
+     * @param records 쓸 객체들
+     * @param type 객체의 타입
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public <T> SheetBuilder writeRecords(int startRowIndex, Stream<? extends T> records, Class<T> type){
+        sheetContext.writeRecords(startRowIndex, 0, records.iterator(), type);
+        return this;
+    }
+
+    /**
+     * Column의 Width를 pixel으로 변경한다.
+     * Excel의 width 특성상 완벽하게 pixel로 구현하기가 쉽지 않아서 오차가 있다.
+     * Streaming 모드에서는 임시 파일로 내려가면서 이미 배치된(Row Height, 이미지/첨부 파일 위치) Row에 최종 Width가 반영되지 않는다.(최근 rowAccessWindowSize개의 Row만 반영)
+     * @param columnIndex 변경할 Column의 번호(0부터 시작).
+     * @param pixel
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public SheetBuilder setColumnWidthInPixel(int columnIndex, int pixel){
+        sheetContext.setColumnWidthInPixel(columnIndex, pixel);
+        return this;
+    }
+
+    /**
+     * Column의 Width를 Text에 맞춰 자동으로 변경한다.(ExcelContoller.setColumnAutoFit() 참고)
+     * Streaming 모드에서는 임시 파일로 내려간 Row의 Row Height와 이미지/첨부 파일 위치에 자동 넓이가 반영되지 않는다.
+     * @param columnIndex 변경할 Column의 번호(0부터 시작).
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public SheetBuilder setColumnAutoFit(int columnIndex){
+        return setColumnAutoFit(columnIndex, 0, 0);
+    }
+
+    /**
+     * Column의 Width를 Text에 맞춰 자동으로 변경한다.(ExcelContoller.setColumnAutoFit() 참고)
+     * @param columnIndex 변경할 Column의 번호(0부터 시작).
+     * @param minPixel 최소 넓이(pixel)
+     * @param maxPixel 최대 넓이(pixel), 0 이하이면 제한하지 않는다.
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public SheetBuilder setColumnAutoFit(int columnIndex, int minPixel, int maxPixel){
+        sheetContext.setColumnAutoFit(columnIndex, minPixel, maxPixel);
+        return this;
+    }
+
+    /**
+     * Row의 Height를 pixel으로 변경한다.
+     * @param rowIndex 변경할 Row의 번호(0부터 시작).
+     * @param pixel
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public SheetBuilder setRowHeightInPixel(int rowIndex, int pixel){
+        Row row = sheetContext.getOrCreateRow(rowIndex);
+        row.setHeight(UnitConverter.getHeightFromPixel(pixel));
+        return this;
+    }
+
+    /**
+     * Row의 Height를 point으로 변경한다.
+     * @param rowIndex 변경할 Row의 번호(0부터 시작).
+     * @param point
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public SheetBuilder setRowHeight(int rowIndex, int point){
+        Row row = sheetContext.getOrCreateRow(rowIndex);
+        row.setHeight(UnitConverter.getHeightFromPoint(point));
+        return this;
+    }
+
+    /**
+     * Cell을 Merge한다.
+     * @param startRowIndex 시작 Row Index(0부터 시작)
+     * @param endRowIndex 종료 Row Index(0부터 시작)
+     * @param startColIndex 시작 Col Index(0부터 시작)
+     * @param endColInex 종료 Col Index(0부터 시작)
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public SheetBuilder mergedRegion(int startRowIndex, int endRowIndex, int startColIndex, int endColInex){
+        sheetContext.addMergedRegion(new CellRangeAddress(startRowIndex, endRowIndex, startColIndex, endColInex));
+        return this;
+    }
+
+    /**
+     * Cell을 Merge한다.
+     * @param startRowIndex 시작 Row Index(0부터 시작)
+     * @param endRowIndex 종료 Row Index(0부터 시작)
+     * @param startColIndex 시작 Col Index(0부터 시작)
+     * @param endColInex 종료 Col Index(0부터 시작)
+     * @return Mearge된 영역의 Cell을 조정할 수 있는 CellController 인스턴스를 반환한다.
+     */
+    public CellController mergedRegionAndSelect(int startRowIndex, int endRowIndex, int startColIndex, int endColInex){
+        sheetContext.addMergedRegion(new CellRangeAddress(startRowIndex, endRowIndex, startColIndex, endColInex));
+        return selectCell(startRowIndex, startColIndex);
+    }
+
+    /**
+     * Cell을 Merge한다.
+     * @param startCell ex) "A1"
+     * @param endCell ex) "C1"
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public SheetBuilder mergedRegion(String startCell, String endCell){
+        sheetContext.addMergedRegion(CellRangeAddress.valueOf(startCell + ":" + endCell));
+        return this;
+    }
+
+    /**
+     * 이 Sheet에서 작업한 내용을 Workbook에 반영한다.
+     * ExcelContoller.write()에서도 반영되므로 직접 호출하지 않아도 된다.
+     * ExcelContoller.buildSheets()는 작업이 끝난 스레드에서 이 메소드를 호출한다.
+     * @return 현재 인스턴스(SheetBuilder)
+     */
+    public SheetBuilder flush(){
+        sheetContext.flushPendingCellControllers();
+        return this;
+    }
+}
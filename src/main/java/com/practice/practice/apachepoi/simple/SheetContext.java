@@ -0,0 +1,468 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFDrawing;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+
+/**
+ * Sheet 하나의 작업 상태.(CellController 인덱스, 반영되지 않은 CellController, Drawing)
+ * ExcelContoller와 SheetBuilder가 Sheet를 다룰 때 사용한다.
+ * Sheet마다 상태를 따로 가지므로, 서로 다른 Sheet의 SheetContext는 서로 다른 스레드에서 동시에 사용할 수 있다.
+ * 하나의 SheetContext는 한 번에 하나의 스레드에서만 사용해야 한다.
+ */
+class SheetContext {
+    private static final int MAX_COLUMN_WIDTH = 255 * UnitConverter.POI_WIDTH_UNIT; // Excel의 최대 Column Width(255글자)
+    private final WorkbookContext workbookContext;
+    private final Sheet sheet; // Streaming 모드이면 SXSSFSheet
+    private final XSSFSheet xssfSheet; // Streaming 모드에서는 SXSSFSheet가 감싸고 있는 XSSFSheet
+    private final SparseCellIndex<CellController> cellControllerIndex = new SparseCellIndex<>();
+    private final List<CellController> pendingCellControllers = new ArrayList<>(); // Workbook에 아직 반영되지 않은 변경이 있는 CellController
+    private final List<CellController> layoutPendingCellControllers = new ArrayList<>(); // Row Height, 이미지/첨부 파일 위치를 아직 계산하지 않은 CellController
+    private XSSFDrawing drawing; // 처음 사용할 때 생성
+    private int prunedRowIndex = -1; // Streaming 모드에서 CellController를 정리한 마지막 Row 번호
+    private long createdCellCount = 0; // 이 Sheet에서 새로 만든 Cell의 수(ExcelMetrics)
+    private final ColumnAutoFit columnAutoFit = new ColumnAutoFit();
+    private final SparseCellIndex<CellRangeAddress> mergedRegionIndex = new SparseCellIndex<>(); // 여러 Column에 걸친 Merge 영역(첫 Cell 기준), ColumnAutoFit에서 제외한다.
+
+    SheetContext(WorkbookContext workbookContext, Sheet sheet){
+        this.workbookContext = workbookContext;
+        this.sheet = sheet;
+        this.xssfSheet = workbookContext.getWorkbook().getSheet(sheet.getSheetName());
+    }
+
+    WorkbookContext getWorkbookContext(){
+        return workbookContext;
+    }
+
+    Sheet getSheet(){
+        return sheet;
+    }
+
+    XSSFSheet getXssfSheet(){
+        return xssfSheet;
+    }
+
+    /**
+     * 이 Sheet에서 새로 만든 Cell의 수를 반환한다.
+     * @return 이 Sheet에서 새로 만든 Cell의 수
+     */
+    long getCreatedCellCount(){
+        return createdCellCount;
+    }
+
+    private boolean isStreaming(){
+        return sheet instanceof SXSSFSheet;
+    }
+
+    /**
+     * Sheet의 Drawing을 반환한다. 처음 호출될 때 생성한다.
+     * Drawing은 Workbook의 공용 부분(OPCPackage)에 추가되므로 WorkbookContext의 lock을 잡고 생성한다.
+     * @return Sheet의 Drawing
+     */
+    XSSFDrawing getDrawing(){
+        if(drawing == null){
+            synchronized(workbookContext.getLock()){
+                drawing = xssfSheet.createDrawingPatriarch();
+            }
+        }
+        return drawing;
+    }
+
+    /**
+     * Streaming 모드에서 rowIndex의 Row가 이미 임시 파일로 내려갔는지 확인한다.
+     * @param rowIndex Row의 번호(0부터 시작).
+     * @throws IllegalStateException rowIndex의 Row가 이미 임시 파일로 내려간 경우
+     */
+    private void checkNotFlushed(int rowIndex){
+        if(isStreaming()){
+            int lastFlushedRowIndex = ((SXSSFSheet) sheet).getLastFlushedRowNum();
+            if(rowIndex <= lastFlushedRowIndex){
+                throw new IllegalStateException(
+                    "Row " + rowIndex + " has already been flushed to disk (last flushed row: " + lastFlushedRowIndex
+                    + "). Only the last rows within the row access window can be accessed in streaming mode."
+                );
+            }
+        }
+    }
+
+    /**
+     * rowIndex의 Row를 반환한다. Row가 없으면 생성한다.
+     * Streaming 모드에서는 Row 생성으로 임시 파일로 내려갈 Row만 미리 배치하고(layout), 내려간 Row의 CellController를 폐기한다.
+     * 아직 메모리에 남는 Row는 이후에 바뀐 Column Width로 write() 할 때 배치한다.
+     * @param rowIndex Row의 번호(0부터 시작).
+     * @return rowIndex의 Row
+     */
+    Row getOrCreateRow(int rowIndex){
+        checkNotFlushed(rowIndex);
+        Row row = sheet.getRow(rowIndex);
+        if(row == null){
+            if(isStreaming()){
+                flushPendingCellControllers(); // Row가 임시 파일로 내려가기 전에 변경 사항을 반영한다.
+                if(!layoutPendingCellControllers.isEmpty()){
+                    layoutPendingCellControllersUpTo(getLastRowIndexToFlush(rowIndex));
+                }
+            }
+            row = sheet.createRow(rowIndex);
+            pruneFlushedCellControllers();
+        }
+        return row;
+    }
+
+    /**
+     * Streaming 모드에서 newRowIndex의 Row를 만들면 임시 파일로 내려갈 마지막 Row의 번호를 반환한다.
+     * SXSSFSheet는 메모리의 Row가 rowAccessWindowSize개를 넘으면 번호가 작은 Row부터 내려보낸다.(Row 번호가 연속이 아니어도 개수 기준)
+     * @param newRowIndex 새로 만들 Row의 번호(0부터 시작).
+     * @return 내려갈 마지막 Row의 번호, 내려갈 Row가 없으면 -1
+     */
+    private int getLastRowIndexToFlush(int newRowIndex){
+        final int rowAccessWindowSize = ((SXSSFSheet) sheet).getWorkbook().getRandomAccessWindowSize();
+        if(rowAccessWindowSize < 0){
+            return -1; // 제한 없음(모든 Row를 메모리에 유지)
+        }
+        final List<Integer> rowIndexList = new ArrayList<>(rowAccessWindowSize + 1);
+        for(Iterator<Row> iterator = sheet.rowIterator(); iterator.hasNext();){ // 메모리에 남아 있는 Row만 순회한다.
+            rowIndexList.add(iterator.next().getRowNum());
+        }
+        rowIndexList.add(newRowIndex);
+        Collections.sort(rowIndexList);
+        final int flushCount = rowIndexList.size() - rowAccessWindowSize;
+        return flushCount > 0 ? rowIndexList.get(flushCount - 1) : -1;
+    }
+
+    /**
+     * Streaming 모드에서 임시 파일로 내려간 Row의 CellController를 cellControllerIndex에서 제거한다.
+     */
+    private void pruneFlushedCellControllers(){
+        if(!isStreaming()){
+            return;
+        }
+        final int lastFlushedRowIndex = ((SXSSFSheet) sheet).getLastFlushedRowNum();
+        if(lastFlushedRowIndex > prunedRowIndex){
+            cellControllerIndex.removeRowsUpTo(lastFlushedRowIndex);
+            prunedRowIndex = lastFlushedRowIndex;
+        }
+    }
+
+    /**
+     * rowIndex, colIndex의 CellController를 반환한다. 없으면 Cell과 함께 생성한다.
+     * @param rowIndex Row의 번호(0부터 시작).
+     * @param colIndex Column의 번호(0부터 시작).
+     * @return rowIndex, colIndex의 CellController
+     */
+    CellController selectCell(int rowIndex, int colIndex){
+        CellController cellController = cellControllerIndex.get(rowIndex, colIndex);
+        if(cellController == null){
+            Row row = getOrCreateRow(rowIndex);
+            Cell cell = row.getCell(colIndex);
+            if(cell == null){
+                cell = row.createCell(colIndex);
+                createdCellCount++;
+            }
+            cellController = new CellController(cell, this);
+            cellControllerIndex.put(rowIndex, colIndex, cellController);
+        }
+        return cellController;
+    }
+
+    /**
+     * 여러 Row를 한 번에 쓴다.
+     * CellController를 만들지 않고 POI의 Row, Cell에 값을 바로 쓰며, columnStyles는 호출마다 한 번만 공유 XSSFCellStyle로 변환한다.
+     * @param startRowIndex 처음 쓸 Row의 번호(0부터 시작).
+     * @param startColIndex 처음 쓸 Column의 번호(0부터 시작).
+     * @param rowIterator 쓸 Row들, Row 하나는 Column 순서의 값 배열
+     * @param columnStyles Column별 스타일(startColIndex부터), 부족하거나 null인 Column은 스타일을 설정하지 않는다.
+     * @return 마지막으로 쓴 Row의 다음 Row 번호
+     */
+    int writeRows(int startRowIndex, int startColIndex, Iterator<Object[]> rowIterator, ColumnStyle[] columnStyles){
+        final boolean isStreaming = isStreaming();
+        final Object lock = workbookContext.getLock();
+        final XSSFCellStyle[] cellStyles = new XSSFCellStyle[columnStyles == null ? 0 : columnStyles.length];
+        if(cellStyles.length > 0){
+            synchronized(lock){
+                for(int i = 0; i < cellStyles.length; i++){
+                    if(columnStyles[i] != null){
+                        cellStyles[i] = columnStyles[i].resolve(workbookContext.getStyleRegistry());
+                    }
+                }
+            }
+        }
+
+        final GlyphWidthTable[] autoFitGlyphWidthTables = getAutoFitGlyphWidthTables(startColIndex, cellStyles);
+        final DataFormatter dataFormatter = autoFitGlyphWidthTables.length > 0 ? new DataFormatter() : null;
+
+        int rowIndex = startRowIndex;
+        while(rowIterator.hasNext()){
+            final Object[] values = rowIterator.next();
+            final Row row = getOrCreateRow(rowIndex);
+            final int colCount = Math.max(values == null ? 0 : values.length, cellStyles.length);
+            for(int i = 0; i < colCount; i++){
+                final Object value = values != null && i < values.length ? values[i] : null;
+                final XSSFCellStyle cellStyle = i < cellStyles.length ? cellStyles[i] : null;
+                if(value == null && cellStyle == null){
+                    continue;
+                }
+                Cell cell = row.getCell(startColIndex + i);
+                if(cell == null){
+                    cell = row.createCell(startColIndex + i);
+                    createdCellCount++;
+                }
+                if(cellStyle != null){
+                    setCellStyleIndex(cell, cellStyle);
+                }
+                if(value != null){
+                    setCellValue(cell, value, isStreaming ? null : lock);
+                    if(i < autoFitGlyphWidthTables.length && autoFitGlyphWidthTables[i] != null && mergedRegionIndex.get(rowIndex, startColIndex + i) == null){
+                        final String text = value instanceof String ? (String) value : dataFormatter.formatCellValue(cell);
+                        columnAutoFit.update(startColIndex + i, autoFitGlyphWidthTables[i].getMaxLineWidth(text));
+                    }
+                }
+            }
+            rowIndex++;
+        }
+        return rowIndex;
+    }
+
+    /**
+     * writeRows()에서 자동 넓이를 설정한 Column에 쓸 글자 넓이 표를 구한다.
+     * 스타일이 없는 Column은 Workbook의 기본 폰트를 사용한다.
+     * @return Column별(startColIndex부터) 글자 넓이 표, 자동 넓이가 아닌 Column은 null
+     */
+    private GlyphWidthTable[] getAutoFitGlyphWidthTables(int startColIndex, XSSFCellStyle[] cellStyles){
+        final GlyphWidthTable[] glyphWidthTables = new GlyphWidthTable[Math.max(0, columnAutoFit.getColumnLimit() - startColIndex)];
+        for(int i = 0; i < glyphWidthTables.length; i++){
+            if(columnAutoFit.isEnabled(startColIndex + i)){
+                if(i >= cellStyles.length || cellStyles[i] == null){
+                    glyphWidthTables[i] = workbookContext.getBaseGlyphWidthTable();
+                    continue;
+                }
+                synchronized(workbookContext.getLock()){ // StylesTable은 Workbook 공용
+                    final XSSFFont font = cellStyles[i].getFont();
+                    glyphWidthTables[i] = GlyphWidthTable.of(font.getFontName(), font.getFontHeightInPoints(), font.getBold());
+                }
+            }
+        }
+        return glyphWidthTables;
+    }
+
+    /**
+     * &#64;ExcelColumn이 붙은 객체들을 Header Row와 데이터 Row로 쓴다.
+     * Column의 Width도 &#64;ExcelColumn의 width로 변경한다.
+     * @param startRowIndex Header Row의 번호(0부터 시작).
+     * @param startColIndex 처음 쓸 Column의 번호(0부터 시작).
+     * @param recordIterator 쓸 객체들
+     * @param type 객체의 타입
+     * @return 마지막으로 쓴 Row의 다음 Row 번호
+     */
+    <T> int writeRecords(int startRowIndex, int startColIndex, Iterator<? extends T> recordIterator, Class<T> type){
+        final RecordMapper<T> recordMapper = RecordMapper.of(type);
+        final int[] widthPixels = recordMapper.getWidthPixels();
+        for(int i = 0; i < widthPixels.length; i++){
+            if(widthPixels[i] > 0){
+                setColumnWidthInPixel(startColIndex + i, widthPixels[i]);
+            }
+        }
+        int rowIndex = writeRows(startRowIndex, startColIndex, Collections.singletonList(recordMapper.getHeaderRow()).iterator(), recordMapper.getHeaderStyles());
+        return writeRows(rowIndex, startColIndex, recordMapper.toRowIterator(recordIterator), recordMapper.getDataStyles());
+    }
+
+    /**
+     * Cell에 이미 Workbook에 등록된 공유 XSSFCellStyle을 설정한다.
+     * XSSFCell.setCellStyle()은 StylesTable에서 스타일 위치를 매번 찾으므로(Workbook 공용, 스타일 수에 비례), XSSFCell은 스타일 index를 바로 설정한다.
+     */
+    private static void setCellStyleIndex(Cell cell, XSSFCellStyle cellStyle){
+        if(cell instanceof XSSFCell){
+            ((XSSFCell) cell).getCTCell().setS(cellStyle.getIndex() & 0xFFFF);
+        }else{
+            cell.setCellStyle(cellStyle); // SXSSFCell은 참조만 저장한다.
+        }
+    }
+
+    /**
+     * value의 타입에 맞게 Cell의 값을 설정한다.
+     * 문자열은 XSSF 모드에서 Workbook 공용 SharedStringsTable에 추가되므로 lock을 잡는다.(Streaming 모드는 inline 문자열이므로 lock이 null)
+     */
+    private static void setCellValue(Cell cell, Object value, Object sharedStringsLock){
+        if(value instanceof Number){
+            cell.setCellValue(((Number) value).doubleValue());
+        }else if(value instanceof Boolean){
+            cell.setCellValue((Boolean) value);
+        }else if(value instanceof Date){
+            cell.setCellValue((Date) value);
+        }else if(value instanceof LocalDateTime){
+            cell.setCellValue((LocalDateTime) value);
+        }else if(value instanceof LocalDate){
+            cell.setCellValue((LocalDate) value);
+        }else if(value instanceof Calendar){
+            cell.setCellValue((Calendar) value);
+        }else if(value instanceof RichTextString){
+            if(sharedStringsLock == null){
+                cell.setCellValue((RichTextString) value);
+            }else{
+                synchronized(sharedStringsLock){
+                    cell.setCellValue((RichTextString) value);
+                }
+            }
+        }else{
+            String text = value.toString();
+            if(sharedStringsLock == null){
+                cell.setCellValue(text);
+            }else{
+                synchronized(sharedStringsLock){
+                    cell.setCellValue(text);
+                }
+            }
+        }
+    }
+
+    /**
+     * Column의 Width를 pixel으로 변경한다.
+     * @param columnIndex 변경할 Column의 번호(0부터 시작).
+     * @param pixel
+     */
+    void setColumnWidthInPixel(int columnIndex, int pixel){
+        sheet.setColumnWidth(columnIndex, UnitConverter.widthPixelToWidth(pixel, workbookContext.getBaseFontPoint()));
+    }
+
+    /**
+     * Column의 Width를 Text에 맞춰 자동으로 변경하도록 설정한다.
+     * 설정한 뒤에 쓰는 Cell의 Text 넓이를 기억했다가, applyColumnAutoFit()에서 한 번만 Width를 변경한다.
+     * @param columnIndex 변경할 Column의 번호(0부터 시작).
+     * @param minPixel 최소 넓이(pixel)
+     * @param maxPixel 최대 넓이(pixel), 0 이하이면 제한하지 않는다.
+     */
+    void setColumnAutoFit(int columnIndex, int minPixel, int maxPixel){
+        columnAutoFit.enable(columnIndex, minPixel, maxPixel);
+    }
+
+    /**
+     * Column에 자동 넓이가 설정되어 있는지 반환한다.
+     * @param columnIndex Column의 번호(0부터 시작).
+     * @return 자동 넓이가 설정되어 있으면 true
+     */
+    boolean isColumnAutoFit(int columnIndex){
+        return columnAutoFit.isEnabled(columnIndex);
+    }
+
+    /**
+     * Cell에 쓴 Text의 넓이를 Column의 자동 넓이에 반영한다.
+     * 여러 Column에 걸쳐 Merge된 Cell은 반영하지 않는다.(POI autoSizeColumn()의 기본 동작과 같다.)
+     * @param rowIndex Row의 번호(0부터 시작).
+     * @param columnIndex 자동 넓이를 설정한 Column의 번호(0부터 시작).
+     * @param textWidth Text의 넓이(pixel)
+     */
+    void fitColumn(int rowIndex, int columnIndex, float textWidth){
+        if(mergedRegionIndex.get(rowIndex, columnIndex) == null){
+            columnAutoFit.update(columnIndex, textWidth);
+        }
+    }
+
+    /**
+     * 자동 넓이를 설정한 Column의 Width를 지금까지 쓴 가장 넓은 Text에 맞춰 변경한다.
+     * ExcelContoller.write()에서 호출한다.
+     */
+    void applyColumnAutoFit(){
+        final double fontPoint = workbookContext.getBaseFontPoint();
+        for(int columnIndex = 0; columnIndex < columnAutoFit.getColumnLimit(); columnIndex++){
+            if(!columnAutoFit.isEnabled(columnIndex)){
+                continue;
+            }
+            final int widthPixel = columnAutoFit.getWidthPixel(columnIndex);
+            if(widthPixel > 0){
+                sheet.setColumnWidth(columnIndex, Math.min(UnitConverter.widthPixelToWidth(widthPixel, fontPoint), MAX_COLUMN_WIDTH));
+            }
+        }
+    }
+
+    /**
+     * Cell을 Merge한다.
+     * @param cellRangeAddress Merge할 영역
+     */
+    void addMergedRegion(CellRangeAddress cellRangeAddress){
+        sheet.addMergedRegion(cellRangeAddress);
+        if(cellRangeAddress.getFirstColumn() != cellRangeAddress.getLastColumn()){
+            mergedRegionIndex.put(cellRangeAddress.getFirstRow(), cellRangeAddress.getFirstColumn(), cellRangeAddress);
+        }
+    }
+
+    /**
+     * 변경 사항이 있는 CellController를 등록한다.
+     * @param cellController
+     */
+    void addPendingCellController(CellController cellController){
+        pendingCellControllers.add(cellController);
+    }
+
+    /**
+     * 등록된 CellController의 변경 사항을 Workbook에 반영한다.
+     */
+    void flushPendingCellControllers(){
+        for(CellController cellController : pendingCellControllers){
+            cellController.flush();
+        }
+        pendingCellControllers.clear();
+    }
+
+    /**
+     * Row Height, 이미지/첨부 파일 위치를 계산해야 하는 CellController를 등록한다.
+     * @param cellController
+     */
+    void addLayoutPendingCellController(CellController cellController){
+        layoutPendingCellControllers.add(cellController);
+    }
+
+    /**
+     * 등록된 CellController의 Row Height, 이미지/첨부 파일 위치를 지금의 Column Width로 계산한다.(CellController.layout() 참고)
+     * flushPendingCellControllers() 다음에 호출해야 한다.
+     */
+    void layoutPendingCellControllers(){
+        for(CellController cellController : layoutPendingCellControllers){
+            cellController.layout();
+        }
+        layoutPendingCellControllers.clear();
+    }
+
+    /**
+     * 등록된 CellController 중 lastRowIndex 이하의 Row만 지금의 Column Width로 배치한다.(Streaming 모드에서 임시 파일로 내려가기 전)
+     * @param lastRowIndex 배치할 마지막 Row의 번호(0부터 시작), 음수이면 아무것도 배치하지 않는다.
+     */
+    private void layoutPendingCellControllersUpTo(int lastRowIndex){
+        if(lastRowIndex < 0){
+            return;
+        }
+        for(Iterator<CellController> iterator = layoutPendingCellControllers.iterator(); iterator.hasNext();){
+            CellController cellController = iterator.next();
+            if(cellController.getRowIndex() <= lastRowIndex){
+                cellController.layout();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * CellController 인덱스를 비운다.
+     */
+    void clear(){
+        cellControllerIndex.clear();
+        pendingCellControllers.clear();
+        layoutPendingCellControllers.clear();
+        mergedRegionIndex.clear();
+    }
+}
@@ -0,0 +1,175 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Row, Column 번호로 값을 찾는 희소(sparse) 격자 인덱스.
+ * Row마다 Column 번호를 그대로 index로 쓰는 배열을 두므로, 조회 시 Key 객체 생성이나 hash 계산이 없다.
+ * 값이 한 번도 저장되지 않은 Row는 배열을 만들지 않는다.
+ * 앞쪽 Row를 제거하면(removeRowsUpTo) 배열의 시작 위치를 옮겨, Streaming 모드에서도 메모리가 Row 수에 비례해 늘어나지 않는다.
+ * @param <T> 저장할 값의 타입
+ */
+class SparseCellIndex<T> {
+    private static final int INITIAL_ROW_CAPACITY = 16;
+    private static final int INITIAL_COL_CAPACITY = 8;
+
+    private Object[][] rows = new Object[INITIAL_ROW_CAPACITY][];
+    private int rowOffset = 0; // rows[0]에 해당하는 Row 번호
+    private int size = 0;
+
+    /**
+     * rowIndex, colIndex의 값을 반환한다.
+     * @param rowIndex Row의 번호(0부터 시작).
+     * @param colIndex Column의 번호(0부터 시작).
+     * @return rowIndex, colIndex의 값을 반환한다. 값이 없거나 번호가 음수이면 null을 반환한다.
+     */
+    @SuppressWarnings("unchecked")
+    T get(int rowIndex, int colIndex){
+        if(rowIndex < 0 || colIndex < 0){
+            return null;
+        }
+        final int index = rowIndex - rowOffset;
+        if(index >= 0 && index < rows.length){
+            final Object[] row = rows[index];
+            if(row != null && colIndex < row.length){
+                return (T) row[colIndex];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * rowIndex, colIndex에 값을 저장한다.
+     * @param rowIndex Row의 번호(0부터 시작).
+     * @param colIndex Column의 번호(0부터 시작).
+     * @param value 저장할 값(null 불가)
+     * @throws IllegalArgumentException rowIndex, colIndex가 음수이거나 이미 제거된 Row인 경우
+     */
+    void put(int rowIndex, int colIndex, T value){
+        if(rowIndex < 0 || colIndex < 0){
+            throw new IllegalArgumentException("Row and column index must not be negative: (" + rowIndex + ", " + colIndex + ").");
+        }
+        if(rowIndex < rowOffset){
+            throw new IllegalArgumentException("Row " + rowIndex + " has already been removed from the index (first row: " + rowOffset + ").");
+        }
+        final int index = rowIndex - rowOffset;
+        if(index >= rows.length){
+            rows = Arrays.copyOf(rows, Math.max(index + 1, rows.length * 2));
+        }
+        Object[] row = rows[index];
+        if(row == null){
+            row = new Object[Math.max(colIndex + 1, INITIAL_COL_CAPACITY)];
+            rows[index] = row;
+        }else if(colIndex >= row.length){
+            row = Arrays.copyOf(row, Math.max(colIndex + 1, row.length * 2));
+            rows[index] = row;
+        }
+        if(row[colIndex] == null){
+            size++;
+        }
+        row[colIndex] = value;
+    }
+
+    /**
+     * lastRowIndex 이하의 Row를 모두 제거한다.
+     * @param lastRowIndex 제거할 마지막 Row의 번호(0부터 시작).
+     */
+    void removeRowsUpTo(int lastRowIndex){
+        final int removeCount = Math.min(lastRowIndex - rowOffset + 1, rows.length);
+        if(removeCount <= 0){
+            return;
+        }
+        for(int i = 0; i < removeCount; i++){
+            if(rows[i] != null){
+                size -= countValues(rows[i]);
+            }
+        }
+        System.arraycopy(rows, removeCount, rows, 0, rows.length - removeCount);
+        Arrays.fill(rows, rows.length - removeCount, rows.length, null);
+        rowOffset = lastRowIndex + 1;
+    }
+
+    /**
+     * rowIndex의 Row에서 firstColIndex ~ lastColIndex 범위의 값을 순회한다.
+     * @param rowIndex Row의 번호(0부터 시작).
+     * @param firstColIndex 시작 Column의 번호(0부터 시작).
+     * @param lastColIndex 종료 Column의 번호(0부터 시작).
+     * @param action 값마다 실행할 작업
+     */
+    void forEachInRow(int rowIndex, int firstColIndex, int lastColIndex, Consumer<? super T> action){
+        forEachInRange(rowIndex, rowIndex, firstColIndex, lastColIndex, action);
+    }
+
+    /**
+     * colIndex의 Column에서 firstRowIndex ~ lastRowIndex 범위의 값을 순회한다.
+     * @param colIndex Column의 번호(0부터 시작).
+     * @param firstRowIndex 시작 Row의 번호(0부터 시작).
+     * @param lastRowIndex 종료 Row의 번호(0부터 시작).
+     * @param action 값마다 실행할 작업
+     */
+    void forEachInColumn(int colIndex, int firstRowIndex, int lastRowIndex, Consumer<? super T> action){
+        forEachInRange(firstRowIndex, lastRowIndex, colIndex, colIndex, action);
+    }
+
+    /**
+     * firstRowIndex ~ lastRowIndex, firstColIndex ~ lastColIndex 범위의 값을 Row 순서대로 순회한다.
+     * @param firstRowIndex 시작 Row의 번호(0부터 시작).
+     * @param lastRowIndex 종료 Row의 번호(0부터 시작).
+     * @param firstColIndex 시작 Column의 번호(0부터 시작).
+     * @param lastColIndex 종료 Column의 번호(0부터 시작).
+     * @param action 값마다 실행할 작업
+     */
+    @SuppressWarnings("unchecked")
+    void forEachInRange(int firstRowIndex, int lastRowIndex, int firstColIndex, int lastColIndex, Consumer<? super T> action){
+        final int fromIndex = Math.max(firstRowIndex - rowOffset, 0);
+        final int toIndex = Math.min(lastRowIndex - rowOffset, rows.length - 1);
+        for(int i = fromIndex; i <= toIndex; i++){
+            final Object[] row = rows[i];
+            if(row == null){
+                continue;
+            }
+            final int toColIndex = Math.min(lastColIndex, row.length - 1);
+            for(int j = Math.max(firstColIndex, 0); j <= toColIndex; j++){
+                if(row[j] != null){
+                    action.accept((T) row[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 모든 값을 Row, Column 순서대로 순회한다.
+     * @param action 값마다 실행할 작업
+     */
+    void forEach(Consumer<? super T> action){
+        forEachInRange(rowOffset, Integer.MAX_VALUE, 0, Integer.MAX_VALUE, action);
+    }
+
+    /**
+     * 저장된 값의 수를 반환한다.
+     * @return 저장된 값의 수를 반환한다.
+     */
+    int size(){
+        return size;
+    }
+
+    /**
+     * 모든 값을 제거한다.
+     */
+    void clear(){
+        rows = new Object[INITIAL_ROW_CAPACITY][];
+        rowOffset = 0;
+        size = 0;
+    }
+
+    private static int countValues(Object[] row){
+        int count = 0;
+        for(Object value : row){
+            if(value != null){
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,112 @@
+package com.practice.practice.apachepoi.simple;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+
+import lombok.AccessLevel;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * CellStyle을 공유하기 위한 Key.
+ * Cell의 모양을 결정하는 속성(정렬, 줄 바꿈, 채우기, 테두리, 테두리 색, 폰트, 표현형식)으로 구성된다.
+ * 불변 객체이며, 속성을 변경하면 새로운 StyleKey를 반환한다.
+ */
+@Value
+@With(AccessLevel.PACKAGE)
+class StyleKey {
+    static final int NO_COLOR = -1;
+
+    /**
+     * CellController의 기본 스타일.(글자 위쪽 맞춤, 텍스트 줄 바꿈)
+     */
+    static final StyleKey DEFAULT = new StyleKey(
+        HorizontalAlignment.GENERAL,
+        VerticalAlignment.TOP,
+        true,
+        FillPatternType.NO_FILL,
+        NO_COLOR,
+        BorderStyle.NONE,
+        BorderStyle.NONE,
+        BorderStyle.NONE,
+        BorderStyle.NONE,
+        NO_COLOR,
+        NO_COLOR,
+        NO_COLOR,
+        NO_COLOR,
+        0,
+        (short) 0
+    );
+
+    HorizontalAlignment horizontalAlignment;
+    VerticalAlignment verticalAlignment;
+    boolean wrapText;
+    FillPatternType fillPattern;
+    int fillColor; // RGB, 없으면 NO_COLOR
+    BorderStyle topBorder;
+    BorderStyle bottomBorder;
+    BorderStyle leftBorder;
+    BorderStyle rightBorder;
+    int topBorderColor; // RGB, 없으면 NO_COLOR
+    int bottomBorderColor;
+    int leftBorderColor;
+    int rightBorderColor;
+    int fontIndex;
+    short dataFormat;
+
+    /**
+     * R, G, B를 하나의 int(0xRRGGBB)로 변환한다.
+     * @param R
+     * @param G
+     * @param B
+     * @return R, G, B를 하나의 int(0xRRGGBB)로 변환한다.
+     */
+    static int toRgb(int R, int G, int B){
+        return ((R & 0xFF) << 16) | ((G & 0xFF) << 8) | (B & 0xFF);
+    }
+
+    /**
+     * XSSFColor를 하나의 int(0xRRGGBB)로 변환한다.
+     * @param color
+     * @return XSSFColor를 하나의 int(0xRRGGBB)로 변환한다. RGB 값이 없으면 NO_COLOR를 반환한다.
+     */
+    static int toRgb(XSSFColor color){
+        if(color == null){
+            return NO_COLOR;
+        }
+        byte[] rgb = color.getRGB();
+        if(rgb == null || rgb.length < 3){
+            return NO_COLOR;
+        }
+        return toRgb(rgb[0], rgb[1], rgb[2]);
+    }
+
+    /**
+     * 이미 만들어진 XSSFCellStyle의 속성으로 StyleKey를 생성한다.
+     * @param cellStyle
+     * @return XSSFCellStyle의 속성으로 만든 StyleKey
+     */
+    static StyleKey of(XSSFCellStyle cellStyle){
+        return new StyleKey(
+            cellStyle.getAlignment(),
+            cellStyle.getVerticalAlignment(),
+            cellStyle.getWrapText(),
+            cellStyle.getFillPattern(),
+            toRgb(cellStyle.getFillForegroundXSSFColor()),
+            cellStyle.getBorderTop(),
+            cellStyle.getBorderBottom(),
+            cellStyle.getBorderLeft(),
+            cellStyle.getBorderRight(),
+            toRgb(cellStyle.getTopBorderXSSFColor()),
+            toRgb(cellStyle.getBottomBorderXSSFColor()),
+            toRgb(cellStyle.getLeftBorderXSSFColor()),
+            toRgb(cellStyle.getRightBorderXSSFColor()),
+            cellStyle.getFontIndex(),
+            cellStyle.getDataFormat()
+        );
+    }
+}
@@ -0,0 +1,212 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.xssf.usermodel.IndexedColorMap;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Workbook 단위로 CellStyle, Font, Color를 공유하는 저장소.
+ * 같은 StyleKey(같은 모양)의 Cell은 하나의 XSSFCellStyle을 공유한다.
+ * 같은 FontKey(이름, 크기, 색상, 굵기)의 Font와 같은 RGB의 XSSFColor도 하나만 생성한다.
+ * 공유된 XSSFCellStyle과 XSSFFont는 직접 수정하지 않고, 속성이 바뀌면 새로운 Key로 다시 조회한다.(copy-on-write)
+ */
+class StyleRegistry {
+    private final XSSFWorkbook workbook;
+    private final IndexedColorMap indexedColors;
+    private final Map<StyleKey, XSSFCellStyle> cellStyleMap = new HashMap<>();
+    private final Map<FontKey, XSSFFont> fontMap = new HashMap<>();
+    private final Map<Integer, XSSFFont> fontIndexMap = new HashMap<>(); // key: fontIndex, 공유 Font와 등록된 Font만 포함
+    private final Map<Integer, XSSFColor> colorMap = new HashMap<>(); // key: RGB(0xRRGGBB)
+    private final Map<String, Short> dataFormatMap = new HashMap<>(); // key: 표현형식 문자열
+
+    StyleRegistry(XSSFWorkbook workbook){
+        this.workbook = workbook;
+        this.indexedColors = workbook.getStylesSource().getIndexedColors();
+    }
+
+    /**
+     * Workbook에 이미 있는 Font와 CellStyle을 등록한다.(템플릿으로 연 Workbook 등)
+     * 같은 모양의 Cell은 새로 만들지 않고 등록된 Font와 CellStyle을 사용한다.
+     * 테마 색상처럼 RGB로 표현할 수 없는 색상을 사용하는 Font와 CellStyle은 등록하지 않는다.(Key로 구분할 수 없으므로)
+     */
+    void registExistingStyles(){
+        for(int i = 0; i < workbook.getNumberOfFonts(); i++){
+            XSSFFont font = workbook.getFontAt(i);
+            if(isRgbOrEmpty(font.getXSSFColor())){
+                registFont(FontKey.of(font), font);
+            }
+        }
+        for(int i = 0; i < workbook.getNumCellStyles(); i++){
+            XSSFCellStyle cellStyle = workbook.getCellStyleAt(i);
+            if(isRgbOrEmpty(cellStyle.getFillForegroundXSSFColor())
+                && isRgbOrEmpty(cellStyle.getTopBorderXSSFColor())
+                && isRgbOrEmpty(cellStyle.getBottomBorderXSSFColor())
+                && isRgbOrEmpty(cellStyle.getLeftBorderXSSFColor())
+                && isRgbOrEmpty(cellStyle.getRightBorderXSSFColor())
+                && fontIndexMap.containsKey(cellStyle.getFontIndex())
+            ){
+                cellStyleMap.putIfAbsent(StyleKey.of(cellStyle), cellStyle);
+            }
+        }
+    }
+
+    private static boolean isRgbOrEmpty(XSSFColor color){
+        return color == null || StyleKey.toRgb(color) != StyleKey.NO_COLOR;
+    }
+
+    /**
+     * 이미 Workbook에 만들어진 Font를 fontKey로 등록한다.(예: 기본 폰트)
+     * 이미 같은 fontKey가 등록되어 있으면 무시한다.
+     * @param fontKey
+     * @param font
+     */
+    void registFont(FontKey fontKey, XSSFFont font){
+        if(!fontMap.containsKey(fontKey)){
+            fontMap.put(fontKey, font);
+            fontIndexMap.put(font.getIndex(), font);
+        }
+    }
+
+    /**
+     * fontKey에 해당하는 XSSFFont를 반환한다.
+     * 등록된 XSSFFont가 없으면 새로 생성 후 등록한다.
+     * @param fontKey
+     * @return fontKey에 해당하는 XSSFFont를 반환한다.
+     */
+    XSSFFont getFont(FontKey fontKey){
+        XSSFFont font = fontMap.get(fontKey);
+        if(font == null){
+            font = workbook.createFont();
+            font.setFontName(fontKey.getFontName());
+            font.setFontHeightInPoints(fontKey.getFontPoint());
+            if(fontKey.getColor() != StyleKey.NO_COLOR){
+                font.setColor(getColor(fontKey.getColor()));
+            }
+            font.setBold(fontKey.isBold());
+            fontMap.put(fontKey, font);
+            fontIndexMap.put(font.getIndex(), font);
+        }
+        return font;
+    }
+
+    /**
+     * fontIndex에 해당하는 XSSFFont를 반환한다.
+     * @param fontIndex
+     * @return fontIndex에 해당하는 XSSFFont를 반환한다.
+     */
+    XSSFFont getFontAt(int fontIndex){
+        XSSFFont font = fontIndexMap.get(fontIndex);
+        return font != null ? font : workbook.getFontAt(fontIndex);
+    }
+
+    /**
+     * 등록된 XSSFFont의 수를 반환한다.
+     * @return 등록된 XSSFFont의 수를 반환한다.
+     */
+    int getFontCount(){
+        return fontMap.size();
+    }
+
+    /**
+     * 생성된 XSSFColor의 수를 반환한다.
+     * @return 생성된 XSSFColor의 수를 반환한다.
+     */
+    int getColorCount(){
+        return colorMap.size();
+    }
+
+    /**
+     * styleKey에 해당하는 XSSFCellStyle을 반환한다.
+     * 등록된 XSSFCellStyle이 없으면 새로 생성 후 등록한다.
+     * @param styleKey
+     * @return styleKey에 해당하는 XSSFCellStyle을 반환한다.
+     */
+    XSSFCellStyle getCellStyle(StyleKey styleKey){
+        XSSFCellStyle cellStyle = cellStyleMap.get(styleKey);
+        if(cellStyle == null){
+            cellStyle = createCellStyle(styleKey);
+            cellStyleMap.put(styleKey, cellStyle);
+        }
+        return cellStyle;
+    }
+
+    /**
+     * 등록된 XSSFCellStyle의 수를 반환한다.
+     * @return 등록된 XSSFCellStyle의 수를 반환한다.
+     */
+    int getCellStyleCount(){
+        return cellStyleMap.size();
+    }
+
+    /**
+     * styleKey의 속성으로 XSSFCellStyle을 생성한다.
+     * @param styleKey
+     * @return styleKey의 속성으로 생성한 XSSFCellStyle
+     */
+    private XSSFCellStyle createCellStyle(StyleKey styleKey){
+        XSSFCellStyle cellStyle = workbook.createCellStyle();
+        cellStyle.setAlignment(styleKey.getHorizontalAlignment());
+        cellStyle.setVerticalAlignment(styleKey.getVerticalAlignment());
+        cellStyle.setWrapText(styleKey.isWrapText());
+        cellStyle.setFillPattern(styleKey.getFillPattern());
+        if(styleKey.getFillColor() != StyleKey.NO_COLOR){
+            cellStyle.setFillForegroundColor(getColor(styleKey.getFillColor()));
+        }
+        cellStyle.setBorderTop(styleKey.getTopBorder());
+        cellStyle.setBorderBottom(styleKey.getBottomBorder());
+        cellStyle.setBorderLeft(styleKey.getLeftBorder());
+        cellStyle.setBorderRight(styleKey.getRightBorder());
+        if(styleKey.getTopBorderColor() != StyleKey.NO_COLOR){
+            cellStyle.setTopBorderColor(getColor(styleKey.getTopBorderColor()));
+        }
+        if(styleKey.getBottomBorderColor() != StyleKey.NO_COLOR){
+            cellStyle.setBottomBorderColor(getColor(styleKey.getBottomBorderColor()));
+        }
+        if(styleKey.getLeftBorderColor() != StyleKey.NO_COLOR){
+            cellStyle.setLeftBorderColor(getColor(styleKey.getLeftBorderColor()));
+        }
+        if(styleKey.getRightBorderColor() != StyleKey.NO_COLOR){
+            cellStyle.setRightBorderColor(getColor(styleKey.getRightBorderColor()));
+        }
+        cellStyle.setFont(getFontAt(styleKey.getFontIndex()));
+        cellStyle.setDataFormat(styleKey.getDataFormat());
+        return cellStyle;
+    }
+
+    /**
+     * RGB(0xRRGGBB)에 해당하는 XSSFColor를 반환한다.
+     * 같은 RGB의 XSSFColor는 한 번만 생성한다.
+     * XSSFCellStyle과 XSSFFont는 XSSFColor의 값을 복사해서 사용하므로 공유해도 안전하다.
+     * @param rgb
+     * @return RGB(0xRRGGBB)에 해당하는 XSSFColor를 반환한다.
+     */
+    XSSFColor getColor(int rgb){
+        XSSFColor color = colorMap.get(rgb);
+        if(color == null){
+            byte[] rgbByteArray = new byte[]{(byte)(rgb >> 16), (byte)(rgb >> 8), (byte)rgb};
+            color = new XSSFColor(rgbByteArray, indexedColors);
+            colorMap.put(rgb, color);
+        }
+        return color;
+    }
+
+    /**
+     * 표현형식 문자열의 index를 반환한다.
+     * 기본 표현형식에 없는 형식은 Workbook에 추가한다.
+     * @param dataFormat 표현형식, 예시) "yyyy-mm-dd"
+     * @return 표현형식 문자열의 index
+     */
+    short getDataFormat(String dataFormat){
+        Short index = dataFormatMap.get(dataFormat);
+        if(index == null){
+            index = workbook.createDataFormat().getFormat(dataFormat);
+            dataFormatMap.put(dataFormat, index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,17 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.io.IOException;
+
+/**
+ * ExcelTemplate.build()에서 템플릿 Workbook을 꾸미는 작업.
+ * 요청마다 바뀌지 않는 부분(Header, Column Width, 스타일, 로고 이미지 등)만 작성한다.
+ */
+@FunctionalInterface
+public interface TemplateBuildTask {
+    /**
+     * 템플릿 Workbook을 꾸민다.
+     * @param excelContoller 템플릿을 작성할 ExcelContoller(일반 XSSFWorkbook 모드)
+     * @throws IOException
+     */
+    void build(ExcelContoller excelContoller) throws IOException;
+}
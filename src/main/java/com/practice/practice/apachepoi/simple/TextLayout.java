@@ -0,0 +1,146 @@
+package com.practice.practice.apachepoi.simple;
+
+/**
+ * Cell에 이어서 추가되는 Text와 줄 수 계산 상태를 함께 관리한다.
+ * 마지막으로 계산한 줄 수 상태(완성된 줄 수, 마지막 줄의 넓이)를 유지하므로,
+ * Text를 이어 붙일 때는 새로 붙인 Text만 계산한다.
+ * 글자 넓이 표나 줄 넓이가 바뀌면(폰트 변경, Column 넓이 변경) 전체 Text를 한 번 다시 계산한다.
+ */
+class TextLayout {
+    private final StringBuilder text = new StringBuilder();
+    private boolean isMeasured = false;
+    private GlyphWidthTable glyphWidthTable;
+    private double maxWidthPixel;
+    private int completedLineCount; // 줄 바꿈 문자로 끝난 줄 수
+    private double lastLineWidth; // 마지막 줄(줄 바꿈 문자 이후)에 쌓인 글자 넓이(pixel)
+
+    /**
+     * Text를 text로 교체한다.
+     * @param text null이면 Text를 모두 지운다.
+     */
+    void setText(CharSequence text){
+        this.text.setLength(0);
+        if(text != null){
+            this.text.append(text);
+        }
+        isMeasured = false;
+    }
+
+    /**
+     * Text를 모두 지운다.
+     */
+    void clear(){
+        setText("");
+    }
+
+    /**
+     * Text를 이어서 추가한다.
+     * 이미 줄 수를 계산한 상태라면 추가된 Text만 계산한다.
+     * @param appendText
+     */
+    void append(CharSequence appendText){
+        final int start = text.length();
+        text.append(appendText);
+        if(isMeasured){
+            measure(start);
+        }
+    }
+
+    /**
+     * 줄 바꿈 문자를 count개 추가한다.
+     * @param count
+     */
+    void appendNewLine(int count){
+        for(int i = 0; i < count; i++){
+            append("\n");
+        }
+    }
+
+    /**
+     * 한 Line의 넓이(pixel)에 글자가 얼마나 들어갈 수 있는지 판단하여 text의 총 Line 수를 구한다.
+     * @param glyphWidthTable 글자 넓이 표
+     * @param maxWidthPixel 한 Line의 넓이(pixel)
+     * @return text의 총 Line 수
+     */
+    int getLineCount(GlyphWidthTable glyphWidthTable, double maxWidthPixel){
+        if(!isMeasured || this.glyphWidthTable != glyphWidthTable || this.maxWidthPixel != maxWidthPixel){
+            this.glyphWidthTable = glyphWidthTable;
+            this.maxWidthPixel = maxWidthPixel;
+            completedLineCount = 0;
+            lastLineWidth = 0d;
+            isMeasured = true;
+            measure(0);
+        }
+        return completedLineCount + (int)(Math.ceil(lastLineWidth / maxWidthPixel));
+    }
+
+    /**
+     * 가장 넓은 줄의 넓이(pixel)를 구한다.(ColumnAutoFit)
+     * @param glyphWidthTable 글자 넓이 표
+     * @return 가장 넓은 줄의 넓이(pixel)
+     */
+    float getMaxLineWidth(GlyphWidthTable glyphWidthTable){
+        return glyphWidthTable.getMaxLineWidth(text);
+    }
+
+    /**
+     * Text의 일부를 반환한다.
+     * @param start 시작 index(포함)
+     * @param end 끝 index(제외)
+     * @return start부터 end 전까지의 Text
+     */
+    CharSequence subSequence(int start, int end){
+        return text.subSequence(start, end);
+    }
+
+    /**
+     * Text의 길이를 반환한다.
+     * @return Text의 길이를 반환한다.
+     */
+    int length(){
+        return text.length();
+    }
+
+    /**
+     * Text가 비어 있거나, 빈 줄(줄 바꿈 문자 2개)로 끝나는지 확인한다.
+     * @return Text가 비어 있거나, 빈 줄로 끝나면 true
+     */
+    boolean isEmptyOrEndsWithBlankLine(){
+        final int length = text.length();
+        if(length == 0){
+            return true;
+        }
+        if(length < 2){
+            return false;
+        }
+        final char last = text.charAt(length - 1);
+        final char beforeLast = text.charAt(length - 2);
+        return (last == '\n' && beforeLast == '\n') || (last == '\r' && beforeLast == '\r');
+    }
+
+    @Override
+    public String toString(){
+        return text.toString();
+    }
+
+    /**
+     * from부터 Text 끝까지 줄 수 상태에 반영한다.
+     * @param from 계산을 시작할 index
+     */
+    private void measure(int from){
+        for(int i = from; i < text.length(); i++){
+            final char c = text.charAt(i);
+
+            if(c == '\n' || c == '\r'){
+                if(lastLineWidth > 0d){
+                    completedLineCount += (int)(Math.ceil(lastLineWidth / maxWidthPixel));
+                    lastLineWidth = 0d;
+                }else{
+                    completedLineCount++;
+                }
+            }else{
+                lastLineWidth += glyphWidthTable.getAdvance(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.practice.practice.apachepoi.simple;
+
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 하나의 Workbook에 속한 CellController들이 공유하는 자원.
+ * ExcelContoller가 생성하고 SheetContext를 통해 CellController에 전달한다.
+ * 여러 Sheet를 동시에 채울 때, Workbook의 공용 부분(StylesTable, SharedStringsTable, OPCPackage)과
+ * StyleRegistry, PictureRegistry는 getLock()을 잡고 사용해야 한다.
+ */
+@Getter
+class WorkbookContext {
+    private final XSSFWorkbook workbook;
+    private final StyleRegistry styleRegistry;
+    private final PictureRegistry pictureRegistry;
+    @Setter(AccessLevel.PACKAGE)
+    private volatile ImageResampler imageResampler; // 설정하지 않으면 null(원본 이미지를 그대로 저장)
+    @Setter(AccessLevel.PACKAGE)
+    private volatile ExportStats exportStats; // ExcelContoller.setMetrics()를 호출하지 않으면 null(시간을 재지 않음)
+    private volatile short baseFontPoint; // 기본 폰트(CellStyle 0번의 폰트) 포인트, Column Width 변환에 사용
+    private volatile GlyphWidthTable baseGlyphWidthTable; // 기본 폰트의 글자 넓이 표
+
+    WorkbookContext(XSSFWorkbook workbook){
+        this.workbook = workbook;
+        this.styleRegistry = new StyleRegistry(workbook);
+        this.pictureRegistry = new PictureRegistry(workbook);
+        readBaseFont();
+    }
+
+    /**
+     * 기본 폰트(CellStyle 0번의 폰트)를 변경한다.
+     * @param fontName 폰트 이름
+     * @param fontPoint 폰트 포인트
+     * @return 변경한 기본 폰트
+     */
+    XSSFFont setBaseFont(String fontName, short fontPoint){
+        synchronized(getLock()){
+            XSSFFont baseFont = workbook.getCellStyleAt(0).getFont();
+            baseFont.setFontName(fontName);
+            baseFont.setFontHeightInPoints(fontPoint);
+            readBaseFont();
+            return baseFont;
+        }
+    }
+
+    /**
+     * 기본 폰트를 읽어 둔다. 이후 Column Width 변환에서는 StylesTable을 다시 읽지 않는다.
+     */
+    private void readBaseFont(){
+        synchronized(getLock()){ // StylesTable은 Workbook 공용
+            XSSFFont baseFont = workbook.getCellStyleAt(0).getFont();
+            baseFontPoint = baseFont.getFontHeightInPoints();
+            baseGlyphWidthTable = GlyphWidthTable.of(baseFont.getFontName(), baseFont.getFontHeightInPoints(), baseFont.getBold());
+        }
+    }
+
+    /**
+     * Workbook의 공용 부분을 변경할 때 잡는 lock을 반환한다.
+     * @return Workbook의 공용 부분을 변경할 때 잡는 lock
+     */
+    Object getLock(){
+        return workbook;
+    }
+}
@@ -0,0 +1,29 @@
+package com.practice.practice.apachepoi.simple;
+
+import java.util.zip.Deflater;
+
+/**
+ * Workbook을 xlsx(zip)로 쓸 때의 압축 설정.(ExcelContoller.setWriteProfile() 참고)
+ * 이미 압축된 내용(JPEG, PNG, GIF 이미지와 xlsx, pptx 같은 zip 기반 첨부 파일)은 다시 압축해도 거의 줄지 않으므로, 압축하지 않고(STORED) 저장할 수 있다.
+ */
+public enum WriteProfileEnum {
+    FAST(Deflater.BEST_SPEED, true), // 빠른 압축, 이미 압축된 내용은 압축하지 않음
+    BALANCED(Deflater.DEFAULT_COMPRESSION, true), // 기본 압축(POI 기본값과 같은 수준), 이미 압축된 내용은 압축하지 않음
+    SMALLEST(Deflater.BEST_COMPRESSION, false); // 최대 압축, 모든 내용을 압축
+
+    private final int deflateLevel;
+    private final boolean storePrecompressed;
+
+    WriteProfileEnum(int deflateLevel, boolean storePrecompressed){
+        this.deflateLevel = deflateLevel;
+        this.storePrecompressed = storePrecompressed;
+    }
+
+    public int getDeflateLevel(){
+        return this.deflateLevel;
+    }
+
+    public boolean isStorePrecompressed(){
+        return this.storePrecompressed;
+    }
+}
@@ -0,0 +1,39 @@
+package com.practice.practice.elasticsearch;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+public class ExcelIngestController {
+    @Autowired
+    private ExcelIngestService excelIngestService;
+
+    /**
+     * 업로드된 엑셀을 index에 넣는다.
+     * Header Row(headerRowIndex)의 이름을 필드 이름으로 사용하며, idField를 지정하면 그 필드를 문서 id로 사용한다.
+     * 모든 Bulk 응답을 받은 뒤 Row 수, 성공/실패 수와 실패한 Row들을 반환한다.
+     */
+    @PostMapping("/elasticsearch/ingest/{index}")
+    public ExcelIngestResult ingest(
+        @PathVariable String index,
+        @RequestParam("file") MultipartFile file,
+        @RequestParam(defaultValue = "0") int sheetIndex,
+        @RequestParam(defaultValue = "0") int headerRowIndex,
+        @RequestParam(required = false) String idField
+    ) throws IOException{
+        ExcelIngestMapping mapping = new ExcelIngestMapping(index)
+            .setSheetIndex(sheetIndex)
+            .setHeaderRowIndex(headerRowIndex)
+            .setIdField(idField);
+        try(InputStream inputStream = file.getInputStream()){
+            return excelIngestService.ingest(inputStream, mapping);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.practice.practice.elasticsearch;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.practice.practice.apachepoi.read.ExcelRow;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * 엑셀 Column을 Elasticsearch 문서의 필드로 옮기는 규칙.(ExcelIngestService 참고)
+ * Column은 Header Row의 이름 또는 Column 번호로 지정하며, 아무 Column도 지정하지 않으면 Header Row의 이름을 그대로 필드 이름으로 사용한다.
+ * <pre>
+ * new ExcelIngestMapping("dummy")
+ *     .addColumn("번호", "dummy_id")
+ *     .addColumn(1, "text_value")
+ *     .setIdField("dummy_id");
+ * </pre>
+ */
+@Getter
+public class ExcelIngestMapping {
+    private final String index;
+    private int sheetIndex = 0;
+    private int headerRowIndex = 0; // 0보다 작으면 Header Row가 없다.
+    private String idField; // 문서 id로 사용할 필드, null이면 Elasticsearch가 id를 만든다.
+    @Getter(AccessLevel.NONE)
+    private final Map<String, String> headerFieldMap = new LinkedHashMap<>(); // key: Header 이름, value: 필드 이름
+    @Getter(AccessLevel.NONE)
+    private final Map<Integer, String> columnFieldMap = new HashMap<>(); // key: Column 번호, value: 필드 이름
+
+    /**
+     * @param index 문서를 넣을 Index 이름
+     */
+    public ExcelIngestMapping(String index){
+        this.index = index;
+    }
+
+    /**
+     * 읽을 Sheet를 설정한다.
+     * @param sheetIndex Sheet의 번호(0부터 시작), 기본값 0
+     * @return 현재 인스턴스(ExcelIngestMapping)
+     */
+    public ExcelIngestMapping setSheetIndex(int sheetIndex){
+        this.sheetIndex = sheetIndex;
+        return this;
+    }
+
+    /**
+     * Header Row를 설정한다. Header Row 다음 Row부터 문서로 넣는다.
+     * @param headerRowIndex Header Row의 번호(0부터 시작), 기본값 0, 0보다 작으면 Header Row 없이 모든 Row를 넣는다.(addColumn(int, String)으로만 지정)
+     * @return 현재 인스턴스(ExcelIngestMapping)
+     */
+    public ExcelIngestMapping setHeaderRowIndex(int headerRowIndex){
+        this.headerRowIndex = headerRowIndex;
+        return this;
+    }
+
+    /**
+     * 문서 id로 사용할 필드를 설정한다.
+     * 같은 id의 문서가 이미 있으면 덮어쓰므로, 같은 파일을 다시 넣어도 문서가 늘어나지 않는다.
+     * @param idField 문서 id로 사용할 필드, null이면 Elasticsearch가 id를 만든다.
+     * @return 현재 인스턴스(ExcelIngestMapping)
+     */
+    public ExcelIngestMapping setIdField(String idField){
+        this.idField = idField;
+        return this;
+    }
+
+    /**
+     * Header 이름이 header인 Column을 field로 넣는다.
+     * @param header Header Row의 이름
+     * @param field 문서의 필드 이름
+     * @return 현재 인스턴스(ExcelIngestMapping)
+     */
+    public ExcelIngestMapping addColumn(String header, String field){
+        headerFieldMap.put(header, field);
+        return this;
+    }
+
+    /**
+     * colIndex의 Column을 field로 넣는다.
+     * @param colIndex Column의 번호(0부터 시작).
+     * @param field 문서의 필드 이름
+     * @return 현재 인스턴스(ExcelIngestMapping)
+     */
+    public ExcelIngestMapping addColumn(int colIndex, String field){
+        columnFieldMap.put(colIndex, field);
+        return this;
+    }
+
+    /**
+     * Column별 필드 이름을 구한다.
+     * @param headerRow Header Row, Header Row가 없으면 null
+     * @return Column 번호 순서의 필드 이름, 넣지 않을 Column은 null
+     */
+    String[] resolveFields(ExcelRow headerRow){
+        int colCount = headerRow == null ? 0 : headerRow.getCellCount();
+        for(int colIndex : columnFieldMap.keySet()){
+            colCount = Math.max(colCount, colIndex + 1);
+        }
+        final boolean isHeaderName = headerFieldMap.isEmpty() && columnFieldMap.isEmpty();
+        final String[] fields = new String[colCount];
+        for(int colIndex = 0; colIndex < colCount; colIndex++){
+            final String header = headerRow == null ? null : headerRow.getString(colIndex);
+            if(columnFieldMap.containsKey(colIndex)){
+                fields[colIndex] = columnFieldMap.get(colIndex);
+            }else if(header != null && headerFieldMap.containsKey(header)){
+                fields[colIndex] = headerFieldMap.get(header);
+            }else if(isHeaderName && header != null && !header.isEmpty()){
+                fields[colIndex] = header;
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Row를 문서로 바꾼다.
+     * 날짜는 ISO-8601 문자열("2024-05-21T00:00:00"), 정수인 숫자는 Long으로 넣는다.
+     * @param row 데이터 Row
+     * @param fields resolveFields()로 구한 필드 이름
+     * @return 문서, 넣을 값이 없으면 빈 Map
+     */
+    static Map<String, Object> toDocument(ExcelRow row, String[] fields){
+        final Map<String, Object> document = new LinkedHashMap<>();
+        for(int colIndex = 0; colIndex < fields.length; colIndex++){
+            final Object value = fields[colIndex] == null ? null : row.getValue(colIndex);
+            if(value == null){
+                continue;
+            }
+            if(value instanceof LocalDateTime){
+                document.put(fields[colIndex], DateTimeFormatter.ISO_LOCAL_DATE_TIME.format((LocalDateTime) value));
+            }else if(value instanceof Double && isLong((Double) value)){
+                document.put(fields[colIndex], ((Double) value).longValue());
+            }else{
+                document.put(fields[colIndex], value);
+            }
+        }
+        return document;
+    }
+
+    private static boolean isLong(double number){
+        return number == Math.rint(number) && Math.abs(number) < 9.007199254740992E15; // double로 정확히 표현되는 정수
+    }
+}
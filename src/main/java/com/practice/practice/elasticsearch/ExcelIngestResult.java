@@ -0,0 +1,100 @@
+package com.practice.practice.elasticsearch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * 엑셀 적재(ExcelIngestService.ingest()) 결과.
+ * Bulk 응답은 BulkIngester의 스레드에서 반영되므로, 숫자는 Atomic으로 세고 실패 목록은 동기화한다.
+ */
+@Getter
+public class ExcelIngestResult {
+    static final int MAX_REPORTED_FAILURES = 100; // failures에 담는 최대 건수(failedCount는 모두 센다.)
+
+    private final String index;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong rowCount = new AtomicLong(); // 읽어서 Bulk에 넣은 Row의 수
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong indexedCount = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong failedCount = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong bulkRequestCount = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final List<Failure> failureList = new ArrayList<>();
+    private volatile long elapsedMillis;
+
+    ExcelIngestResult(String index){
+        this.index = index;
+    }
+
+    public long getRowCount(){
+        return rowCount.get();
+    }
+
+    public long getIndexedCount(){
+        return indexedCount.get();
+    }
+
+    public long getFailedCount(){
+        return failedCount.get();
+    }
+
+    public long getBulkRequestCount(){
+        return bulkRequestCount.get();
+    }
+
+    /**
+     * 실패한 Row들을 반환한다.(최대 MAX_REPORTED_FAILURES건)
+     * @return 실패한 Row들
+     */
+    public List<Failure> getFailures(){
+        synchronized(failureList){
+            return Collections.unmodifiableList(new ArrayList<>(failureList));
+        }
+    }
+
+    void addRow(){
+        rowCount.incrementAndGet();
+    }
+
+    void addBulkRequest(){
+        bulkRequestCount.incrementAndGet();
+    }
+
+    void addIndexed(long count){
+        indexedCount.addAndGet(count);
+    }
+
+    void addFailure(int rowIndex, String reason){
+        failedCount.incrementAndGet();
+        synchronized(failureList){
+            if(failureList.size() < MAX_REPORTED_FAILURES){
+                failureList.add(new Failure(rowIndex, reason));
+            }
+        }
+    }
+
+    void setElapsedMillis(long elapsedMillis){
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * 문서로 넣지 못한 Row 하나.
+     */
+    @Getter
+    public static class Failure {
+        private final int rowIndex; // 엑셀의 Row 번호(0부터 시작)
+        private final String reason;
+
+        Failure(int rowIndex, String reason){
+            this.rowIndex = rowIndex;
+            this.reason = reason;
+        }
+    }
+}
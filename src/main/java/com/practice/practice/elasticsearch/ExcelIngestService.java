@@ -0,0 +1,188 @@
+package com.practice.practice.elasticsearch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.practice.practice.apachepoi.read.ExcelRow;
+import com.practice.practice.apachepoi.read.ExcelRowHandler;
+import com.practice.practice.apachepoi.read.ExcelStreamReader;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 업로드된 엑셀의 Row를 Elasticsearch 문서로 넣는다.
+ * ExcelStreamReader로 Row를 하나씩 읽어 BulkIngester에 넣으므로, 파일 크기와 무관하게 메모리는 Bulk 요청 몇 개 크기만큼만 사용한다.
+ * Bulk 요청은 문서 수(max-operations), 크기(max-size-mb), 시간(flush-interval-ms) 중 먼저 도달한 기준으로 보낸다.
+ * 동시에 보내는 Bulk 요청이 max-concurrent-requests에 도달하면 BulkIngester.add()가 기다리므로, Row 읽기도 함께 멈춘다.(backpressure)
+ */
+@Slf4j
+@Service
+public class ExcelIngestService {
+    private final ElasticsearchClient esClient;
+    private final int maxOperations;
+    private final long maxSizeBytes;
+    private final int maxConcurrentRequests;
+    private final long flushIntervalMillis;
+
+    public ExcelIngestService(
+        ElasticsearchClient esClient,
+        @Value("${elasticsearch.ingest.max-operations:1000}") int maxOperations,
+        @Value("${elasticsearch.ingest.max-size-mb:5}") long maxSizeMb,
+        @Value("${elasticsearch.ingest.max-concurrent-requests:2}") int maxConcurrentRequests,
+        @Value("${elasticsearch.ingest.flush-interval-ms:1000}") long flushIntervalMillis
+    ){
+        this.esClient = esClient;
+        this.maxOperations = maxOperations;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * inputStream의 엑셀을 mapping에 따라 Elasticsearch에 넣는다.
+     * 모든 Bulk 요청의 응답을 받은 뒤 반환하며, 문서 단위의 실패(매핑 오류 등)는 예외 없이 ExcelIngestResult에 담는다.
+     * @param inputStream xlsx 내용(닫지 않는다.)
+     * @param mapping Column과 필드의 규칙
+     * @return 적재 결과
+     * @throws IOException 엑셀을 읽을 수 없는 경우
+     */
+    public ExcelIngestResult ingest(InputStream inputStream, ExcelIngestMapping mapping) throws IOException{
+        final long startMillis = System.currentTimeMillis();
+        final ExcelIngestResult result = new ExcelIngestResult(mapping.getIndex());
+        try(ExcelStreamReader reader = ExcelStreamReader.open(inputStream)){
+            final BulkIngester<Integer> bulkIngester = BulkIngester.of(b -> b
+                .client(esClient)
+                .maxOperations(maxOperations)
+                .maxSize(maxSizeBytes)
+                .maxConcurrentRequests(maxConcurrentRequests)
+                .flushInterval(flushIntervalMillis, TimeUnit.MILLISECONDS)
+                .listener(new ResultListener(result))
+            );
+            try{
+                reader.read(mapping.getSheetIndex(), new RowIngester(mapping, bulkIngester, result));
+            }finally{
+                bulkIngester.close(); // 남은 문서를 보내고 모든 응답을 기다린다.
+            }
+        }
+        result.setElapsedMillis(System.currentTimeMillis() - startMillis);
+        log.info("Excel ingest finished. index={}, rows={}, indexed={}, failed={}, bulkRequests={}, elapsed={}ms",
+            result.getIndex(), result.getRowCount(), result.getIndexedCount(), result.getFailedCount(), result.getBulkRequestCount(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * Header Row로 필드 이름을 정하고, 데이터 Row를 BulkIngester에 넣는다.
+     */
+    private static class RowIngester implements ExcelRowHandler {
+        private final ExcelIngestMapping mapping;
+        private final BulkIngester<Integer> bulkIngester;
+        private final ExcelIngestResult result;
+        private String[] fields; // Header Row를 읽기 전에는 null
+        private int idColIndex = -1;
+
+        RowIngester(ExcelIngestMapping mapping, BulkIngester<Integer> bulkIngester, ExcelIngestResult result){
+            this.mapping = mapping;
+            this.bulkIngester = bulkIngester;
+            this.result = result;
+            if(mapping.getHeaderRowIndex() < 0){
+                setFields(null);
+            }
+        }
+
+        @Override
+        public void handleRow(ExcelRow row){
+            if(row.getRowIndex() <= mapping.getHeaderRowIndex()){
+                if(row.getRowIndex() == mapping.getHeaderRowIndex()){
+                    setFields(row);
+                }
+                return;
+            }
+            if(fields == null){
+                setFields(null); // Header Row가 비어 있는 경우
+            }
+            final Map<String, Object> document = ExcelIngestMapping.toDocument(row, fields);
+            if(document.isEmpty()){
+                return;
+            }
+            final String id = idColIndex >= 0 ? row.getString(idColIndex) : null;
+            result.addRow();
+            bulkIngester.add(BulkOperation.of(op -> op
+                .index(idx -> idx
+                    .index(mapping.getIndex())
+                    .id(id)
+                    .document(document)
+                )
+            ), row.getRowIndex());
+        }
+
+        private void setFields(ExcelRow headerRow){
+            fields = mapping.resolveFields(headerRow);
+            idColIndex = -1;
+            if(mapping.getIdField() != null){
+                for(int colIndex = 0; colIndex < fields.length; colIndex++){
+                    if(mapping.getIdField().equals(fields[colIndex])){
+                        idColIndex = colIndex;
+                        break;
+                    }
+                }
+                if(idColIndex < 0){
+                    throw new IllegalArgumentException("No column mapped to id field " + mapping.getIdField());
+                }
+            }
+        }
+    }
+
+    /**
+     * Bulk 응답을 ExcelIngestResult에 반영한다.(context는 엑셀의 Row 번호)
+     */
+    private static class ResultListener implements BulkListener<Integer> {
+        private static final String BULK_REQUEST_FAILED = "BULK_REQUEST_FAILED"; // 예외 내용은 로그에만 남기고 응답에는 넣지 않는다.
+
+        private final ExcelIngestResult result;
+
+        ResultListener(ExcelIngestResult result){
+            this.result = result;
+        }
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request, List<Integer> contexts){
+            result.addBulkRequest();
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<Integer> contexts, BulkResponse response){
+            final List<BulkResponseItem> items = response.items();
+            long indexedCount = 0;
+            for(int i = 0; i < items.size(); i++){
+                final BulkResponseItem item = items.get(i);
+                if(item.error() != null){
+                    result.addFailure(contexts.get(i), item.error().type() + ": " + item.error().reason());
+                }else{
+                    indexedCount++;
+                }
+            }
+            result.addIndexed(indexedCount);
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<Integer> contexts, Throwable failure){
+            log.warn("Bulk request failed. executionId={}, operations={}", executionId, contexts.size(), failure);
+            for(Integer rowIndex : contexts){
+                result.addFailure(rowIndex, BULK_REQUEST_FAILED);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.practice.practice.apachepoi.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.practice.practice.apachepoi.simple.ImageFormatEnum;
+import com.practice.practice.apachepoi.simple.ImageObject;
+import com.practice.practice.apachepoi.simple.PoiAsset;
+import com.practice.practice.apachepoi.simple.PoiAssetCache;
+
+public class ExportGateTest {
+    @Test
+    public void exportGateTest() throws InterruptedException{
+        ExportGate exportGate = new ExportGate(4, 1, 100); // 4MB
+        ExportCost cost = new ExportCost().addCells(1024); // 2MB + 1MB
+
+        ExportGate.Permit permit = exportGate.acquire(cost);
+        assertThatThrownBy(() -> exportGate.acquire(cost)).isInstanceOf(ExportRejectedException.class); // 100ms 동안 예산을 기다리다 거절
+        assertThat(exportGate.getStats().get("timeoutRejectedCount")).isEqualTo(1L);
+
+        permit.close();
+        permit.close(); // 한 번만 돌려준다.
+        try(ExportGate.Permit first = exportGate.acquire(cost)){
+            assertThat(exportGate.getStats().get("usedBytes")).isEqualTo(cost.getEstimatedBytes());
+        }
+
+        // 예산보다 큰 요청도 다른 요청이 없으면 실행된다.
+        try(ExportGate.Permit large = exportGate.acquire(new ExportCost().addCells(100_000))){
+            assertThat(exportGate.getStats().get("activeCount")).isEqualTo(1);
+        }
+        assertThat(exportGate.getStats().get("usedBytes")).isEqualTo(0L);
+        assertThat(exportGate.getStats().get("admittedCount")).isEqualTo(3L);
+    }
+
+    @Test
+    public void exportCostContentHashTest(){
+        PoiAsset dogAsset = PoiAssetCache.getInstance().get("dog200x200.jpg");
+        ImageObject dog = new ImageObject(dogAsset, ImageFormatEnum.PICTURE_TYPE_JPEG, "dog.jpg");
+        ImageObject sameDog = new ImageObject(dogAsset, ImageFormatEnum.PICTURE_TYPE_JPEG, "sameDog.jpg");
+
+        ExportCost once = new ExportCost().addImage(dog, 2);
+        ExportCost twice = new ExportCost().addImage(dog, 1).addImage(sameDog, 1);
+
+        // 같은 내용은 Workbook에 한 번만 저장되므로 내용의 크기도 한 번만 더한다.
+        assertThat(twice.getContentBytes()).isEqualTo(dogAsset.getSize());
+        assertThat(twice.getEstimatedBytes()).isEqualTo(once.getEstimatedBytes());
+    }
+}
@@ -0,0 +1,69 @@
+package com.practice.practice.apachepoi.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import com.practice.practice.apachepoi.simple.ExcelContoller;
+
+public class ExportJobServiceTest {
+    @Test
+    public void exportJobTest() throws Exception{
+        ExportJobService exportJobService = new ExportJobService(1, 1, 0, new ExportGate(64, 1, 1000));
+        try{
+            ExportJob job = exportJobService.submit("test.xlsx", new ExportCost().addCells(200), progress -> {
+                ExcelContoller excelContoller = new ExcelContoller();
+                for(int i = 0; i < 100; i++){
+                    excelContoller.writeRows(i, Collections.singletonList(new Object[]{"Row" + i, i}));
+                    progress.addRowCount(1);
+                }
+                return excelContoller;
+            });
+            for(int i = 0; i < 600 && !job.getPhase().isFinished(); i++){
+                Thread.sleep(50);
+            }
+
+            assertThat(job.getPhase()).isEqualTo(ExportJobPhase.DONE);
+            assertThat(job.getRowCount()).isEqualTo(100);
+            Path spoolFile = exportJobService.getSpoolFile(job);
+            assertThat(job.getWrittenBytes()).isEqualTo(Files.size(spoolFile));
+            try(InputStream inputStream = Files.newInputStream(spoolFile); XSSFWorkbook workbook = new XSSFWorkbook(inputStream)){
+                assertThat(workbook.getSheetAt(0).getRow(99).getCell(0).getStringCellValue()).isEqualTo("Row99");
+            }
+
+            Thread.sleep(10);
+            exportJobService.removeExpiredJobs(); // ttl 0초
+            assertThat(exportJobService.getJob(job.getJobId())).isNull();
+            assertThat(Files.exists(spoolFile)).isFalse();
+        }finally{
+            exportJobService.shutdown();
+        }
+    }
+
+    @Test
+    public void failedExportJobTest() throws Exception{
+        ExportJobService exportJobService = new ExportJobService(1, 1, 0, new ExportGate(64, 1, 1000));
+        try{
+            ExportJob job = exportJobService.submit("test.xlsx", new ExportCost().addCells(1), progress -> {
+                throw new IOException("/internal/path/secret.xlsx");
+            });
+            for(int i = 0; i < 600 && !job.getPhase().isFinished(); i++){
+                Thread.sleep(50);
+            }
+
+            // 예외의 내용은 서버 로그에만 남기고, 작업 상태에는 코드만 남긴다.
+            assertThat(job.getPhase()).isEqualTo(ExportJobPhase.FAILED);
+            assertThat(job.getErrorCode()).isEqualTo(ExportJob.ERROR_FAILED);
+            assertThat(exportJobService.getSpoolFile(job)).isNull();
+        }finally{
+            exportJobService.shutdown();
+        }
+    }
+}
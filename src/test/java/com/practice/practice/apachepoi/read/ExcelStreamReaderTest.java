@@ -0,0 +1,87 @@
+package com.practice.practice.apachepoi.read;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.util.XMLHelper;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import com.practice.practice.apachepoi.simple.ColumnStyle;
+import com.practice.practice.apachepoi.simple.ExcelContoller;
+
+public class ExcelStreamReaderTest {
+
+    @Test
+    public void readTest() throws IOException{
+        assertRows(new ExcelContoller()); // 공유 문자열
+        assertRows(new ExcelContoller("sheet1", (short) 10, 10)); // Streaming 모드(inline 문자열)
+    }
+
+    private void assertRows(ExcelContoller excelContoller) throws IOException{
+        byte[] byteArray;
+        try{
+            List<Object[]> rows = new ArrayList<>();
+            for(int i = 0; i < 100; i++){
+                rows.add(new Object[]{"Row" + i, i, LocalDate.of(2024, 1, 1).plusDays(i), i % 2 == 0, i == 50 ? null : "x"});
+            }
+            excelContoller.writeRows(1, rows, null, null, new ColumnStyle().setDataFormat("yyyy-mm-dd"));
+            byteArray = excelContoller.getByteArray();
+        }finally{
+            excelContoller.close();
+        }
+
+        List<ExcelRow> readRows = new ArrayList<>();
+        try(ExcelStreamReader reader = ExcelStreamReader.open(new ByteArrayInputStream(byteArray))){
+            assertThat(reader.getSheetNames()).containsExactly("sheet1");
+            reader.read("sheet1", readRows::add);
+        }
+
+        assertThat(readRows).hasSize(100);
+        ExcelRow row = readRows.get(50);
+        assertThat(row.getRowIndex()).isEqualTo(51);
+        assertThat(row.getCellType(0)).isEqualTo(CellTypeEnum.STRING);
+        assertThat(row.getString(0)).isEqualTo("Row50");
+        assertThat(row.getNumber(1)).isEqualTo(50d);
+        assertThat(row.getString(1)).isEqualTo("50");
+        assertThat(row.getCellType(2)).isEqualTo(CellTypeEnum.DATE);
+        assertThat(row.getLocalDateTime(2).toLocalDate()).isEqualTo(LocalDate.of(2024, 2, 20));
+        assertThat(row.getBoolean(3)).isTrue();
+        assertThat(row.getCellType(4)).isEqualTo(CellTypeEnum.BLANK);
+        assertThat(row.getCellCount()).isEqualTo(4);
+        assertThat(readRows.get(49).getString(4)).isEqualTo("x");
+    }
+
+    @Test
+    public void colIndexTest(){
+        assertThat(SheetRowParser.toColIndex("A1")).isEqualTo(0);
+        assertThat(SheetRowParser.toColIndex("Z9")).isEqualTo(25);
+        assertThat(SheetRowParser.toColIndex("AB12")).isEqualTo(27);
+    }
+
+    @Test
+    public void emptyValueTest() throws Exception{
+        final String sheetXml = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+            + "<row r=\"1\"><c r=\"A1\" t=\"s\"><v/></c><c r=\"B1\" t=\"b\"><v></v></c><c r=\"C1\"><v/></c><c r=\"D1\" t=\"str\"><v/></c></row>"
+            + "</sheetData></worksheet>";
+        List<ExcelRow> readRows = new ArrayList<>();
+        XMLReader xmlReader = XMLHelper.newXMLReader();
+        xmlReader.setContentHandler(new SheetRowParser(null, null, false, readRows::add));
+        xmlReader.parse(new InputSource(new StringReader(sheetXml)));
+
+        // 문자열이 아닌 Cell의 빈 값은 BLANK, 문자열 Cell의 빈 값은 빈 문자열이다.
+        assertThat(readRows).hasSize(1);
+        assertThat(readRows.get(0).getCellType(0)).isEqualTo(CellTypeEnum.BLANK);
+        assertThat(readRows.get(0).getCellType(1)).isEqualTo(CellTypeEnum.BLANK);
+        assertThat(readRows.get(0).getCellType(2)).isEqualTo(CellTypeEnum.BLANK);
+        assertThat(readRows.get(0).getCellType(3)).isEqualTo(CellTypeEnum.STRING);
+        assertThat(readRows.get(0).getString(3)).isEmpty();
+    }
+}
@@ -0,0 +1,458 @@
+package com.practice.practice.apachepoi.simple;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.util.Units;
+import org.apache.poi.xssf.usermodel.XSSFClientAnchor;
+import org.apache.poi.xssf.usermodel.XSSFPicture;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+public class ExcelContollerTest {
+
+    @Test
+    public void streamingModeTest() throws IOException{
+        ExcelContoller excelContoller = new ExcelContoller("sheet1", (short) 10, 10);
+        try{
+            for(int i = 0; i < 100; i++){
+                excelContoller
+                    .selectCell(i, 0)
+                    .setText("Row" + i)
+                ;
+            }
+
+            assertThat(excelContoller.isStreaming()).isTrue();
+            assertThatThrownBy(() -> excelContoller.selectCell(0, 0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("flushed");
+
+            byte[] byteArray = excelContoller.getByteArray();
+            try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(byteArray))){
+                XSSFSheet sheet = workbook.getSheetAt(0);
+                assertThat(sheet.getLastRowNum()).isEqualTo(99);
+                assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("Row0");
+                assertThat(sheet.getRow(99).getCell(0).getStringCellValue()).isEqualTo("Row99");
+            }
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    @Test
+    public void sharedCellStyleTest() throws IOException{
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            int baseCellStyleCount = excelContoller.getWorkbook().getNumCellStyles();
+            for(int j = 0; j < 100; j++){
+                excelContoller
+                    .selectCell(0, j)
+                    .setText("Header" + (j + 1))
+                    .setCellColor(100, 255, 100)
+                    .setBorderStyle(BorderStyle.THIN)
+                    .setBorderColor(0, 0, 0)
+                    .setVerticalAlignment(VerticalAlignment.CENTER)
+                    .setHorizontalAlignment(HorizontalAlignment.CENTER)
+                ;
+            }
+            excelContoller.getByteArray();
+
+            assertThat(excelContoller.selectCell(0, 0).getCellStyle())
+                .isSameAs(excelContoller.selectCell(0, 99).getCellStyle());
+            assertThat(excelContoller.getWorkbook().getNumCellStyles() - baseCellStyleCount).isLessThanOrEqualTo(2);
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    @Test
+    public void buildSheetsTest() throws IOException{
+        ExcelContoller excelContoller = new ExcelContoller();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try{
+            Map<String, SheetBuildTask> sheetBuildTaskMap = new LinkedHashMap<>();
+            for(int s = 1; s <= 4; s++){
+                final String sheetName = "month" + s;
+                sheetBuildTaskMap.put(sheetName, sheetBuilder -> {
+                    for(int i = 0; i < 200; i++){
+                        sheetBuilder
+                            .selectCell(i, 0)
+                            .addText(sheetName + "-" + i)
+                            .setBorderStyle(BorderStyle.THIN)
+                            .setHorizontalAlignment(HorizontalAlignment.CENTER)
+                        ;
+                    }
+                });
+            }
+            excelContoller.buildSheets(sheetBuildTaskMap, executor);
+
+            byte[] byteArray = excelContoller.getByteArray();
+            try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(byteArray))){
+                assertThat(workbook.getNumberOfSheets()).isEqualTo(5);
+                for(int s = 1; s <= 4; s++){
+                    XSSFSheet sheet = workbook.getSheetAt(s);
+                    assertThat(sheet.getSheetName()).isEqualTo("month" + s);
+                    assertThat(sheet.getLastRowNum()).isEqualTo(199);
+                    assertThat(sheet.getRow(199).getCell(0).getStringCellValue()).isEqualTo("month" + s + "-199");
+                }
+                assertThat(workbook.getSheetAt(1).getRow(0).getCell(0).getCellStyle().getIndex())
+                    .isEqualTo(workbook.getSheetAt(4).getRow(0).getCell(0).getCellStyle().getIndex());
+            }
+        }finally{
+            executor.shutdown();
+            excelContoller.close();
+        }
+    }
+
+    @Test
+    public void writeRowsTest() throws IOException{
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            List<Object[]> rows = new ArrayList<>();
+            for(int i = 0; i < 1000; i++){
+                rows.add(new Object[]{"Item" + i, i * 10, i % 2 == 0, null});
+            }
+            ColumnStyle numberStyle = new ColumnStyle()
+                .setHorizontalAlignment(HorizontalAlignment.RIGHT)
+                .setDataFormat("#,##0")
+            ;
+            int baseCellStyleCount = excelContoller.getWorkbook().getNumCellStyles();
+            excelContoller.writeRows(1, rows, null, numberStyle, null, new ColumnStyle().setBorderStyle(BorderStyle.THIN));
+
+            byte[] byteArray = excelContoller.getByteArray();
+            assertThat(excelContoller.getWorkbook().getNumCellStyles() - baseCellStyleCount).isEqualTo(2);
+            try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(byteArray))){
+                XSSFSheet sheet = workbook.getSheetAt(0);
+                assertThat(sheet.getLastRowNum()).isEqualTo(1000);
+                assertThat(sheet.getRow(1000).getCell(0).getStringCellValue()).isEqualTo("Item999");
+                assertThat(sheet.getRow(1000).getCell(1).getNumericCellValue()).isEqualTo(9990d);
+                assertThat(sheet.getRow(1000).getCell(1).getCellStyle().getAlignment()).isEqualTo(HorizontalAlignment.RIGHT);
+                assertThat(sheet.getRow(1).getCell(2).getBooleanCellValue()).isTrue();
+                assertThat(sheet.getRow(1).getCell(3).getCellStyle().getBorderTop()).isEqualTo(BorderStyle.THIN);
+            }
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    public static class SampleRecord {
+        @ExcelColumn(header = "금액", order = 2, format = "#,##0")
+        private long amount;
+
+        @ExcelColumn(header = "이름", order = 1, width = 120)
+        private String name; // getter가 없으면 필드에서 직접 읽는다.
+
+        @ExcelColumn(header = "일자", order = 3)
+        private LocalDate date;
+
+        private String ignored;
+
+        public SampleRecord(long amount, String name, LocalDate date, String ignored){
+            this.amount = amount;
+            this.name = name;
+            this.date = date;
+            this.ignored = ignored;
+        }
+
+        public long getAmount(){
+            return amount;
+        }
+
+        public LocalDate getDate(){
+            return date;
+        }
+    }
+
+    @Test
+    public void writeRecordsTest() throws IOException{
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            List<SampleRecord> records = new ArrayList<>();
+            for(int i = 0; i < 100; i++){
+                records.add(new SampleRecord(i * 1000L, "Name" + i, LocalDate.of(2024, 1, 1).plusDays(i), "x"));
+            }
+            excelContoller.writeRecords(0, records, SampleRecord.class);
+
+            byte[] byteArray = excelContoller.getByteArray();
+            try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(byteArray))){
+                XSSFSheet sheet = workbook.getSheetAt(0);
+                assertThat(sheet.getLastRowNum()).isEqualTo(100);
+                assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("이름");
+                assertThat(sheet.getRow(0).getCell(1).getStringCellValue()).isEqualTo("금액");
+                assertThat(sheet.getRow(0).getCell(2).getStringCellValue()).isEqualTo("일자");
+                assertThat(sheet.getRow(0).getCell(3)).isNull();
+                assertThat(sheet.getRow(100).getCell(0).getStringCellValue()).isEqualTo("Name99");
+                assertThat(sheet.getRow(100).getCell(1).getNumericCellValue()).isEqualTo(99000d);
+                assertThat(sheet.getRow(100).getCell(1).getCellStyle().getDataFormatString()).isEqualTo("#,##0");
+                assertThat(sheet.getRow(1).getCell(2).getLocalDateTimeCellValue().toLocalDate()).isEqualTo(LocalDate.of(2024, 1, 1));
+                assertThat(sheet.getRow(1).getCell(2).getCellStyle().getDataFormatString()).isEqualTo("yyyy-mm-dd");
+            }
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    @Test
+    public void templateTest() throws IOException{
+        ExcelTemplate excelTemplate = ExcelTemplate.build(templateContoller -> {
+            templateContoller
+                .selectCell(0, 0)
+                .setText("Header")
+                .setCellColor(100, 255, 100)
+                .setBorderStyle(BorderStyle.THIN)
+                .setHorizontalAlignment(HorizontalAlignment.CENTER);
+            templateContoller.setColumnWidthInPixel(0, 200);
+        });
+
+        for(int rowAccessWindowSize : new int[]{0, 10}){
+            ExcelContoller excelContoller = excelTemplate.newExcelContoller(rowAccessWindowSize);
+            try{
+                int styleCount = excelContoller.getWorkbook().getNumCellStyles();
+                int pictureCount = excelContoller.getWorkbook().getAllPictures().size();
+                for(int i = 1; i <= 20; i++){
+                    excelContoller
+                        .selectCell(i, 0)
+                        .setText("Data" + i)
+                        .setCellColor(100, 255, 100)
+                        .setBorderStyle(BorderStyle.THIN)
+                        .setHorizontalAlignment(HorizontalAlignment.CENTER);
+                }
+
+                byte[] byteArray = excelContoller.getByteArray();
+                try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(byteArray))){
+                    XSSFSheet sheet = workbook.getSheetAt(0);
+                    assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("Header");
+                    assertThat(sheet.getRow(20).getCell(0).getStringCellValue()).isEqualTo("Data20");
+                    // 템플릿과 같은 모양의 Cell은 템플릿의 CellStyle을, 아이콘은 템플릿의 이미지를 재사용한다.
+                    assertThat(sheet.getRow(20).getCell(0).getCellStyle().getIndex()).isEqualTo(sheet.getRow(0).getCell(0).getCellStyle().getIndex());
+                    assertThat(workbook.getNumCellStyles()).isEqualTo(styleCount);
+                    assertThat(workbook.getAllPictures()).hasSize(pictureCount);
+                }
+            }finally{
+                excelContoller.close();
+            }
+        }
+    }
+
+    @Test
+    public void fileBackedContentTest() throws Exception{
+        PoiAsset dogAsset = PoiAssetCache.getInstance().get("dog200x200.jpg");
+        PoiAsset pptAsset = PoiAssetCache.getInstance().get("test.pptx");
+        Path dogPath = Files.createTempFile("dog", ".jpg");
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            Files.write(dogPath, dogAsset.getByteArray());
+            ImageObject pathImageObject = new ImageObject(dogPath, ImageFormatEnum.PICTURE_TYPE_JPEG, "dogPath");
+            ImageObject byteImageObject = new ImageObject(dogAsset.getByteArray(), ImageFormatEnum.PICTURE_TYPE_JPEG, "dogByte");
+            EmbeddedFile supplierFile = new EmbeddedFile(() -> new ByteArrayInputStream(pptAsset.getByteArray()), EmbeddedFileFormatEnum.POWER_POINT, "test.pptx");
+            assertThat(pathImageObject.getWidth()).isEqualTo(200);
+            assertThat(pathImageObject.getContentLength()).isEqualTo(dogAsset.getSize());
+
+            int pictureCount = excelContoller.getWorkbook().getAllPictures().size();
+            for(int i = 0; i < 3; i++){
+                excelContoller.selectCell(i, 0).addImage(pathImageObject).addImage(byteImageObject).addFile(supplierFile);
+            }
+
+            // 파일과 byte[]로 만든 같은 내용의 이미지는 한 번만 저장된다.(이미지는 write() 할 때 배치된다.)
+            byte[] byteArray = excelContoller.getByteArray();
+            assertThat(excelContoller.getWorkbook().getAllPictures()).hasSize(pictureCount + 1);
+            try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(byteArray))){
+                assertThat(workbook.getAllPictures()).hasSize(pictureCount + 1);
+                assertThat(workbook.getAllEmbeddedParts()).hasSize(1);
+            }
+        }finally{
+            excelContoller.close();
+            Files.deleteIfExists(dogPath);
+        }
+    }
+
+    @Test
+    public void metricsTest() throws IOException{
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            excelContoller.setMetrics(meterRegistry, "sample");
+            for(int i = 0; i < 10; i++){
+                excelContoller
+                    .selectCell(i, 0)
+                    .setFontBold(true)
+                    .addText("Row" + i)
+                ;
+            }
+            byte[] byteArray = excelContoller.getByteArray();
+
+            assertThat(meterRegistry.get("poi.export.build").tag("export", "sample").timer().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("poi.export.write").tag("export", "sample").timer().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("poi.export.output.bytes").tag("export", "sample").summary().totalAmount()).isEqualTo(byteArray.length);
+            assertThat(meterRegistry.get("poi.export.cells").tag("export", "sample").summary().totalAmount()).isEqualTo(10);
+            assertThat(meterRegistry.get("poi.export.pictures").tag("export", "sample").summary().totalAmount()).isGreaterThan(0); // 기본 파일 아이콘
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    @Test
+    public void columnAutoFitTest() throws IOException{
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            excelContoller
+                .setColumnAutoFit(0)
+                .setColumnAutoFit(1)
+                .setColumnAutoFit(2, 0, 100)
+            ;
+            int defaultWidth = excelContoller.getSheet(0).getColumnWidth(3);
+            List<Object[]> rows = new ArrayList<>();
+            for(int i = 0; i < 1000; i++){
+                rows.add(new Object[]{"a" + i, i, "short", "not fitted column"});
+            }
+            rows.add(new Object[]{"a", 1234567890L, "very very very very long text", "not fitted column"});
+            excelContoller.writeRows(0, rows);
+            excelContoller.selectCell(2000, 0).setText("long text line\nshort");
+
+            try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelContoller.getByteArray()))){
+                XSSFSheet sheet = workbook.getSheetAt(0);
+                assertThat(sheet.getColumnWidth(0)).isGreaterThan(sheet.getColumnWidth(1)); // "long text line" > "1234567890"
+                assertThat(sheet.getColumnWidth(2)).isEqualTo(UnitConverter.widthPixelToWidth(100, 10)); // maxPixel
+                assertThat(sheet.getColumnWidth(3)).isEqualTo(defaultWidth);
+            }
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    @Test
+    public void deferredLayoutTest() throws IOException{
+        ImageObject dogImageObject = new ImageObject(PoiAssetCache.getInstance().get("dog200x200.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "dog.jpg");
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            excelContoller.setColumnWidthInPixel(0, 50);
+            excelContoller.selectCell(0, 0).addText("dog").addImage(dogImageObject);
+            excelContoller.setColumnWidthInPixel(0, 150); // 이미지를 추가한 뒤에 Column Width를 바꿔도 최종 Width로 배치된다.
+
+            try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelContoller.getByteArray()))){
+                XSSFSheet sheet = workbook.getSheetAt(0);
+                XSSFPicture picture = (XSSFPicture) sheet.getDrawingPatriarch().getShapes().get(0);
+                XSSFClientAnchor anchor = picture.getClientAnchor();
+                int imageWidthPixel = anchor.getDx2() / Units.EMU_PER_PIXEL;
+                int imageBottomPixel = anchor.getDy2() / Units.EMU_PER_PIXEL;
+
+                assertThat(imageWidthPixel).isBetween(140, 150);
+                assertThat(UnitConverter.pointToPixel(sheet.getRow(0).getHeightInPoints())).isGreaterThanOrEqualTo(imageBottomPixel);
+                assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).startsWith("dog\n");
+            }
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    @Test
+    public void numberAfterImageTest() throws IOException{
+        ImageObject dogImageObject = new ImageObject(PoiAssetCache.getInstance().get("dog200x200.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "dog.jpg");
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            excelContoller.selectCell(0, 0).addImage(dogImageObject).setNumber(5);
+
+            // 이미지의 자리(빈 줄)가 write() 할 때 Number를 덮어쓰지 않는다.
+            try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelContoller.getByteArray()))){
+                XSSFSheet sheet = workbook.getSheetAt(0);
+                assertThat(sheet.getRow(0).getCell(0).getCellType()).isEqualTo(CellType.NUMERIC);
+                assertThat(sheet.getRow(0).getCell(0).getNumericCellValue()).isEqualTo(5d);
+                assertThat(sheet.getDrawingPatriarch().getShapes()).hasSize(1);
+            }
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    @Test
+    public void nullTextTest() throws IOException{
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            excelContoller.selectCell(0, 0).setText("text").setText(null);
+            excelContoller.selectCell(1, 0).setText(null).addText("added");
+
+            try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelContoller.getByteArray()))){
+                XSSFSheet sheet = workbook.getSheetAt(0);
+                assertThat(sheet.getRow(0).getCell(0).getCellType()).isEqualTo(CellType.BLANK);
+                assertThat(sheet.getRow(1).getCell(0).getStringCellValue()).isEqualTo("added");
+            }
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    @Test
+    public void addTextToExistingValueTest() throws IOException{
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            excelContoller.writeRows(0, Collections.singletonList(new Object[]{"written", 1}));
+            excelContoller.selectCell(0, 0).addText(" + added");
+            excelContoller.selectCell(0, 1).addText("text");
+
+            try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelContoller.getByteArray()))){
+                XSSFSheet sheet = workbook.getSheetAt(0);
+                assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("written + added");
+                assertThat(sheet.getRow(0).getCell(1).getStringCellValue()).isEqualTo("text"); // 숫자는 Text로 이어 붙이지 않는다.
+            }
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    @Test
+    public void deferredFileErrorTest() throws IOException{
+        EmbeddedFile brokenFile = new EmbeddedFile(() -> {
+            throw new IOException("unreadable");
+        }, EmbeddedFileFormatEnum.POWER_POINT, "broken.pptx");
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            excelContoller.selectCell(0, 0).addText("file").addFile(brokenFile); // 파일은 write() 할 때 읽는다.
+
+            assertThatThrownBy(() -> excelContoller.getByteArray())
+                .isInstanceOf(IOException.class)
+                .hasMessage("unreadable");
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    @Test
+    public void streamingDeferredLayoutTest() throws IOException{
+        ImageObject dogImageObject = new ImageObject(PoiAssetCache.getInstance().get("dog200x200.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "dog.jpg");
+        ExcelContoller excelContoller = new ExcelContoller("sheet1", (short) 10, 10);
+        try{
+            excelContoller.setColumnWidthInPixel(0, 50);
+            excelContoller.selectCell(0, 0).addImage(dogImageObject);
+            for(int i = 1; i < 5; i++){
+                excelContoller.selectCell(i, 0).setText("Row" + i); // Row 0은 아직 access window 안에 있으므로 배치되지 않는다.
+            }
+            excelContoller.setColumnWidthInPixel(0, 150);
+
+            try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelContoller.getByteArray()))){
+                XSSFPicture picture = (XSSFPicture) workbook.getSheetAt(0).getDrawingPatriarch().getShapes().get(0);
+                assertThat(picture.getClientAnchor().getDx2() / Units.EMU_PER_PIXEL).isBetween(140, 150);
+            }
+        }finally{
+            excelContoller.close();
+        }
+    }
+}
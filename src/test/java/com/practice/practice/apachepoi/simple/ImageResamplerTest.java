@@ -0,0 +1,78 @@
+package com.practice.practice.apachepoi.simple;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.apache.poi.xssf.usermodel.XSSFPictureData;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+/**
+ * setImageResampleOption()으로 큰 이미지가 표시 크기로 줄어 저장되고,
+ * 줄인 결과를 ResampledImageCache로 다른 Workbook과 공유하는지 확인한다.
+ */
+public class ImageResamplerTest {
+    private static final ImageResampleOption OPTION = ImageResampleOption.jpeg(0.85f);
+
+    private byte[] writeResampledImage(ImageObject imageObject) throws IOException{
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            excelContoller.setImageResampleOption(OPTION).setColumnWidthInPixel(0, 100);
+            excelContoller.selectCell(0, 0).addImage(imageObject);
+            return excelContoller.getByteArray();
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    private static XSSFPictureData getPictureData(XSSFWorkbook workbook){
+        assertThat(workbook.getAllPictures()).hasSize(1);
+        return workbook.getAllPictures().get(0);
+    }
+
+    @Test
+    public void resampleSharedCacheTest() throws IOException{
+        ImageObject fubaoImageObject = new ImageObject(PoiAssetCache.getInstance().get("fubao560x410.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "fubao.jpg");
+        ResampledImageCache resampledImageCache = ResampledImageCache.getInstance();
+
+        byte[] firstPictureByteArray;
+        BufferedImage firstPicture;
+        try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(writeResampledImage(fubaoImageObject)))){
+            firstPictureByteArray = getPictureData(workbook).getData();
+            firstPicture = ImageIO.read(new ByteArrayInputStream(firstPictureByteArray));
+        }
+        // 560x410 원본이 100px 열 너비에 맞게 줄어 저장된다.
+        assertThat(firstPicture.getWidth()).isLessThanOrEqualTo(110).isLessThan(fubaoImageObject.getWidth());
+        assertThat(firstPicture.getHeight()).isLessThan(fubaoImageObject.getHeight());
+        assertThat((long)firstPictureByteArray.length).isLessThan(fubaoImageObject.getContentLength());
+
+        ResampledImageCache.Key key = ResampledImageCache.keyOf(fubaoImageObject, firstPicture.getWidth(), firstPicture.getHeight(), OPTION);
+        assertThat(resampledImageCache.get(key)).isEqualTo(firstPictureByteArray);
+
+        // 다른 Workbook은 다시 인코딩하지 않고 캐시의 결과를 사용한다.
+        long hitCount = resampledImageCache.getHitCount();
+        try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(writeResampledImage(fubaoImageObject)))){
+            assertThat(getPictureData(workbook).getData()).isEqualTo(firstPictureByteArray);
+        }
+        assertThat(resampledImageCache.getHitCount()).isGreaterThan(hitCount);
+    }
+
+    @Test
+    public void entryOverheadBoundTest(){
+        // 크기가 0인 NOT_RESAMPLED 항목도 ENTRY_OVERHEAD_BYTES만큼 계산하므로, 오래된 항목부터 버려진다.
+        ResampledImageCache resampledImageCache = new ResampledImageCache(ResampledImageCache.ENTRY_OVERHEAD_BYTES * 2);
+        ResampledImageCache.Key[] keys = new ResampledImageCache.Key[3];
+        for(int i = 0; i < keys.length; i++){
+            keys[i] = new ResampledImageCache.Key(new byte[]{(byte)i}, 10, 10, OPTION);
+            resampledImageCache.put(keys[i], ResampledImageCache.NOT_RESAMPLED);
+        }
+        assertThat(resampledImageCache.get(keys[0])).isNull();
+        assertThat(resampledImageCache.get(keys[1])).isSameAs(ResampledImageCache.NOT_RESAMPLED);
+        assertThat(resampledImageCache.get(keys[2])).isSameAs(ResampledImageCache.NOT_RESAMPLED);
+    }
+}
@@ -0,0 +1,51 @@
+package com.practice.practice.apachepoi.simple;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class SparseCellIndexTest {
+
+    @Test
+    public void putAndGetTest(){
+        SparseCellIndex<String> index = new SparseCellIndex<>();
+        index.put(0, 0, "A1");
+        index.put(1000, 200, "GS1001");
+
+        assertThat(index.get(0, 0)).isEqualTo("A1");
+        assertThat(index.get(1000, 200)).isEqualTo("GS1001");
+        assertThat(index.get(1000, 199)).isNull();
+        assertThat(index.get(5000, 0)).isNull();
+        assertThat(index.get(0, -1)).isNull();
+        assertThat(index.get(-1, 0)).isNull();
+        assertThatThrownBy(() -> index.put(0, -1, "X")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void rangeAndRemoveTest(){
+        SparseCellIndex<String> index = new SparseCellIndex<>();
+        for(int i = 0; i < 10; i++){
+            for(int j = 0; j < 3; j++){
+                index.put(i, j, "R" + i + "C" + j);
+            }
+        }
+
+        List<String> column = new ArrayList<>();
+        index.forEachInColumn(1, 2, 4, column::add);
+        assertThat(column).containsExactly("R2C1", "R3C1", "R4C1");
+
+        List<String> row = new ArrayList<>();
+        index.forEachInRow(9, 0, 100, row::add);
+        assertThat(row).containsExactly("R9C0", "R9C1", "R9C2");
+
+        index.removeRowsUpTo(7);
+        assertThat(index.get(7, 0)).isNull();
+        assertThat(index.get(8, 0)).isEqualTo("R8C0");
+        assertThat(index.size()).isEqualTo(6);
+    }
+}
@@ -0,0 +1,79 @@
+package com.practice.practice.apachepoi.simple;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+/**
+ * WriteProfileEnum별 압축 방식(STORED, DEFLATED)과 파일 크기의 순서를 확인한다.
+ * 쓰기 시간과 크기의 측정은 WriteProfileBenchmark(src/jmh)에서 한다.
+ */
+public class WriteProfileTest {
+
+    private ExcelContoller createExcelContoller(){
+        PoiAssetCache poiAssetCache = PoiAssetCache.getInstance();
+        ImageObject dogImageObject = new ImageObject(poiAssetCache.get("dog200x200.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "dog.jpg");
+        ImageObject fubaoImageObject = new ImageObject(poiAssetCache.get("fubao560x410.jpg"), ImageFormatEnum.PICTURE_TYPE_JPEG, "fubao.jpg");
+        EmbeddedFile powerPointFile = new EmbeddedFile(poiAssetCache.get("test.pptx"), EmbeddedFileFormatEnum.POWER_POINT, "test.pptx");
+        EmbeddedFile excelFile = new EmbeddedFile(poiAssetCache.get("test.xlsx"), EmbeddedFileFormatEnum.EXCEL, "test.xlsx");
+
+        ExcelContoller excelContoller = new ExcelContoller();
+        List<Object[]> rows = new ArrayList<>();
+        for(int i = 0; i < 5000; i++){
+            rows.add(new Object[]{"Row" + i, i, i * 1.5d, "Text " + (i % 100)});
+        }
+        excelContoller.writeRows(10, rows);
+        excelContoller.selectCell(0, 0).addImage(dogImageObject).addImage(fubaoImageObject);
+        excelContoller.selectCell(0, 1).addFile(powerPointFile).addFile(excelFile);
+        return excelContoller;
+    }
+
+    @Test
+    public void writeProfileTest() throws IOException{
+        ExcelContoller excelContoller = createExcelContoller();
+        try{
+            Map<WriteProfileEnum, Integer> sizeMap = new EnumMap<>(WriteProfileEnum.class);
+            for(WriteProfileEnum writeProfile : WriteProfileEnum.values()){
+                byte[] byteArray = excelContoller.setWriteProfile(writeProfile).getByteArray();
+                sizeMap.put(writeProfile, byteArray.length);
+
+                try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(byteArray))){
+                    assertThat(workbook.getSheetAt(0).getRow(5009).getCell(0).getStringCellValue()).isEqualTo("Row4999");
+                    assertThat(workbook.getAllPictures()).isNotEmpty();
+                }
+
+                // 이미 압축된 이미지, 첨부 파일은 storePrecompressed인 경우만 압축하지 않는다.
+                int precompressedMethod = writeProfile.isStorePrecompressed() ? ZipEntry.STORED : ZipEntry.DEFLATED;
+                assertThat(getEntryMethod(byteArray, "xl/media/")).isEqualTo(precompressedMethod);
+                assertThat(getEntryMethod(byteArray, "xl/embeddings/")).isEqualTo(precompressedMethod);
+                assertThat(getEntryMethod(byteArray, "xl/worksheets/")).isEqualTo(ZipEntry.DEFLATED);
+            }
+
+            assertThat(sizeMap.get(WriteProfileEnum.FAST)).isGreaterThan(sizeMap.get(WriteProfileEnum.BALANCED));
+            assertThat(sizeMap.get(WriteProfileEnum.BALANCED)).isGreaterThan(sizeMap.get(WriteProfileEnum.SMALLEST));
+        }finally{
+            excelContoller.close();
+        }
+    }
+
+    private static int getEntryMethod(byte[] byteArray, String entryNamePrefix) throws IOException{
+        try(ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(byteArray))){
+            for(ZipEntry entry = zipInputStream.getNextEntry(); entry != null; entry = zipInputStream.getNextEntry()){
+                if(entry.getName().startsWith(entryNamePrefix)){
+                    return entry.getMethod();
+                }
+            }
+        }
+        return -1;
+    }
+}
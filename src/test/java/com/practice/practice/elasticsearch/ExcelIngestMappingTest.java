@@ -0,0 +1,62 @@
+package com.practice.practice.elasticsearch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.practice.practice.apachepoi.read.ExcelRow;
+import com.practice.practice.apachepoi.read.ExcelStreamReader;
+import com.practice.practice.apachepoi.simple.ColumnStyle;
+import com.practice.practice.apachepoi.simple.ExcelContoller;
+
+public class ExcelIngestMappingTest {
+
+    @Test
+    public void toDocumentTest() throws IOException{
+        List<ExcelRow> rows = readRows(Arrays.asList(
+            new Object[]{"번호", "내용", "금액", "등록일"},
+            new Object[]{1, "테스트", 10.5, LocalDate.of(2024, 5, 21)}
+        ));
+
+        ExcelIngestMapping mapping = new ExcelIngestMapping("dummy")
+            .addColumn("번호", "dummy_id")
+            .addColumn("내용", "text_value")
+            .addColumn(3, "created_date");
+        String[] fields = mapping.resolveFields(rows.get(0));
+        Map<String, Object> document = ExcelIngestMapping.toDocument(rows.get(1), fields);
+
+        assertThat(fields).containsExactly("dummy_id", "text_value", null, "created_date");
+        assertThat(document).containsExactly(
+            Map.entry("dummy_id", 1L),
+            Map.entry("text_value", "테스트"),
+            Map.entry("created_date", "2024-05-21T00:00:00")
+        );
+
+        // Column을 지정하지 않으면 Header 이름을 필드 이름으로 사용한다.
+        assertThat(new ExcelIngestMapping("dummy").resolveFields(rows.get(0))).containsExactly("번호", "내용", "금액", "등록일");
+    }
+
+    private List<ExcelRow> readRows(List<Object[]> values) throws IOException{
+        byte[] byteArray;
+        ExcelContoller excelContoller = new ExcelContoller();
+        try{
+            excelContoller.writeRows(0, values, null, null, null, new ColumnStyle().setDataFormat("yyyy-mm-dd"));
+            byteArray = excelContoller.getByteArray();
+        }finally{
+            excelContoller.close();
+        }
+        List<ExcelRow> rows = new ArrayList<>();
+        try(ExcelStreamReader reader = ExcelStreamReader.open(new ByteArrayInputStream(byteArray))){
+            reader.read(0, rows::add);
+        }
+        return rows;
+    }
+}